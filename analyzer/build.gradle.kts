@@ -102,6 +102,18 @@ val functionalTest = task<Test>("functionalTest") {
     systemProperties["jdk.attach.allowAttachSelf"] = "true"
 }
 
+// Scale tests against generated builds of up to 2000 modules ; the functional tests skip them.
+task<Test>("scaleTest") {
+    description = "Runs scale tests"
+    group = "verification"
+    testClassesDirs = sourceSets["functionalTest"].output.classesDirs
+    classpath = sourceSets["functionalTest"].runtimeClasspath
+    filter.includeTestsMatching("*ScaleFunctionalTest")
+    systemProperties["gmeScaleTest"] = "true"
+    mustRunAfter(functionalTest)
+    dependsOn("shadowJar")
+}
+
 val testJar by tasks.registering(Jar::class) {
     mustRunAfter(tasks["functionalTest"])
     archiveClassifier.set("tests")
@@ -0,0 +1,106 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.gradle.util.GradleVersion;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.common.scale.DAResponseTransformer;
+import org.jboss.gm.common.scale.LargeBuildGenerator;
+import org.jboss.gm.common.scale.ScaleResults;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Aligns generated builds of 50 to 2000 modules and records the duration and peak heap of the alignment to
+ * {@value ScaleResults#RESULTS}. These tests only run when the {@code gmeScaleTest} system property is set, as done by
+ * the {@code scaleTest} task.
+ */
+@RunWith(Parameterized.class)
+public class LargeBuildScaleFunctionalTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(
+            wireMockConfig().dynamicPort().extensions(new DAResponseTransformer()));
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Parameters(name = "{0} modules, kotlin {1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] {
+                { 50, false },
+                { 50, true },
+                { 500, false },
+                { 2000, false } });
+    }
+
+    private final int modules;
+
+    private final boolean kotlinDsl;
+
+    public LargeBuildScaleFunctionalTest(int modules, boolean kotlinDsl) {
+        this.modules = modules;
+        this.kotlinDsl = kotlinDsl;
+    }
+
+    @Before
+    public void setup() {
+        assumeTrue(Boolean.getBoolean("gmeScaleTest"));
+        DAResponseTransformer.stub(wireMockRule);
+    }
+
+    @Test
+    public void alignLargeBuild() throws IOException {
+        final File projectRoot = tempDir.newFolder("scale");
+
+        new LargeBuildGenerator()
+                .modules(modules)
+                .fanOut(20)
+                .lockFiles(true)
+                .platform(GradleVersion.current().compareTo(GradleVersion.version("5.0")) >= 0)
+                .dynamicVersions(true)
+                .kotlinDsl(kotlinDsl)
+                .generate(projectRoot);
+
+        final long start = System.nanoTime();
+        final BuildResult result = GradleRunner.create()
+                .withProjectDir(projectRoot)
+                .withArguments("-DgmeFunctionalTest=true",
+                        "-D" + Configuration.DA + '=' + DAResponseTransformer.endpoint(wireMockRule),
+                        "--init-script", LargeBuildGenerator.METRICS_INIT_SCRIPT,
+                        "--stacktrace",
+                        AlignmentTask.NAME)
+                .withPluginClasspath()
+                .build();
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.task(':' + AlignmentTask.NAME)).isNotNull()
+                .satisfies(t -> assertThat(t.getOutcome()).isEqualTo(TaskOutcome.SUCCESS));
+
+        final ManipulationModel model = ManipulationIO.readManipulationModel(projectRoot);
+        assertThat(model.getChildren()).hasSize(modules);
+        assertThat(model.getAllAlignedDependencies()).isNotEmpty();
+
+        ScaleResults.record(projectRoot, "alignment", modules + " modules " + (kotlinDsl ? "kotlin" : "groovy"),
+                millis);
+    }
+}
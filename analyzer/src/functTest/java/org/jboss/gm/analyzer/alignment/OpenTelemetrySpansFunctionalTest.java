@@ -0,0 +1,146 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.commonjava.maven.ext.io.rest.DefaultTranslator;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.utils.PhaseMetrics;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aligns the multi-module fixture with the in-memory span exporter (see {@link Configuration#otelSpanFile()}) and
+ * verifies the structure, attributes and timing of the spans recorded for each phase.
+ */
+public class OpenTelemetrySpansFunctionalTest extends AbstractWiremockTest {
+
+    private static final String SPAN_FILE = "build/gme-spans.json";
+
+    @Rule
+    public final SystemOutRule systemOutRule = new SystemOutRule().enableLog().muteForSuccessfulTests();
+
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Before
+    public void setup() throws IOException, URISyntaxException {
+        stubFor(post(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_GAVS))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json;charset=utf-8")
+                        .withBody(readSampleDAResponse("multi-module-da-root.json"))));
+        stubFor(post(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_LATEST))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json;charset=utf-8")
+                        .withBody(readSampleDAResponse("multi-module-da-root-project.json"))));
+
+        System.setProperty(Configuration.DA, "http://127.0.0.1:" + wireMockRule.port() + "/da/rest/v-1");
+    }
+
+    @Test
+    public void verifySpans() throws IOException, URISyntaxException {
+        verifySpans(Collections.singletonMap("otelSpanFile", SPAN_FILE));
+    }
+
+    @Test
+    public void verifySpansWithParallel() throws IOException, URISyntaxException {
+        final Map<String, String> properties = new HashMap<>();
+
+        // Any of the collection tasks may start first, and they run on different threads.
+        properties.put("otelSpanFile", SPAN_FILE);
+        properties.put("org.gradle.parallel", "true");
+        properties.put("org.gradle.workers.max", "4");
+        verifySpans(properties);
+    }
+
+    private void verifySpans(Map<String, String> properties) throws IOException, URISyntaxException {
+        final File projectRoot = tempDir.newFolder("multi-module");
+
+        TestUtils.align(projectRoot, projectRoot.getName(), properties);
+
+        final List<JsonNode> spans = new ArrayList<>();
+        new ObjectMapper().readTree(new File(projectRoot, SPAN_FILE)).forEach(spans::add);
+        final Map<String, JsonNode> byId = spans.stream()
+                .collect(Collectors.toMap(s -> s.get("spanId").asText(), Function.identity()));
+
+        assertThat(spans).allSatisfy(span -> assertThat(span.get("endEpochNanos").asLong())
+                .isGreaterThanOrEqualTo(span.get("startEpochNanos").asLong()));
+
+        // One collection per project, each holding the resolution of its configurations.
+        assertThat(named(spans, "collection"))
+                .extracting(s -> s.get("attributes").get("project").asText())
+                .containsExactlyInAnyOrder(":", ":subproject1", ":subproject1:subproject11", ":subproject2");
+        assertThat(named(spans, "collection"))
+                .allSatisfy(s -> assertThat(s.get("attributes").get("dependencies")).isNotNull());
+        assertThat(named(spans, "resolution")).isNotEmpty().allSatisfy(s -> {
+            assertThat(s.get("attributes").get("configuration").asText()).isNotEmpty();
+            assertThat(parent(byId, s)).hasValueSatisfying(p -> {
+                assertThat(p.get("name").asText()).isEqualTo("collection");
+                assertWithin(s, p);
+            });
+        });
+
+        // The aggregation holds the REST lookup, the customizers and the writing of the files.
+        final List<JsonNode> aggregation = named(spans, "aggregation");
+        assertThat(aggregation).hasSize(1);
+        assertThat(aggregation.get(0).get("attributes").get("projects").asLong()).isEqualTo(4);
+
+        final List<JsonNode> children = spans.stream()
+                .filter(s -> aggregation.get(0).get("spanId").asText().equals(s.path("parentSpanId").asText()))
+                .collect(Collectors.toList());
+        assertThat(children).extracting(s -> s.get("name").asText())
+                .contains("restLookup", "customizer.DependencyOverrideCustomizer",
+                        "customizer.UpdateProjectVersionCustomizer", "lockFileRewrite", "manipulationModel",
+                        "markerFiles", "report");
+        assertThat(children).allSatisfy(s -> assertWithin(s, aggregation.get(0)));
+
+        final JsonNode restLookup = named(spans, "restLookup").get(0);
+        assertThat(restLookup.get("attributes").get("gavs").asLong()).isGreaterThan(0);
+        assertThat(restLookup.get("attributes").get("projectGavs").asLong()).isGreaterThan(0);
+
+        // The phase summaries are written too as the spans are not exported to a collector.
+        assertThat(new File(projectRoot, "build/" + PhaseMetrics.METRICS_FILE)).exists();
+    }
+
+    private static List<JsonNode> named(List<JsonNode> spans, String name) {
+        return spans.stream().filter(s -> name.equals(s.get("name").asText())).collect(Collectors.toList());
+    }
+
+    private static Optional<JsonNode> parent(Map<String, JsonNode> byId, JsonNode span) {
+        return Optional.ofNullable(byId.get(span.path("parentSpanId").asText()));
+    }
+
+    private static void assertWithin(JsonNode span, JsonNode parent) {
+        assertThat(span.get("traceId").asText()).isEqualTo(parent.get("traceId").asText());
+        assertThat(span.get("startEpochNanos").asLong()).isGreaterThanOrEqualTo(parent.get("startEpochNanos").asLong());
+        assertThat(span.get("endEpochNanos").asLong()).isLessThanOrEqualTo(parent.get("endEpochNanos").asLong());
+    }
+}
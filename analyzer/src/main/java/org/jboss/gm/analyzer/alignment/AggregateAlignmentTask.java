@@ -0,0 +1,779 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.aeonbits.owner.ConfigCache;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.NotFileFilter;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
+import org.apache.commons.lang.StringUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.commonjava.maven.ext.common.json.GAV;
+import org.commonjava.maven.ext.common.json.ModulesItem;
+import org.commonjava.maven.ext.common.json.PME;
+import org.commonjava.maven.ext.common.util.JSONUtils;
+import org.commonjava.maven.ext.core.groovy.InvocationStage;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.internal.plugins.DefaultPluginManager;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.plugins.AppliedPlugin;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.TaskState;
+import org.jboss.gm.analyzer.alignment.AlignmentService.Response;
+import org.jboss.gm.analyzer.alignment.io.CollectionIO;
+import org.jboss.gm.analyzer.alignment.io.LockFileIO;
+import org.jboss.gm.analyzer.alignment.io.RepositoryExporter;
+import org.jboss.gm.analyzer.alignment.io.SettingsFileIO;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.ManipulationCache;
+import org.jboss.gm.common.io.ManipulationSidecarIO;
+import org.jboss.gm.common.logging.CollectionSummary;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.common.utils.GroovyUtils;
+import org.jboss.gm.common.utils.OTELUtils;
+import org.jboss.gm.common.utils.PhaseMetrics;
+import org.jboss.gm.common.utils.PluginUtils.DokkaVersion;
+import org.jboss.gm.common.utils.ProjectUtils;
+import org.jboss.gm.common.versioning.DynamicVersionParser;
+import org.jboss.gm.common.versioning.ProjectVersionFactory;
+import org.jboss.gm.common.versioning.RelaxedProjectVersionRef;
+
+import static java.util.Comparator.comparingInt;
+import static org.apache.commons.lang.StringUtils.isEmpty;
+import static org.gradle.api.Project.DEFAULT_VERSION;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.APPLY_GME_REPOS;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.GME;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.GME_PLUGINCONFIGS;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.GME_REPOS;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.GRADLE;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.INJECT_GME_END;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.INJECT_GME_END_KOTLIN;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.INJECT_GME_START;
+import static org.jboss.gm.analyzer.alignment.AlignmentTask.INJECT_GME_START_KOTLIN;
+import static org.jboss.gm.common.io.ManipulationIO.writeManipulationModel;
+import static org.jboss.gm.common.utils.FileUtils.append;
+
+/**
+ * The Gradle task of the root project that creates the {@code manipulation.json} file for the whole project (whether
+ * it's a single or multi module project). It depends on, and finalizes, the {@link AlignmentTask} of every project and
+ * aligns the dependencies they have collected in the {@link ManipulationCache}.
+ */
+public class AggregateAlignmentTask extends DefaultTask {
+    /**
+     * The task name {@code aggregateAlignmentMetadata}.
+     */
+    public static final String NAME = "aggregateAlignmentMetadata";
+
+    private static final String DOKKA = "org.jetbrains.dokka";
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    /**
+     * Returns whether the dependency collection of the given project belongs to this build. That is the case if its
+     * {@link AlignmentTask} has written it or if Gradle found the task up-to-date, as the collection then matches the
+     * current task inputs. A collection left behind by an earlier build, for instance because the task was excluded
+     * from this one, is stale.
+     *
+     * @param project the project
+     * @return true if the collection is current
+     */
+    static boolean isCollectionCurrent(Project project) {
+        final TaskState state = project.getTasks().getByName(AlignmentTask.NAME).getState();
+
+        return state.getExecuted() && state.getFailure() == null && (state.getDidWork() || state.getUpToDate());
+    }
+
+    /**
+     * Perform the alignment - REST calls, file modifications etc. after all projects have been scanned by their
+     * {@link AlignmentTask}.
+     */
+    @TaskAction
+    public void perform() {
+        final Project rootProject = getProject();
+        final Configuration configuration = ConfigCache.getOrCreate(Configuration.class);
+        final ManipulationCache cache = ManipulationCache.getCache(rootProject);
+
+        try (PhaseMetrics.Phase phase = PhaseMetrics.start("aggregation")) {
+            final List<Project> projects = rootProject.getAllprojects().stream()
+                    .filter(p -> p.getTasks().findByName(AlignmentTask.NAME) != null)
+                    .collect(Collectors.toList());
+            final List<Project> missing = projects.stream()
+                    .filter(p -> !AlignmentTask.getCollectionFile(p).exists())
+                    .collect(Collectors.toList());
+            final List<Project> stale = projects.stream()
+                    .filter(p -> !missing.contains(p) && !isCollectionCurrent(p))
+                    .collect(Collectors.toList());
+
+            phase.attribute("projects", projects.size());
+            if (!stale.isEmpty()) {
+                throw new ManipulationUncheckedException(
+                        "The dependency collections of {} were not written by this build as their {} tasks did not run",
+                        stale, AlignmentTask.NAME);
+            }
+            if (missing.isEmpty()) {
+                for (Project project : projects) {
+                    collect(configuration, cache, project);
+                }
+                align(configuration, cache, cache.getModel(), rootProject);
+            } else {
+                logger.warn("Not all projects have been scanned (remaining are {}) ; skipping alignment", missing);
+            }
+        } catch (ManipulationException | IOException e) {
+            throw new ManipulationUncheckedException(e);
+        } finally {
+            if (!OTELUtils.isEnabled()) {
+                try {
+                    PhaseMetrics.write(rootProject.getBuildDir());
+                } catch (IOException e) {
+                    logger.warn("Unable to write {} ; {}", PhaseMetrics.METRICS_FILE, e.getMessage());
+                }
+            }
+            OTELUtils.stopOTel();
+            if (!isEmpty(configuration.otelSpanFile())) {
+                try {
+                    OTELUtils.writeInMemorySpans(new File(rootProject.getRootDir(), configuration.otelSpanFile()));
+                } catch (IOException e) {
+                    logger.warn("Unable to write {} ; {}", configuration.otelSpanFile(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a project to the cache: its GAV, repositories and plugin information as well as the dependencies collected
+     * by its {@link AlignmentTask} (which may have been skipped as up-to-date).
+     *
+     * @param configuration the current Configuration
+     * @param cache the cache object
+     * @param project the project
+     * @throws ManipulationException if an error occurs
+     */
+    private void collect(Configuration configuration, ManipulationCache cache, Project project)
+            throws ManipulationException {
+        final Path root = project.getRootDir().toPath();
+        final ManipulationModel alignmentModel = cache.getModel();
+
+        String groupId = ProjectUtils.getRealGroupId(project);
+        String projectName = project.getName();
+
+        final String currentProjectVersion;
+        if (configuration.versionOverride() != null) {
+            currentProjectVersion = configuration.versionOverride();
+        } else {
+            currentProjectVersion = project.getVersion().toString();
+        }
+        logger.info("Processing project in directory '{}' with GAV {}:{}:{}",
+                project.getProjectDir().getName(), groupId, projectName, currentProjectVersion);
+
+        // If processing the root project _and_ we have a Maven publication configured then verify artifactId / groupId.
+        Project rootProject = project.getRootProject();
+
+        final String archivesBaseName = ProjectUtils.getArchivesBaseName(project);
+        if (archivesBaseName != null) {
+            logger.warn("Found archivesBaseName override ; resetting project name '{}' to '{}' ", project.getName(),
+                    archivesBaseName);
+            projectName = archivesBaseName;
+        }
+        if (project.equals(rootProject)) {
+            logger.debug("Processing root project in directory {}", root);
+            PublishingExtension extension = rootProject.getExtensions().findByType(PublishingExtension.class);
+            Map<String, MavenPublication> publications = (extension == null ? Collections.emptyMap()
+                    : extension
+                            .getPublications()
+                            .withType(MavenPublication.class)
+                            .getAsMap());
+            if (publications.size() > 1) {
+                logger.error("Multiple publications for a single project. Found {}", publications);
+            }
+            for (MavenPublication p : publications.values()) {
+                if (!rootProject.getGroup().equals(p.getGroupId())) {
+                    logger.warn("Mismatched groupId between project {} and publication {} ; resetting to publication.",
+                            rootProject.getGroup(),
+                            p.getGroupId());
+                    groupId = p.getGroupId();
+                    rootProject.setGroup(p.getGroupId());
+                    alignmentModel.setGroup(p.getGroupId());
+                }
+                if (!rootProject.getName().equals(p.getArtifactId())) {
+                    logger.warn("Mismatched artifactId between project {} and publication {} ; resetting to publication.",
+                            rootProject.getName(),
+                            p.getArtifactId());
+                    projectName = p.getArtifactId();
+                    ProjectUtils.updateNameField(rootProject, p.getArtifactId());
+                    alignmentModel.setName(p.getArtifactId());
+                }
+            }
+        }
+
+        cache.addDependencies(project, CollectionIO.readCollection(AlignmentTask.getCollectionFile(project)));
+
+        project.getRepositories().forEach(r -> cache.addRepository(r,
+                org.jboss.gm.common.utils.FileUtils.relativize(root, project.getProjectDir().toPath())));
+        project.getBuildscript().getRepositories().forEach(r -> cache.addRepository(r,
+                org.jboss.gm.common.utils.FileUtils.relativize(root, project.getProjectDir().toPath())));
+
+        if (StringUtils.isBlank(groupId) ||
+                DEFAULT_VERSION.equals(currentProjectVersion)) {
+            logger.warn("Project '{}:{}:{}' is not fully defined ; skipping. ", groupId, projectName,
+                    currentProjectVersion);
+        } else {
+            ProjectVersionRef current = ProjectVersionFactory.withGAV(groupId, projectName,
+                    currentProjectVersion);
+
+            logger.debug("Adding {} to cache for scanning.", current);
+            cache.addGAV(project, current);
+        }
+
+        AppliedPlugin ap = project.getPluginManager().findPlugin(DOKKA);
+        if (configuration.dokkaPlugin() && ap != null) {
+            if (project.getPluginManager().findPlugin("com.vanniktech.maven.publish") != null) {
+                logger.warn("Located https://github.com/vanniktech/gradle-maven-publish-plugin ; this embeds "
+                        + "Dokka plugin and may require manual changes");
+            }
+            logger.debug("Plugin {} has been applied to {}", ap.getId(), project.getName());
+            @SuppressWarnings("rawtypes")
+            Plugin p = ((DefaultPluginManager) project.getPluginManager()).getPluginContainer().findPlugin(DOKKA);
+            String path = p.getClass().getProtectionDomain().getCodeSource().getLocation().getPath();
+            Matcher m = Pattern.compile(".*-([\\d.]+[\\w_]*)\\.jar").matcher(path);
+            if (m.matches()) {
+                // TODO: What about if multiple Dokka versions are used? Currently NYI.
+                cache.setDokkaVersion(DokkaVersion.parseVersion(m.group(1)));
+                logger.debug("Found dokkaVersion {} : {}", m.group(1), cache.getDokkaVersion());
+            } else {
+                logger.warn("Found plugin {} but unable to parse version from {}", p, path);
+            }
+        }
+    }
+
+    /**
+     * Internal function to complete alignment - REST calls, file modifications etc. after all projects are processed.
+     *
+     * @param configuration the current Configuration
+     * @param cache the cache object
+     * @param alignmentModel the current alignmentModel
+     * @param rootProject a pointer to the root Gradle project
+     * @throws ManipulationException if an error occurs
+     * @throws IOException if an error occurs
+     */
+    private void align(Configuration configuration, ManipulationCache cache, ManipulationModel alignmentModel,
+            Project rootProject) throws ManipulationException, IOException {
+        logger.info("Completed scanning {} projects; now processing for exclusions/REST/overrides...",
+                cache.getDependencies().size());
+        final List<ProjectVersionRef> allDeps = cache.getDependencies().values().stream()
+                .flatMap(m -> m.values().stream()).sorted().distinct().collect(Collectors.toList());
+
+        AlignmentService alignmentService = configuration.restConcurrency() > 1
+                ? new ConcurrentDAAlignmentService(configuration)
+                : new DAAlignmentService(configuration);
+        if (configuration.incrementalAlignment() && !isEmpty(configuration.daEndpoint())) {
+            alignmentService = new IncrementalAlignmentService(alignmentService, configuration,
+                    rootProject.getRootDir());
+        }
+        final List<AlignmentService.Manipulator> manipulators = Stream
+                .of(new UpdateProjectVersionCustomizer(configuration, rootProject),
+                        new DependencyOverrideCustomizer(configuration, rootProject.getAllprojects()))
+                .sorted(comparingInt(AlignmentService.Manipulator::order))
+                .collect(Collectors.toList());
+
+        final Response alignmentResponse = alignmentService.align(
+                new AlignmentService.Request(cache.getProjectVersionRefs(configuration.versionSuffixSnapshot()),
+                        allDeps));
+
+        // Apply the current manipulators (DependencyOverride and UpdateProjectVersion)
+        // While they do support order, it's not hugely important given we only have two
+        // currently.
+        for (AlignmentService.Manipulator manipulator : manipulators) {
+            try (PhaseMetrics.Phase ignored = PhaseMetrics
+                    .start("customizer." + manipulator.getClass().getSimpleName())) {
+                manipulator.customize(alignmentResponse);
+            }
+        }
+
+        // Even if version modification is disabled, set the original version for consistency in the JSON file.
+        final Optional<Project> optionalOriginalVersion = rootProject.getAllprojects()
+                .stream()
+                .filter(p -> !DEFAULT_VERSION.equals(
+                        p.getVersion().toString()))
+                .findAny();
+        String originalVersion;
+        if (optionalOriginalVersion.isPresent()) {
+            originalVersion = optionalOriginalVersion.get().getVersion().toString();
+            alignmentModel.setOriginalVersion(originalVersion);
+        } else {
+            throw new ManipulationUncheckedException("Unable to locate a suitable original version");
+        }
+
+        final String newVersion = alignmentResponse.getNewProjectVersion();
+
+        // While we've completed processing (sub)projects the current one is not going to be the root; so
+        // explicitly retrieve it and set its version.
+        if (configuration.versionModificationEnabled()) {
+            logger.info("Updating model version for {} from {} to {}", rootProject,
+                    rootProject.getVersion(), newVersion);
+            alignmentModel.setVersion(newVersion);
+        } else {
+            alignmentModel.setVersion(originalVersion);
+            logger.info("Version modification disabled. Model version is {}", alignmentModel.getVersion());
+        }
+
+        // Map of Project : <PVR(Original) : PVR<Replacement>>
+        final Map<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>> projectDependencies = cache
+                .getDependencies();
+
+        // Iterate through all modules and set their version
+        projectDependencies.forEach((project, value) -> {
+            final ManipulationModel correspondingModule = alignmentModel.findCorrespondingChild(project);
+            if (configuration.versionModificationEnabled()) {
+                logger.info("Updating sub-project {} (path: {}) from version {} to {}", correspondingModule,
+                        correspondingModule.getProjectPathName(), originalVersion, newVersion);
+                correspondingModule.setOriginalVersion(originalVersion);
+                correspondingModule.setVersion(newVersion);
+            } else {
+                correspondingModule.setOriginalVersion(originalVersion);
+                correspondingModule.setVersion(originalVersion);
+                logger.info("Version modification disabled. Sub-project {} (path: {}) version is {}",
+                        correspondingModule, correspondingModule.getProjectPathName(), correspondingModule.getVersion());
+            }
+            updateModuleDependencies(project, correspondingModule, value, alignmentResponse);
+            try (PhaseMetrics.Phase ignored = PhaseMetrics.start("lockFileRewrite")) {
+                LockFileIO.updateLockfiles(logger, project.getProjectDir(),
+                        correspondingModule.getAlignedDependencies());
+            }
+        });
+        // Now need to update the historical lock file format (if it exists). This is one lockfile
+        // per SCM repository
+        try (PhaseMetrics.Phase ignored = PhaseMetrics.start("lockFileRewrite")) {
+            LockFileIO.updateLockfiles(logger, new File(rootProject.getRootDir(), "gradle/dependency-locks"),
+                    alignmentModel.getAllAlignedDependencies());
+        }
+
+        // artifactId / rootProject.getName
+        final String artifactId = SettingsFileIO.writeProjectNameIfNeeded(getProject().getRootDir());
+        if (!isEmpty(artifactId)) {
+            logger.debug("Located artifactId ({}) for {}::{}", artifactId, alignmentModel.getGroup(),
+                    alignmentModel.getVersion());
+            alignmentModel.setName(artifactId);
+        }
+
+        // groupId
+        if (isEmpty(alignmentModel.getGroup())) {
+            final Set<String> candidates = cache.getModel().getChildren()
+                    .values()
+                    .stream().map(ManipulationModel::getGroup)
+                    .filter(StringUtils::isNotBlank)
+                    .collect(Collectors.toSet());
+
+            logger.debug("Found potential candidates of {} to establish a groupId.",
+                    CollectionSummary.of(logger, candidates));
+            final String commonPrefix = StringUtils.stripEnd(StringUtils.getCommonPrefix(candidates
+                    .toArray(new String[0])), ".");
+
+            if (isEmpty(commonPrefix)) {
+                throw new ManipulationException(
+                        "Empty groupId but unable to determine a suitable replacement from any child modules.");
+            }
+
+            logger.warn("groupId for {} ({}) is empty. Defaulting to common prefix of '{}'", rootProject,
+                    rootProject.getProjectDir(), commonPrefix);
+            alignmentModel.setGroup(commonPrefix);
+        }
+        processPropertiesForBuildCache(rootProject.getRootDir());
+
+        logger.info("Completed processing for alignment and writing {}", cache);
+        GroovyUtils.runCustomGroovyScript(logger, InvocationStage.LAST, rootProject.getRootDir(), configuration,
+                rootProject,
+                alignmentModel);
+        try (PhaseMetrics.Phase ignored = PhaseMetrics.start("manipulationModel")) {
+            writeManipulationModel(rootProject.getRootDir(), alignmentModel);
+            if (configuration.manipulationSidecar()) {
+                ManipulationSidecarIO.writeManipulationSidecar(rootProject.getRootDir(), alignmentModel);
+            } else {
+                // Remove any sidecar of a previous alignment as it no longer matches the JSON file.
+                Files.deleteIfExists(
+                        rootProject.getRootDir().toPath().resolve(ManipulationSidecarIO.SIDECAR_FILE_NAME));
+            }
+        }
+        try (PhaseMetrics.Phase ignored = PhaseMetrics.start("markerFiles")) {
+            // Ordering is important here ; we mustn't inject the gme-repos file before iterating over all *.gradle
+            // files.
+            updateAllExtraGradleFilesWithGmeRepos();
+
+            logger.info("For project script is {} and build file {}", rootProject.getBuildscript(),
+                    rootProject.getBuildFile());
+            logger.info("For project {}", rootProject.getBuildscript().getSourceFile());
+            SettingsFileIO.writeDokkaSettings(rootProject.getRootDir(), cache.getDokkaVersion());
+            writeGmeMarkerFile(configuration, rootProject.getBuildFile());
+            writeGmePluginConfigMarkerFile(rootProject.getBuildFile(), cache.getDokkaVersion());
+            writeGmeReposMarkerFile();
+            writeRepositorySettingsFile(cache.getRepositories());
+        }
+
+        final Set<ProjectVersionRef> nonAligned = new LinkedHashSet<>();
+        try (PhaseMetrics.Phase ignored = PhaseMetrics.start("report")) {
+            processAlignmentReport(rootProject, configuration, cache, alignmentResponse, nonAligned);
+        }
+    }
+
+    private void processPropertiesForBuildCache(File rootProject) throws IOException {
+        File properties = new File(rootProject, "gradle.properties");
+        if (properties.exists()) {
+            List<String> lines = FileUtils.readLines(properties, Charset.defaultCharset());
+            if (lines.removeIf(i -> i.contains("org.gradle.caching"))) {
+                FileUtils.writeLines(properties, lines);
+            }
+        }
+    }
+
+    private void writeGmeMarkerFile(Configuration configuration, File rootGradle) throws IOException {
+        File rootDir = getProject().getRootDir();
+        File gmeGradle = new File(rootDir, GME);
+        Files.copy(getClass().getResourceAsStream('/' + GME), gmeGradle.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+
+        if (!isEmpty(configuration.manipulationVersion())) {
+            String gmeGradleString = FileUtils.readFileToString(gmeGradle, Charset.defaultCharset());
+            String currentVersion = gmeGradleString.replaceFirst(
+                    "(?s).*(classpath \"org.jboss.gm:manipulation:)([0-9]+\\.[0-9]+(-SNAPSHOT)??)\".*", "$2");
+            logger.info("Replacing version {} with {} for the ManipulationPlugin", currentVersion,
+                    configuration.manipulationVersion());
+            FileUtils.writeStringToFile(gmeGradle,
+                    gmeGradleString.replaceFirst(currentVersion, configuration.manipulationVersion()),
+                    Charset.defaultCharset());
+        }
+
+        if (rootGradle.exists()) {
+            List<String> buildScript = FileUtils.readLines(rootGradle, Charset.defaultCharset());
+            String injectedLine = rootGradle.getName().endsWith(".kts") ? INJECT_GME_START_KOTLIN : INJECT_GME_START;
+
+            if (buildScript.stream().noneMatch(s -> s.contains(injectedLine))) {
+                // Now need to determine whether there is an existing buildscript block. This block may not be first
+                // as there may be comments/imports.
+                boolean existing = false;
+                for (int i = 0; i < buildScript.size(); i++) {
+                    String m = buildScript.get(i);
+                    if (m.matches("(\\s|^)*buildscript\\s*(\\{)*.*") && !m.matches("//.*buildscript")) {
+                        if (!m.contains("{")) {
+                            // The brace is on the next line. Concatenate to make the replacement work.
+                            m = m + buildScript.get(i + 1);
+                            buildScript.remove(i + 1);
+                        }
+                        // Replace existing buildscript with a subsection excluding closing brace
+                        buildScript.set(i, m.replaceFirst("buildscript(\\s)*\\{", injectedLine));
+                        existing = true;
+                    }
+                }
+                if (!existing) {
+                    buildScript.addAll(0, Collections.singletonList(injectedLine + " }"));
+                }
+                logger.debug("Updating {} with {}", rootGradle, injectedLine);
+                FileUtils.writeLines(rootGradle, buildScript);
+            }
+        } else {
+            logger.warn("Unable to find build.gradle in {} to modify.", rootDir);
+        }
+    }
+
+    private void writeGmePluginConfigMarkerFile(File rootGradle, DokkaVersion dokkaVersion) throws IOException {
+        File rootDir = getProject().getRootDir();
+        File gmePluginConfigsGradle = new File(rootDir, GME_PLUGINCONFIGS);
+        Files.copy(getClass().getResourceAsStream('/' + GME_PLUGINCONFIGS), gmePluginConfigsGradle.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+
+        // Use DokkaVersion to determine how to replace <DOKKA> in the gme-plugin-configs with
+        // either 0.9.18, 0.10 or 1.4 version
+        if (dokkaVersion != DokkaVersion.NONE) {
+            String gmePluginFile = FileUtils.readFileToString(gmePluginConfigsGradle, Charset.defaultCharset());
+            String replacementStart = "\n"
+                    + "        if (project.getTasks().getNames().stream().any{s -> s.startsWith(\"dokka\")}) {\n";
+            String replacementDokka = "          dokka {\n";
+            String replacementMid = "              // Disable linking to online kotlin-stdlib documentation\n"
+                    + "              noStdlibLink = true\n"
+                    + "              // Disable linking to online JDK documentation\n"
+                    + "              noJdkLink = true\n"
+                    + "              // Disable any user-configured external links.\n"
+                    + "              externalDocumentationLinks.clear()\n"
+                    + "            }\n";
+            String replacementEnd = "        }\n";
+            String replacementConfiguration = "         configuration {\n";
+            switch (dokkaVersion) {
+                case MINIMUM: {
+                    gmePluginFile = gmePluginFile.replace("<DOKKA>",
+                            replacementStart + replacementDokka + replacementMid + replacementEnd);
+                    break;
+                }
+                case TEN: {
+                    gmePluginFile = gmePluginFile.replace("<DOKKA>",
+                            replacementStart + replacementDokka + replacementConfiguration +
+                                    replacementMid + "         }\n" + replacementEnd);
+                    break;
+                }
+                case POST_ONE: {
+                    // Leaving this for now as later versions according to the below have supported proxy settings
+                    // https://github.com/Kotlin/dokka/issues/261
+                    // https://github.com/Kotlin/dokka/issues/213
+                    logger.warn("Dokka for {} is not implemented", dokkaVersion);
+                    break;
+                }
+                // No default as that is NONE
+            }
+            logger.debug("Replacing Dokka template for version {}", dokkaVersion);
+            FileUtils.writeStringToFile(gmePluginConfigsGradle, gmePluginFile, Charset.defaultCharset());
+        }
+
+        if (rootGradle.exists()) {
+
+            String injectedLine = rootGradle.getName().endsWith(".kts") ? INJECT_GME_END_KOTLIN : INJECT_GME_END;
+            String line = org.jboss.gm.common.utils.FileUtils.getLastLine(rootGradle);
+            logger.debug("Read last line '{}' from {}", line, rootGradle);
+
+            if (!line.trim().equals(injectedLine)) {
+                // Haven't appended it before.
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(rootGradle, true))) {
+                    // Ensure the marker is on a line by itself.
+                    writer.newLine();
+                    writer.write(injectedLine);
+                    writer.newLine();
+                    writer.flush();
+                }
+            }
+        } else {
+            logger.warn("Unable to find build.gradle in {} to modify.", rootDir);
+        }
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private void writeGmeReposMarkerFile() throws IOException {
+        File rootDir = getProject().getRootDir();
+        File gradleDir = new File(rootDir, GRADLE);
+        gradleDir.mkdir();
+        File gmeReposGradle = new File(gradleDir, GME_REPOS);
+
+        Files.copy(getClass().getResourceAsStream('/' + GME_REPOS), gmeReposGradle.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void updateAllExtraGradleFilesWithGmeRepos() throws IOException, ManipulationException {
+        final File rootDir = getProject().getRootDir();
+        final File gradleScriptsDirectory = rootDir.toPath().resolve(GRADLE).toFile();
+        if (!gradleScriptsDirectory.exists()) {
+            return;
+        }
+        final Collection<File> extraGradleScripts = FileUtils.listFiles(gradleScriptsDirectory,
+                FileFilterUtils.and(new SuffixFileFilter(".gradle"), new NotFileFilter(new NameFileFilter(GME_REPOS))),
+                DirectoryFileFilter.DIRECTORY);
+        for (File extraGradleScript : extraGradleScripts) {
+            final List<String> lines = FileUtils.readLines(extraGradleScript, Charset.defaultCharset());
+
+            if (!APPLY_GME_REPOS.equals(org.jboss.gm.common.utils.FileUtils.getFirstLine(lines))) {
+                final List<String> result = new ArrayList<>(lines.size() + 2);
+                result.add(APPLY_GME_REPOS);
+                result.add(System.lineSeparator());
+                result.addAll(lines);
+                FileUtils.writeLines(extraGradleScript, result);
+            }
+        }
+    }
+
+    /**
+     * This does the actual substitution replacing the dependencies with aligned version if it exists
+     *
+     * @param project the project we are updating
+     * @param correspondingModule the module we are working on
+     * @param allModuleDependencies the collection of dependencies
+     * @param alignmentResponse the response which (possibly) contains overrides and DA information
+     */
+    private void updateModuleDependencies(Project project, ManipulationModel correspondingModule,
+            Map<RelaxedProjectVersionRef, ProjectVersionRef> allModuleDependencies,
+            Response alignmentResponse) {
+
+        allModuleDependencies.forEach((d, projectVersionRef) -> {
+            final String newDependencyVersion = alignmentResponse.getAlignedVersionOfGav(project, projectVersionRef);
+            if (!StringUtils.isEmpty(newDependencyVersion)) {
+                logger.debug("In module {} with GAV {} found a replacement version of {}",
+                        correspondingModule.getProjectPathName(), projectVersionRef, newDependencyVersion);
+
+                final ProjectVersionRef newVersion = ProjectVersionFactory.withNewVersion(projectVersionRef,
+                        newDependencyVersion);
+                // we need to make sure that dynamic dependencies are stored with their original key
+                // in order for the manipulation plugin to be able to look them up properly
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Mapping {} to {} (and is dynamic {})", d, newVersion,
+                            DynamicVersionParser.isDynamic(d.getVersionString()));
+                }
+                correspondingModule.getAlignedDependencies().put(d.toString(), newVersion);
+            }
+        });
+    }
+
+    /**
+     * Writes a maven settings file containing artifact repositories used by this project.
+     *
+     * @param repositories A map of repositories to the file path where it occurred.
+     */
+    private void writeRepositorySettingsFile(Map<ArtifactRepository, Path> repositories) {
+        Configuration config = ConfigCache.getOrCreate(Configuration.class);
+
+        String repositoriesFilePath = config.repositoriesFile();
+        if (!isEmpty(repositoriesFilePath)) {
+            File repositoriesFile;
+            if (Paths.get(repositoriesFilePath).isAbsolute()) {
+                repositoriesFile = new File(repositoriesFilePath);
+            } else {
+                repositoriesFile = new File(getProject().getRootDir(), repositoriesFilePath);
+            }
+
+            RepositoryExporter.export(repositories, repositoriesFile);
+        } else {
+            logger.info("Repository export disabled.");
+        }
+    }
+
+    private void writeReport(Path outputDir, String filename, String text) throws ManipulationException {
+        final Path reportFile = outputDir.resolve(filename);
+
+        try {
+            logger.debug("Writing to file {}", reportFile);
+            Files.createDirectories(outputDir);
+            FileUtils.writeStringToFile(reportFile.toFile(), text, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to write " + reportFile, e);
+        }
+    }
+
+    private void processAlignmentReport(Project project, Configuration configuration, ManipulationCache cache,
+            Response alignmentResponse, Set<ProjectVersionRef> nonAligned) throws ManipulationException, IOException {
+        final ManipulationModel alignmentModel = cache.getModel();
+        final String originalGa = alignmentModel.getGroup() + ":" + alignmentModel.getName();
+        final StringBuilder builder = new StringBuilder(500);
+        final PME jsonReport = new PME();
+        final List<ModulesItem> modules = jsonReport.getModules();
+        final ProjectVersionRef pvr = SimpleProjectVersionRef.parse(originalGa + ":" + alignmentModel.getVersion());
+        final GAV g = new GAV();
+        final String originalGav = originalGa + ":" + alignmentModel.getOriginalVersion();
+        g.setOriginalGAV(originalGav);
+        g.setPVR(pvr);
+        jsonReport.setGav(g);
+
+        if (configuration.restCache()) {
+            append(builder, "------------------- REST lookup cache : {} hits, {} misses",
+                    alignmentResponse.getCacheHits(), alignmentResponse.getCacheMisses());
+            builder.append(System.lineSeparator());
+        }
+
+        final Map<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>> projectDependencies = cache
+                .getDependencies();
+        final Set<Map.Entry<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>>> entrySet = projectDependencies
+                .entrySet();
+
+        for (Map.Entry<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>> entry : entrySet) {
+            final Project name = entry.getKey();
+            final Map<RelaxedProjectVersionRef, ProjectVersionRef> allModuleDependencies = entry.getValue();
+            final ManipulationModel correspondingModule = alignmentModel.findCorrespondingChild(name);
+            final String group = correspondingModule.getGroup().isEmpty() ? alignmentModel.getGroup()
+                    : correspondingModule.getGroup();
+            final String ga = group + ":" + correspondingModule.getName();
+            final String v = correspondingModule.getOriginalVersion() == null ? alignmentModel.getOriginalVersion()
+                    : correspondingModule.getOriginalVersion();
+            final String newModuleVersion = correspondingModule.getVersion();
+            final String newModuleGav = ga + ":" + newModuleVersion;
+            append(builder, "------------------- project {} (path: {})", ga, name.getPath());
+
+            if (!v.equals(newModuleVersion)) {
+                append(builder, "\tProject version : {} --> {}", v, newModuleVersion);
+            }
+
+            builder.append(System.lineSeparator());
+            final ModulesItem module = new ModulesItem();
+            final String originalModuleGav = ga + ":" + v;
+            module.getGav().setOriginalGAV(originalModuleGav);
+            module.getGav().setPVR(SimpleProjectVersionRef.parse(newModuleGav));
+            modules.add(module);
+            final Map<String, ProjectVersionRef> dependencies = new LinkedHashMap<>();
+            final boolean reportNonAligned = configuration.reportNonAligned();
+            final Set<Map.Entry<RelaxedProjectVersionRef, ProjectVersionRef>> allModuleDependenciesEntrySet = allModuleDependencies
+                    .entrySet();
+
+            for (Map.Entry<RelaxedProjectVersionRef, ProjectVersionRef> e : allModuleDependenciesEntrySet) {
+                final RelaxedProjectVersionRef d = e.getKey();
+                final ProjectVersionRef newDependencyVersion = correspondingModule.getAlignedDependencies()
+                        .get(d.toString());
+
+                if (newDependencyVersion == null) {
+                    if (reportNonAligned) {
+                        nonAligned.add(d);
+                    }
+                } else {
+                    dependencies.put(d.toString(), newDependencyVersion);
+                }
+            }
+
+            if (!dependencies.isEmpty()) {
+                module.getDependencies().putAll(dependencies);
+                final Set<Map.Entry<String, ProjectVersionRef>> dependenciesEntrySet = dependencies.entrySet();
+
+                for (Map.Entry<String, ProjectVersionRef> dependencyEntry : dependenciesEntrySet) {
+                    final String p = dependencyEntry.getKey();
+                    final ProjectVersionRef newDependencyVersion = dependencyEntry.getValue();
+                    append(builder, "\tDependencies : {} --> {}", p, newDependencyVersion);
+                }
+            }
+
+            if (!nonAligned.isEmpty()) {
+                for (ProjectVersionRef na : nonAligned) {
+                    append(builder, "\tNon-Aligned Dependencies : {}", na);
+                }
+            }
+
+            if (!dependencies.isEmpty() || !nonAligned.isEmpty()) {
+                builder.append(System.lineSeparator());
+            }
+        }
+
+        final String reportText = builder.toString();
+        logger.info("{}{}", System.lineSeparator(), reportText);
+        final Path outputDir = project.getRootProject().getBuildDir().toPath();
+
+        if (!StringUtils.isEmpty(configuration.reportTxtOutputFile())) {
+            writeReport(outputDir, configuration.reportTxtOutputFile(), reportText);
+        }
+
+        if (!StringUtils.isEmpty(configuration.reportJsonOutputFile())) {
+            writeReport(outputDir, configuration.reportJsonOutputFile(),
+                    JSONUtils.jsonToString(jsonReport) + System.lineSeparator());
+        }
+    }
+}
@@ -17,10 +17,12 @@ import org.jboss.gm.common.logging.FilteringCustomLogger;
 import org.jboss.gm.common.logging.GMLogger;
 import org.jboss.gm.common.model.ManipulationModel;
 import org.jboss.gm.common.utils.OTELUtils;
+import org.jboss.gm.common.utils.PhaseMetrics;
 
 /**
- * Results in adding a task with name {@value org.jboss.gm.analyzer.alignment.AlignmentTask#NAME}.
- * It scans the project(s) and creates the manipulation models.
+ * Results in adding a task with name {@value org.jboss.gm.analyzer.alignment.AlignmentTask#NAME} to each project,
+ * which scans the project, and a task with name {@value org.jboss.gm.analyzer.alignment.AggregateAlignmentTask#NAME}
+ * to the root project, which creates the manipulation models.
  */
 @SuppressWarnings("unused")
 public class AlignmentPlugin implements Plugin<Project> {
@@ -39,6 +41,8 @@ public class AlignmentPlugin implements Plugin<Project> {
         // we need to create an empty alignment file at the project root
         // this file will then be populated by the alignment task of each project
         if (project.getRootProject() == project) {
+            // The plugin classes may be reused by the daemon so discard the phases of a previous build.
+            PhaseMetrics.reset();
             project.afterEvaluate(pr -> {
                 // Run this in afterEvaluate because only then is the group information populated for certain projects
                 final ManipulationCache cache = ManipulationCache.getCache(project, getManipulationModel(project));
@@ -50,6 +54,36 @@ public class AlignmentPlugin implements Plugin<Project> {
         }
 
         Task task = project.getTasks().create(AlignmentTask.NAME, AlignmentTask.class);
+        markNotCompatibleWithConfigurationCache(task);
+
+        // The collection of a project may only be reused (up-to-date or from the build cache) if explicitly enabled.
+        task.getOutputs().upToDateWhen(t -> ConfigCache.getOrCreate(Configuration.class).alignmentCaching());
+        task.getOutputs().cacheIf(t -> ConfigCache.getOrCreate(Configuration.class).alignmentCaching());
+
+        // Need to delay the OpenTelemetry creation until a task is started to ensure the root span is in the thread
+        // local of a task. With --parallel any of the collection tasks may start first so each starts it if required.
+        task.doFirst(t -> OTELUtils.startOTel());
+
+        // The per-project tasks only collect ; the aggregate task of the root project runs after all of them (even
+        // with --parallel) and performs the alignment.
+        final Task aggregate = getAggregateTask(project.getRootProject());
+        aggregate.dependsOn(task);
+        task.finalizedBy(aggregate);
+    }
+
+    private Task getAggregateTask(Project rootProject) {
+        Task aggregate = rootProject.getTasks().findByName(AggregateAlignmentTask.NAME);
+
+        if (aggregate == null) {
+            aggregate = rootProject.getTasks().create(AggregateAlignmentTask.NAME, AggregateAlignmentTask.class);
+            markNotCompatibleWithConfigurationCache(aggregate);
+            // Every collection task may have been up-to-date.
+            aggregate.doFirst(t -> OTELUtils.startOTel());
+        }
+        return aggregate;
+    }
+
+    private void markNotCompatibleWithConfigurationCache(Task task) {
         if (GradleVersion.current().compareTo(GradleVersion.version("7.4")) >= 0) {
             try {
                 Method m = Task.class.getMethod("notCompatibleWithConfigurationCache", String.class);
@@ -59,21 +93,11 @@ public class AlignmentPlugin implements Plugin<Project> {
                         e);
             }
         }
-
-        if (project.getRootProject() == project) {
-            task.doFirst(t -> {
-                // Need to delay the OpenTelemetry creation until this task is started to ensure
-                // it is in the same thread local.
-                OTELUtils.startOTel();
-            });
-        }
     }
 
     private ManipulationModel getManipulationModel(Project project) {
-        final ManipulationCache cache = ManipulationCache.getCache(project);
         final ManipulationModel alignmentModel = new ManipulationModel(project);
 
-        cache.addProject(project);
         project.getChildProjects().forEach((n, p) -> alignmentModel.addChild(getManipulationModel(p)));
 
         return alignmentModel;
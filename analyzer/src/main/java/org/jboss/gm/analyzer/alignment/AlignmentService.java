@@ -3,8 +3,9 @@ package org.jboss.gm.analyzer.alignment;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,6 +14,7 @@ import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.gradle.api.Project;
+import org.jboss.gm.analyzer.alignment.util.DependencyOverrideIndex;
 
 /**
  * Used by {@link org.jboss.gm.analyzer.alignment.AlignmentTask} in order to perform the alignment.
@@ -91,6 +93,12 @@ public interface AlignmentService {
          */
         private Map<Project, Map<ProjectRef, String>> dependencyOverrides = new LinkedHashMap<>();
 
+        /**
+         * The index of the dependency overrides of each project ; built on first use.
+         */
+        @Getter(AccessLevel.NONE)
+        private final Map<Project, DependencyOverrideIndex> dependencyOverrideIndexes = new ConcurrentHashMap<>();
+
         /**
          * The new project version.
          *
@@ -99,6 +107,22 @@ public interface AlignmentService {
          */
         private String newProjectVersion;
 
+        /**
+         * The number of dependency GAVs answered by the REST lookup cache.
+         *
+         * @param cacheHits the number of cache hits
+         * @return the number of cache hits
+         */
+        private int cacheHits;
+
+        /**
+         * The number of dependency GAVs not found in the REST lookup cache and therefore sent to the server.
+         *
+         * @param cacheMisses the number of cache misses
+         * @return the number of cache misses
+         */
+        private int cacheMisses;
+
         /**
          * Creates a new response from the given translation map.
          *
@@ -108,11 +132,22 @@ public interface AlignmentService {
             this.translationMap = translationMap;
         }
 
+        /**
+         * Sets the override map scoped by project. The map should not be modified afterwards as it is indexed on
+         * first use.
+         *
+         * @param dependencyOverrides the override map
+         */
+        public void setDependencyOverrides(Map<Project, Map<ProjectRef, String>> dependencyOverrides) {
+            this.dependencyOverrides = dependencyOverrides;
+            dependencyOverrideIndexes.clear();
+        }
+
         String getAlignedVersionOfGav(Project project, ProjectVersionRef gav) {
-            final Optional<ProjectRef> projectRef = matchingProjectRef(project, gav);
+            final ProjectRef projectRef = matchingProjectRef(project, gav);
 
-            if (projectRef.isPresent()) {
-                return dependencyOverrides.get(project).get(projectRef.get());
+            if (projectRef != null) {
+                return dependencyOverrides.get(project).get(projectRef);
             }
             if (translationMap == null) {
                 throw new ManipulationUncheckedException("Translation map has not been initialised");
@@ -120,10 +155,16 @@ public interface AlignmentService {
             return translationMap.get(gav);
         }
 
-        private Optional<ProjectRef> matchingProjectRef(Project project, ProjectRef gav) {
-            return dependencyOverrides == null ? Optional.empty()
-                    : dependencyOverrides.get(project) == null ? Optional.empty()
-                            : dependencyOverrides.get(project).keySet().stream().filter(p -> p.matches(gav)).findFirst();
+        private ProjectRef matchingProjectRef(Project project, ProjectRef gav) {
+            if (dependencyOverrides == null) {
+                return null;
+            }
+            final Map<ProjectRef, String> overrides = dependencyOverrides.get(project);
+            if (overrides == null || overrides.isEmpty()) {
+                return null;
+            }
+            return dependencyOverrideIndexes.computeIfAbsent(project,
+                    p -> new DependencyOverrideIndex(overrides.keySet())).findMatch(gav);
         }
     }
 
@@ -0,0 +1,160 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.commonjava.maven.ext.io.rest.RestException;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.utils.PhaseMetrics;
+import org.slf4j.Logger;
+
+import static org.apache.commons.lang.StringUtils.isEmpty;
+
+/**
+ * An implementation of {@link AlignmentService} that, like {@link DAAlignmentService}, uses the Dependency Analyzer
+ * service but dispatches the lookups concurrently. The dependency GAVs are split into chunks that are looked up in
+ * parallel, with at most {@link Configuration#restConcurrency()} requests in flight, while the project GAVs are
+ * looked up at the same time. The answers are merged into a single {@link AlignmentService.Response}.
+ * <p>
+ * The chunk size is {@link Configuration#restMaxSize()} if set, otherwise the GAVs are split evenly between the
+ * available requests.
+ */
+public class ConcurrentDAAlignmentService extends DAAlignmentService {
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    private final String endpointUrl;
+
+    private final int concurrency;
+
+    private final int maxChunkSize;
+
+    /**
+     * Constructs a new concurrent Dependency Analyzer service with the given configuration.
+     *
+     * @param configuration holds all configuration values for the plugins
+     */
+    public ConcurrentDAAlignmentService(Configuration configuration) {
+        super(configuration);
+
+        endpointUrl = configuration.daEndpoint();
+        concurrency = Math.max(1, configuration.restConcurrency());
+        maxChunkSize = configuration.restMaxSize();
+    }
+
+    /**
+     * Performs the alignment of the given request.
+     *
+     * @param request both the collected project dependencies GAVs and the project GAVs
+     * @return the resulting aligned dependencies from the dependency analyzer
+     * @throws RestException if an error occurs looking up the versions.
+     */
+    @Override
+    public Response align(AlignmentService.Request request) throws RestException {
+        if (isEmpty(endpointUrl)) {
+            return super.align(request);
+        }
+        // The logging level is global, so raise it once around all the concurrent lookups.
+        return withRestLogging(() -> super.align(request));
+    }
+
+    @Override
+    protected Lookups openLookups(AlignmentService.Request request) {
+        return new ConcurrentLookups(request.getProject());
+    }
+
+    /**
+     * The lookups of a single call, which own the executor they are dispatched through.
+     */
+    private final class ConcurrentLookups extends Lookups {
+        private final ExecutorService executor;
+
+        private final Future<Map<ProjectVersionRef, String>> projectLookup;
+
+        private ConcurrentLookups(List<ProjectVersionRef> pParams) {
+            final AtomicInteger counter = new AtomicInteger();
+
+            executor = Executors.newFixedThreadPool(concurrency, r -> {
+                final Thread thread = new Thread(r, "gme-rest-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Pipeline the project lookup so it runs alongside the dependency lookups.
+            projectLookup = pParams.isEmpty() ? null
+                    : executor.submit(() -> getRestEndpoint().lookupProjectVersions(pParams));
+        }
+
+        @Override
+        protected Map<ProjectVersionRef, String> lookupVersions(List<ProjectVersionRef> gavs) throws RestException {
+            final List<List<ProjectVersionRef>> chunks = partition(gavs);
+
+            PhaseMetrics.attribute("chunks", chunks.size());
+            if (chunks.size() <= 1) {
+                return getRestEndpoint().lookupVersions(gavs);
+            }
+            logger.info("Looking up {} GAVs in {} chunks with at most {} concurrent requests", gavs.size(),
+                    chunks.size(), concurrency);
+
+            final List<Future<Map<ProjectVersionRef, String>>> futures = new ArrayList<>(chunks.size());
+            for (List<ProjectVersionRef> chunk : chunks) {
+                futures.add(executor.submit(() -> getRestEndpoint().lookupVersions(chunk)));
+            }
+            final Map<ProjectVersionRef, String> result = new HashMap<>();
+            for (Future<Map<ProjectVersionRef, String>> future : futures) {
+                result.putAll(await(future));
+            }
+            return result;
+        }
+
+        @Override
+        protected Map<ProjectVersionRef, String> lookupProjectVersions(List<ProjectVersionRef> gavs)
+                throws RestException {
+            if (projectLookup == null) {
+                return getRestEndpoint().lookupProjectVersions(gavs);
+            }
+            return await(projectLookup);
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<List<ProjectVersionRef>> partition(List<ProjectVersionRef> gavs) {
+        final int size = maxChunkSize > 0 ? maxChunkSize : Math.max(1, (gavs.size() + concurrency - 1) / concurrency);
+        final List<List<ProjectVersionRef>> result = new ArrayList<>();
+
+        for (int i = 0; i < gavs.size(); i += size) {
+            result.add(gavs.subList(i, Math.min(i + size, gavs.size())));
+        }
+        return result;
+    }
+
+    private <T> T await(Future<T> future) throws RestException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationUncheckedException("Interrupted while waiting for REST lookup", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RestException) {
+                throw (RestException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ManipulationUncheckedException(cause);
+        }
+    }
+}
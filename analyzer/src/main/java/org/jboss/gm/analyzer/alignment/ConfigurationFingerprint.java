@@ -0,0 +1,186 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.experimental.UtilityClass;
+
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.ComponentSelectionRules;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.DependencySubstitutions;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ExternalDependency;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.artifacts.ResolutionStrategy;
+import org.gradle.api.artifacts.VersionConstraint;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.IvyArtifactRepository;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.internal.artifacts.ComponentSelectionRulesInternal;
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal;
+import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionRules;
+import org.gradle.internal.ImmutableActionSet;
+
+/**
+ * Computes a fingerprint of the inputs that determine the resolved graph of a configuration: its declared
+ * dependencies, dependency constraints, attributes, exclusions, forced modules, conflict resolution and the project
+ * repositories. Two configurations with the same fingerprint resolve to the same graph, so only one of them needs to be
+ * resolved.
+ * <p>
+ * Anything that cannot be described reliably yields no fingerprint and is therefore always resolved. This covers
+ * file dependencies, changing modules (whose resolution depends upon the cache policy, which cannot be described),
+ * configurations using dependency locking (whose lock state is held per configuration) and configurations whose
+ * resolution strategy has {@code eachDependency}, dependency substitution or component selection rules, as rules
+ * cannot be compared and plugins add them to individual configurations.
+ * <p>
+ * Capability resolution rules cannot be inspected at all and the cache policy also applies to dynamic versions. Both
+ * only matter for some graphs, so {@link ConfigurationResolver} checks the resolved graph before reusing it.
+ */
+@UtilityClass
+class ConfigurationFingerprint {
+    private final char SEPARATOR = '|';
+
+    /**
+     * Describes the repositories of a project. This is shared by all configurations of the project, so it is computed
+     * once and passed to {@link #compute(org.gradle.api.artifacts.Configuration, String)}.
+     *
+     * @param repositories the project repositories
+     * @return a description of the repositories
+     */
+    String describeRepositories(Iterable<ArtifactRepository> repositories) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (ArtifactRepository repository : repositories) {
+            builder.append(repository.getName());
+            if (repository instanceof MavenArtifactRepository) {
+                builder.append('=').append(((MavenArtifactRepository) repository).getUrl());
+            } else if (repository instanceof IvyArtifactRepository) {
+                builder.append('=').append(((IvyArtifactRepository) repository).getUrl());
+            }
+            builder.append(SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Computes the fingerprint of the given configuration.
+     *
+     * @param configuration the configuration to fingerprint
+     * @param repositories the description of the project repositories
+     * @return the fingerprint, or null if the configuration cannot be fingerprinted
+     */
+    String compute(org.gradle.api.artifacts.Configuration configuration, String repositories) {
+        // The public API has no getters for the conflict resolution or the rules of a resolution strategy, so only
+        // strategies implementing the internal interface can be described.
+        if (!(configuration.getResolutionStrategy() instanceof ResolutionStrategyInternal)) {
+            return null;
+        }
+        final ResolutionStrategyInternal strategy = (ResolutionStrategyInternal) configuration.getResolutionStrategy();
+
+        if (strategy.isDependencyLockingEnabled() || hasRules(strategy)) {
+            return null;
+        }
+
+        final StringBuilder builder = new StringBuilder(1024);
+
+        builder.append(repositories).append(configuration.isTransitive()).append(SEPARATOR);
+        // Covers failOnVersionConflict (strict) and preferProjectModules.
+        builder.append("conflict:").append(strategy.getConflictResolution()).append(SEPARATOR);
+        appendAttributes(builder, configuration.getAttributes());
+
+        for (Dependency dependency : configuration.getAllDependencies()) {
+            if (!appendDependency(builder, dependency)) {
+                return null;
+            }
+        }
+        for (DependencyConstraint constraint : configuration.getAllDependencyConstraints()) {
+            builder.append("constraint:").append(constraint.getClass().getName()).append(':')
+                    .append(constraint.getGroup()).append(':').append(constraint.getName()).append(':')
+                    .append(constraint.getVersion());
+            appendVersionConstraint(builder, constraint.getVersionConstraint());
+            builder.append(SEPARATOR);
+        }
+        for (org.gradle.api.artifacts.Configuration c : configuration.getHierarchy()) {
+            for (ExcludeRule rule : c.getExcludeRules()) {
+                builder.append("exclude:").append(rule.getGroup()).append(':').append(rule.getModule())
+                        .append(SEPARATOR);
+            }
+        }
+        for (ModuleVersionSelector forced : strategy.getForcedModules()) {
+            builder.append("force:").append(forced.getGroup()).append(':').append(forced.getName()).append(':')
+                    .append(forced.getVersion()).append(SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns whether the resolution strategy may have rules. Rules that cannot be inspected are assumed to be present.
+     */
+    private boolean hasRules(ResolutionStrategy strategy) {
+        final ComponentSelectionRules selection = strategy.getComponentSelection();
+        if (!(selection instanceof ComponentSelectionRulesInternal)
+                || !((ComponentSelectionRulesInternal) selection).getRules().isEmpty()) {
+            return true;
+        }
+
+        // eachDependency rules are held with the dependency substitution rules, which are only exposed combined into
+        // a single action. That action is an empty action set if no rule has been added; any other action is opaque.
+        final DependencySubstitutions substitutions = strategy.getDependencySubstitution();
+        if (!(substitutions instanceof DependencySubstitutionRules)) {
+            return true;
+        }
+        final Action<?> action = ((DependencySubstitutionRules) substitutions).getRuleAction();
+        return !(action instanceof ImmutableActionSet) || !((ImmutableActionSet<?>) action).isEmpty();
+    }
+
+    private boolean appendDependency(StringBuilder builder, Dependency dependency) {
+        if (dependency instanceof ProjectDependency) {
+            builder.append("project:").append(((ProjectDependency) dependency).getDependencyProject().getPath());
+        } else if (dependency instanceof ExternalDependency) {
+            final ExternalDependency external = (ExternalDependency) dependency;
+            if (external instanceof ExternalModuleDependency && ((ExternalModuleDependency) external).isChanging()) {
+                return false;
+            }
+            builder.append("module:").append(external.getGroup()).append(':').append(external.getName())
+                    .append(':').append(external.getVersion());
+            appendVersionConstraint(builder, external.getVersionConstraint());
+        } else {
+            return false;
+        }
+
+        final ModuleDependency module = (ModuleDependency) dependency;
+        builder.append(':').append(module.isTransitive()).append(':').append(module.getTargetConfiguration());
+        for (ExcludeRule rule : module.getExcludeRules()) {
+            builder.append(":exclude=").append(rule.getGroup()).append('/').append(rule.getModule());
+        }
+        for (DependencyArtifact artifact : module.getArtifacts()) {
+            builder.append(":artifact=").append(artifact.getName()).append('/').append(artifact.getType())
+                    .append('/').append(artifact.getExtension()).append('/').append(artifact.getClassifier());
+        }
+        appendAttributes(builder, module.getAttributes());
+        builder.append(SEPARATOR);
+        return true;
+    }
+
+    private void appendVersionConstraint(StringBuilder builder, VersionConstraint constraint) {
+        builder.append(":prefer=").append(constraint.getPreferredVersion())
+                .append(":reject=").append(constraint.getRejectedVersions());
+    }
+
+    private void appendAttributes(StringBuilder builder, AttributeContainer attributes) {
+        // Sort by name so that the declaration order of attributes does not matter.
+        final Map<String, Object> sorted = new TreeMap<>();
+        for (Attribute<?> attribute : attributes.keySet()) {
+            sorted.put(attribute.getName(), attributes.getAttribute(attribute));
+        }
+        builder.append("attributes:").append(sorted).append(SEPARATOR);
+    }
+}
@@ -0,0 +1,342 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.LenientConfiguration;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolutionResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.utils.PhaseMetrics;
+import org.jboss.gm.common.utils.ProjectUtils;
+import org.jboss.gm.common.versioning.DynamicVersionParser;
+
+/**
+ * Resolves the resolvable configurations of a project on behalf of {@link AlignmentTask}.
+ * <p>
+ * Every configuration is first prepared serially (its resolution strategy is updated and a detached copy is created).
+ * The copies are then resolved one after another on the calling thread, as Gradle does not allow resolution from
+ * threads that it does not manage. Only walking the resolved graphs, which no longer involves Gradle's resolution
+ * machinery, is performed concurrently through a bounded executor if {@link Configuration#parallelResolution()} is
+ * enabled. If {@link Configuration#resolutionDeduplication()} is enabled, a
+ * configuration whose {@link ConfigurationFingerprint fingerprint} matches that of an earlier configuration reuses its
+ * resolution instead of being copied and resolved again. The fingerprint cannot describe capability resolution rules or
+ * cache policies, so a resolution is only reused if it involved no conflict resolution (which is where capability
+ * resolution rules apply), no failures and no dynamic versions (which is where the cache policy applies); otherwise the
+ * configuration is resolved after all.
+ * <p>
+ * The resolutions are always returned in configuration order so that the collected dependencies do not depend upon
+ * the resolution mode.
+ */
+class ConfigurationResolver {
+    /*
+     * While instanceof DefaultProjectDependencyConstraint works at run time under Gradle 4.10, it does not work at
+     * compile time as the class does not exist. Therefore, we need to use Class.forName().isInstance() in place of
+     * instanceof DefaultProjectDependencyConstraint.
+     */
+    private static final Class<?> DEPENDENCY_CONSTRAINT_CLASS;
+    private static final String DEPENDENCY_CONSTRAINT_CLASS_NAME = "org.gradle.api.internal.artifacts.dependencies.DefaultProjectDependencyConstraint";
+
+    static {
+        Class<?> dependencyConstraintClass;
+
+        try {
+            dependencyConstraintClass = Class.forName(DEPENDENCY_CONSTRAINT_CLASS_NAME);
+        } catch (ClassNotFoundException e) {
+            dependencyConstraintClass = null;
+        }
+
+        DEPENDENCY_CONSTRAINT_CLASS = dependencyConstraintClass;
+    }
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    private final Configuration configuration;
+
+    ConfigurationResolver(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * The outcome of resolving a single configuration.
+     */
+    @Getter
+    static final class Resolution {
+        /**
+         * The original configuration of the project.
+         */
+        private final org.gradle.api.artifacts.Configuration configuration;
+
+        /**
+         * The detached copy that has actually been resolved.
+         */
+        private org.gradle.api.artifacts.Configuration copy;
+
+        /**
+         * The earlier resolution whose result is reused, if any.
+         */
+        private Resolution source;
+
+        private LenientConfiguration lenient;
+
+        private ResolutionResult result;
+
+        private Set<? extends DependencyResult> incoming;
+
+        /**
+         * The time taken to resolve the configuration, in milliseconds.
+         */
+        private long duration;
+
+        private Resolution(org.gradle.api.artifacts.Configuration configuration,
+                org.gradle.api.artifacts.Configuration copy, Resolution source) {
+            this.configuration = configuration;
+            this.copy = copy;
+            this.source = source;
+        }
+
+        /**
+         * Returns whether this configuration reused the result of an earlier, identical, configuration.
+         *
+         * @return true if the resolution was reused
+         */
+        boolean isReused() {
+            return source != null;
+        }
+
+        private boolean reuseSource() {
+            if (!source.isShareable()) {
+                source = null;
+                return false;
+            }
+            copy = source.copy;
+            lenient = source.lenient;
+            incoming = source.incoming;
+            return true;
+        }
+
+        private boolean isShareable() {
+            for (DependencyResult result : incoming) {
+                if (!(result instanceof ResolvedDependencyResult)
+                        || ((ResolvedDependencyResult) result).getSelected().getSelectionReason().isConflictResolution()
+                        || isDynamic(result.getRequested())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isDynamic(ComponentSelector selector) {
+            return selector instanceof ModuleComponentSelector
+                    && DynamicVersionParser.isDynamic(((ModuleComponentSelector) selector).getVersion());
+        }
+    }
+
+    /**
+     * Resolves all resolvable configurations of the given project.
+     *
+     * @param project the project whose configurations are resolved
+     * @return the resolutions, in configuration order
+     */
+    List<Resolution> resolveAll(Project project) {
+        final List<Resolution> resolutions = new ArrayList<>();
+        final Map<String, Resolution> fingerprints = new HashMap<>();
+        final String repositories = configuration.resolutionDeduplication()
+                ? ConfigurationFingerprint.describeRepositories(project.getRepositories())
+                : null;
+        final long start = System.nanoTime();
+
+        project.getConfigurations().all(c -> {
+            if (c.isCanBeResolved()) {
+                logger.trace("Examining configuration {}", c.getName());
+                resolutions.add(prepare(c, repositories, fingerprints));
+            } else {
+                logger.trace("Unable to resolve configuration {} for project {}", c.getName(), project);
+            }
+        });
+
+        final List<Resolution> pending = resolutions.stream().filter(r -> !r.isReused())
+                .collect(Collectors.toList());
+        final int threads = getThreadCount(pending.size());
+
+        pending.forEach(this::resolve);
+        if (threads > 1) {
+            processConcurrently(project, pending, threads);
+        } else {
+            pending.forEach(ConfigurationResolver::process);
+        }
+        for (Resolution resolution : resolutions) {
+            if (resolution.isReused() && !resolution.reuseSource()) {
+                logger.debug("Resolution of configuration {} cannot be reused ; resolving it separately",
+                        resolution.configuration.getName());
+                resolution.copy = copy(resolution.configuration);
+                resolve(resolution);
+                process(resolution);
+            }
+        }
+
+        if (logger.isInfoEnabled() && !pending.isEmpty()) {
+            final Resolution slowest = pending.stream()
+                    .max(Comparator.comparingLong(Resolution::getDuration)).get();
+            logger.info("Processed {} configurations of {} in {} ms using {} thread(s) ; slowest was {} ({} ms)",
+                    pending.size(), project, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    Math.max(threads, 1), slowest.getConfiguration().getName(), slowest.getDuration());
+        }
+        if (configuration.resolutionDeduplication()) {
+            logger.info("Skipped {} of {} configuration resolutions of {} with identical fingerprints",
+                    resolutions.stream().filter(Resolution::isReused).count(), resolutions.size(), project);
+        }
+        return resolutions;
+    }
+
+    private int getThreadCount(int resolutionCount) {
+        if (!configuration.parallelResolution()) {
+            return 1;
+        }
+        int threads = configuration.parallelResolutionThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.min(threads, resolutionCount);
+    }
+
+    private Resolution prepare(org.gradle.api.artifacts.Configuration configuration, String repositories,
+            Map<String, Resolution> fingerprints) {
+        ProjectUtils.updateResolutionStrategy(configuration);
+
+        final String fingerprint = repositories == null ? null
+                : ConfigurationFingerprint.compute(configuration, repositories);
+        if (fingerprint != null && fingerprints.containsKey(fingerprint)) {
+            final Resolution source = fingerprints.get(fingerprint);
+            logger.debug("Configuration {} is identical to {} ; reusing its resolution", configuration.getName(),
+                    source.getConfiguration().getName());
+            return new Resolution(configuration, null, source);
+        }
+
+        final Resolution resolution = new Resolution(configuration, copy(configuration), null);
+        if (fingerprint != null) {
+            fingerprints.put(fingerprint, resolution);
+        }
+        return resolution;
+    }
+
+    private org.gradle.api.artifacts.Configuration copy(org.gradle.api.artifacts.Configuration configuration) {
+        // If we have dependency constraints we can get a ClassCastException when attempting to copy the configurations.
+        // This is due to an unchecked cast in
+        // org.gradle.api.internal.artifacts.configurations.DefaultConfiguration::createCopy { ...
+        // copiedDependencyConstraints.add(((DefaultDependencyConstraint) dependencyConstraint).copy());
+        // ... }
+        // When our constraint is a DefaultProjectDependencyConstraint this is a problem. Therefore, as we normally
+        // need to copy the configurations to ensure we resolve all dependencies (See
+        // analyzer/src/functTest/java/org/jboss/gm/analyzer/alignment/DynamicWithLocksProjectFunctionalTest.java for
+        // an example) first verify if DefaultProjectDependencyConstraint occurs in the list of constraints.
+
+        // Attempt to call copyRecursive for all types (kotlin/gradle).
+        if (configuration
+                .getAllDependencyConstraints().stream()
+                .noneMatch(ConfigurationResolver::isDefaultProjectDependencyConstraint)) {
+            return configuration.copyRecursive();
+        } else {
+            logger.debug(
+                    "DefaultProjectDependencyConstraint found ({}), not recursively copying configuration",
+                    configuration.getAllDependencyConstraints());
+            return configuration.copy();
+        }
+    }
+
+    private void resolve(Resolution resolution) {
+        final long start = System.nanoTime();
+
+        try (PhaseMetrics.Phase phase = PhaseMetrics.start("resolution")) {
+            phase.attribute("configuration", resolution.configuration.getName());
+            resolution.lenient = resolution.copy.getResolvedConfiguration().getLenientConfiguration();
+            // As getResolutionResult may resolve the dependencies perform it on the copy.
+            resolution.result = resolution.copy.getIncoming().getResolutionResult();
+        }
+        resolution.duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        logger.debug("Resolved configuration {} in {} ms", resolution.configuration.getName(), resolution.duration);
+    }
+
+    /**
+     * Walks the resolved graph of the given resolution. The graph is immutable once resolved so, unlike resolution
+     * itself, this may be performed from any thread.
+     */
+    private static void process(Resolution resolution) {
+        resolution.incoming = resolution.result.getAllDependencies();
+    }
+
+    private void processConcurrently(Project project, List<Resolution> resolutions, int threads) {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ResolverThreadFactory(project));
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>(resolutions.size());
+            for (Resolution resolution : resolutions) {
+                futures.add(executor.submit(PhaseMetrics.wrap(() -> process(resolution))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationUncheckedException("Interrupted while processing configurations of {}", project);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ManipulationUncheckedException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Determines whether the specified {@code Object} is assignment-compatible with {@code
+     * DefaultProjectDependencyConstraint}. This method performs the dynamic equivalent of {@code instanceof
+     * DefaultProjectDependencyConstraint}.
+     *
+     * @param obj the object to check
+     * @return true if the given object is an instance of {@code DefaultProjectDependencyConstraint}
+     */
+    private static boolean isDefaultProjectDependencyConstraint(Object obj) {
+        return DEPENDENCY_CONSTRAINT_CLASS != null && DEPENDENCY_CONSTRAINT_CLASS.isInstance(obj);
+    }
+
+    private static final class ResolverThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private final String prefix;
+
+        private ResolverThreadFactory(Project project) {
+            this.prefix = "gme-resolver" + project.getPath().replace(':', '-');
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, prefix + '-' + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package org.jboss.gm.analyzer.alignment;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationUncheckedException;
@@ -12,8 +17,11 @@ import org.commonjava.maven.ext.io.rest.RestException;
 import org.commonjava.maven.ext.io.rest.Translator;
 import org.gradle.api.logging.LogLevel;
 import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.io.LookupCache;
+import org.jboss.gm.common.logging.CollectionSummary;
 import org.jboss.gm.common.logging.FilteringCustomLogger;
 import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.utils.PhaseMetrics;
 import org.jboss.gm.common.utils.RESTUtils;
 import org.slf4j.Logger;
 
@@ -30,6 +38,8 @@ public class DAAlignmentService implements AlignmentService {
 
     private final Logger logger = GMLogger.getLogger(getClass());
 
+    private final Configuration configuration;
+
     private final Translator restEndpoint;
 
     private final DependencyState.DependencyPrecedence dependencySource;
@@ -42,6 +52,7 @@ public class DAAlignmentService implements AlignmentService {
      * @param configuration holds all configuration values for the plugins
      */
     public DAAlignmentService(Configuration configuration) {
+        this.configuration = configuration;
         dependencySource = configuration.dependencyConfiguration();
         endpointUrl = configuration.daEndpoint();
 
@@ -68,53 +79,200 @@ public class DAAlignmentService implements AlignmentService {
             logger.warn("No restUrl configured ; unable to call endpoint");
             return new Response(Collections.emptyMap());
         }
-        final LogLevel originalLevel = FilteringCustomLogger.getContext().getLevel();
-        final List<ProjectVersionRef> vParams = request.getDependencies();
-        final Map<ProjectVersionRef, String> vMap;
-
-        if (dependencySource == NONE) {
-            logger.warn("No dependencySource configured ; unable pass GAVs into endpoint");
-            vMap = new HashMap<>();
-        } else {
-            logger.info("Passing {} GAVs into the REST client api {}", vParams.size(), vParams);
-            try {
-                if (originalLevel == LogLevel.LIFECYCLE) {
-                    FilteringCustomLogger.getContext().setLevel(LogLevel.INFO);
-                }
-                vMap = restEndpoint.lookupVersions(vParams);
-            } finally {
-                FilteringCustomLogger.getContext().setLevel(originalLevel);
+        try (PhaseMetrics.Phase phase = PhaseMetrics.start("restLookup"); Lookups lookups = openLookups(request)) {
+            final List<ProjectVersionRef> vParams = request.getDependencies();
+            final Map<ProjectVersionRef, String> vMap;
+            final LookupCache lookupCache = createLookupCache();
+
+            phase.attribute("gavs", vParams.size())
+                    .attribute("projectGavs", request.getProject().size());
+
+            if (dependencySource == NONE) {
+                logger.warn("No dependencySource configured ; unable pass GAVs into endpoint");
+                vMap = new HashMap<>();
+            } else if (vParams.isEmpty()) {
+                logger.info("No GAVs to pass into the REST client api");
+                vMap = new HashMap<>();
+            } else if (lookupCache == null) {
+                logger.info("Passing {} GAVs into the REST client api {}", vParams.size(),
+                        CollectionSummary.of(logger, vParams));
+                vMap = lookups.lookupVersions(vParams);
+                logger.info("REST Client returned: {}", CollectionSummary.of(logger, vMap));
+            } else {
+                vMap = lookupVersions(lookups, lookupCache, vParams);
+            }
+            final Response response = new Response(vMap);
+
+            if (lookupCache != null) {
+                response.setCacheHits(lookupCache.getHits());
+                response.setCacheMisses(lookupCache.getMisses());
+                phase.attribute("cacheHits", lookupCache.getHits())
+                        .attribute("cacheMisses", lookupCache.getMisses());
+            }
+
+            final List<ProjectVersionRef> pParams = request.getProject();
+
+            if (!pParams.isEmpty()) {
+                logger.debug("Passing {} project GAVs into the REST client api {}", pParams.size(),
+                        CollectionSummary.of(logger, pParams));
+
+                final Map<ProjectVersionRef, String> pMap = lookups.lookupProjectVersions(pParams);
+
+                logger.info("REST Client returned for project versions: {}", CollectionSummary.of(logger, pMap));
+
+                final ProjectVersionRef projectVersion = pParams.get(0);
+                final String newProjectVersion = pMap.get(projectVersion);
+
+                logger.info("Retrieving project version {} and returning {}", projectVersion, newProjectVersion);
+
+                response.getTranslationMap().putAll(pMap);
+                response.setNewProjectVersion(newProjectVersion);
             }
-            logger.info("REST Client returned: {}", vMap);
+
+            return response;
         }
-        final Response response = new Response(vMap);
+    }
 
-        final List<ProjectVersionRef> pParams = request.getProject();
+    /**
+     * Creates the lookups used by a single call of {@link #align(Request)}. They are closed once the call completes.
+     *
+     * @param request the request being aligned
+     * @return the lookups
+     */
+    protected Lookups openLookups(AlignmentService.Request request) {
+        return new Lookups();
+    }
 
-        if (!pParams.isEmpty()) {
-            logger.debug("Passing {} project GAVs into the REST client api {}", pParams.size(), pParams);
+    /**
+     * The REST lookups of a single call of {@link #align(Request)}. Subclasses that dispatch the lookups differently
+     * keep any state they need here, so that nothing is carried over between calls.
+     */
+    protected class Lookups implements AutoCloseable {
+        /**
+         * Looks up the aligned versions of the given dependency GAVs.
+         *
+         * @param gavs the dependency GAVs
+         * @return a mutable map of GAV to aligned version
+         * @throws RestException if an error occurs looking up the versions.
+         */
+        protected Map<ProjectVersionRef, String> lookupVersions(List<ProjectVersionRef> gavs) throws RestException {
+            return withRestLogging(() -> restEndpoint.lookupVersions(gavs));
+        }
+
+        /**
+         * Looks up the versions of the given project GAVs.
+         *
+         * @param gavs the project GAVs
+         * @return a map of GAV to project version
+         * @throws RestException if an error occurs looking up the versions.
+         */
+        protected Map<ProjectVersionRef, String> lookupProjectVersions(List<ProjectVersionRef> gavs)
+                throws RestException {
+            return withRestLogging(() -> restEndpoint.lookupProjectVersions(gavs));
+        }
 
-            final Map<ProjectVersionRef, String> pMap;
-            try {
-                if (originalLevel == LogLevel.LIFECYCLE) {
-                    FilteringCustomLogger.getContext().setLevel(LogLevel.INFO);
-                }
-                pMap = restEndpoint.lookupProjectVersions(pParams);
-            } finally {
-                FilteringCustomLogger.getContext().setLevel(originalLevel);
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Returns the REST client used for the lookups.
+     *
+     * @return the REST client
+     */
+    protected Translator getRestEndpoint() {
+        return restEndpoint;
+    }
+
+    /**
+     * Performs a lookup with the logging level raised to INFO (if currently LIFECYCLE) so that the progress output
+     * of the REST client is visible. As the level is global this must not be called concurrently.
+     *
+     * @param lookup the lookup to perform
+     * @param <T> the type of the result
+     * @return the result of the lookup
+     * @throws RestException if an error occurs looking up the versions.
+     */
+    protected <T> T withRestLogging(RestLookup<T> lookup) throws RestException {
+        final LogLevel originalLevel = FilteringCustomLogger.getContext().getLevel();
+        try {
+            if (originalLevel == LogLevel.LIFECYCLE) {
+                FilteringCustomLogger.getContext().setLevel(LogLevel.INFO);
             }
+            return lookup.call();
+        } finally {
+            FilteringCustomLogger.getContext().setLevel(originalLevel);
+        }
+    }
 
-            logger.info("REST Client returned for project versions: {}", pMap);
+    /**
+     * A lookup against the REST client.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    protected interface RestLookup<T> {
+        /**
+         * Performs the lookup.
+         *
+         * @return the result of the lookup
+         * @throws RestException if an error occurs looking up the versions.
+         */
+        T call() throws RestException;
+    }
 
-            final ProjectVersionRef projectVersion = pParams.get(0);
-            final String newProjectVersion = pMap.get(projectVersion);
+    /**
+     * Looks up the aligned versions of the given dependency GAVs, only passing those that are not in the cache into
+     * the REST client api.
+     */
+    private Map<ProjectVersionRef, String> lookupVersions(Lookups lookups, LookupCache lookupCache,
+            List<ProjectVersionRef> gavs) throws RestException {
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+        final List<ProjectVersionRef> misses = new ArrayList<>();
 
-            logger.info("Retrieving project version {} and returning {}", projectVersion, newProjectVersion);
+        for (ProjectVersionRef gav : gavs) {
+            final LookupCache.Entry entry = lookupCache.get(gav.toString());
+            if (entry == null) {
+                misses.add(gav);
+            } else if (entry.getValue() != null) {
+                result.put(gav, entry.getValue());
+            }
+        }
+        logger.info("Found {} of {} GAVs in the REST lookup cache", gavs.size() - misses.size(), gavs.size());
+
+        if (!misses.isEmpty()) {
+            logger.info("Passing {} GAVs into the REST client api {}", misses.size(),
+                    CollectionSummary.of(logger, misses));
+            final Map<ProjectVersionRef, String> answers = lookups.lookupVersions(misses);
+            logger.info("REST Client returned: {}", CollectionSummary.of(logger, answers));
+
+            // Also cache GAVs without an answer so that they are not looked up again.
+            misses.forEach(gav -> lookupCache.put(gav.toString(), answers.get(gav)));
+            result.putAll(answers);
+        }
+        try {
+            lookupCache.save();
+        } catch (IOException e) {
+            logger.warn("Unable to write REST lookup cache ({})", e.getMessage());
+        }
+        return result;
+    }
 
-            response.getTranslationMap().putAll(pMap);
-            response.setNewProjectVersion(newProjectVersion);
+    private LookupCache createLookupCache() {
+        if (!configuration.restCache() || dependencySource == NONE) {
+            return null;
         }
+        final Path directory = isEmpty(configuration.restCacheDirectory())
+                ? Paths.get(System.getProperty("user.home"), ".gradle", "caches", "gme")
+                : Paths.get(configuration.restCacheDirectory());
+        // Answers depend upon the server, the mode and the dependency source so cache them separately.
+        final String namespace = endpointUrl + '|' + configuration.restMode() + '|' + dependencySource + '|'
+                + configuration.restBrewPullActive();
 
-        return response;
+        return new LookupCache(LookupCache.fileFor(directory, namespace), namespace,
+                TimeUnit.SECONDS.toMillis(configuration.restCacheTtl()),
+                TimeUnit.SECONDS.toMillis(configuration.restCacheNegativeTtl()), configuration.restCacheMaxEntries(),
+                configuration.restCacheRefresh());
     }
 }
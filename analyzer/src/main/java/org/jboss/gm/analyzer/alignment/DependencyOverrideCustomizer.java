@@ -14,6 +14,7 @@ import org.jboss.gm.analyzer.alignment.AlignmentService.Manipulator;
 import org.jboss.gm.analyzer.alignment.AlignmentService.Response;
 import org.jboss.gm.analyzer.alignment.util.DependencyPropertyParser;
 import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.logging.CollectionSummary;
 import org.jboss.gm.common.logging.GMLogger;
 import org.jboss.gm.common.utils.ProjectUtils;
 
@@ -48,31 +49,32 @@ public class DependencyOverrideCustomizer implements Manipulator {
                 DEPENDENCY_OVERRIDE);
 
         if (!prefixed.isEmpty()) {
-            for (Map.Entry<String, String> entry : prefixed.entrySet()) {
-                final String key = entry.getKey();
-                final String overrideVersion = entry.getValue();
-                final DependencyPropertyParser.Result keyParseResult = DependencyPropertyParser.parse(key);
+            // Parse each override once rather than once per project.
+            final Map<DependencyPropertyParser.Result, String> overrides = new LinkedHashMap<>();
+            prefixed.forEach((key, overrideVersion) -> overrides.put(DependencyPropertyParser.parse(key),
+                    overrideVersion));
 
-                for (Project project : projects) {
-                    Map<ProjectRef, String> overrideMap = dependencyOverrides.getOrDefault(project, new LinkedHashMap<>());
-                    String group = ProjectUtils.getRealGroupId(project);
-                    if (isNotEmpty(project.getVersion().toString()) &&
-                            isNotEmpty(group) &&
-                            isNotEmpty(project.getName())) {
-                        final ProjectVersionRef projectRef = new SimpleProjectVersionRef(group,
-                                project.getName(), project.getVersion().toString());
+            for (Project project : projects) {
+                final Map<ProjectRef, String> overrideMap = new LinkedHashMap<>();
+                final String group = ProjectUtils.getRealGroupId(project);
+                if (isNotEmpty(project.getVersion().toString()) &&
+                        isNotEmpty(group) &&
+                        isNotEmpty(project.getName())) {
+                    final ProjectVersionRef projectRef = new SimpleProjectVersionRef(group,
+                            project.getName(), project.getVersion().toString());
+                    overrides.forEach((keyParseResult, overrideVersion) -> {
                         if (keyParseResult.matchesModule(projectRef)) {
                             logger.debug("Overriding dependency {} in module {} with version '{}'",
                                     keyParseResult.getDependency(), projectRef, overrideVersion);
                             overrideMap.put(keyParseResult.getDependency(), overrideVersion);
                         }
-                    }
-                    dependencyOverrides.put(project, overrideMap);
+                    });
                 }
+                dependencyOverrides.put(project, overrideMap);
             }
         }
 
-        logger.debug("Setting overrideMap to {}", dependencyOverrides);
+        logger.debug("Setting overrideMap to {}", CollectionSummary.of(logger, dependencyOverrides));
         response.setDependencyOverrides(dependencyOverrides);
     }
 }
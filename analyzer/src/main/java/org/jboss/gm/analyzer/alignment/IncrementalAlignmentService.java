@@ -0,0 +1,148 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.io.LookupCache;
+import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.logging.GMLogger;
+import org.slf4j.Logger;
+
+/**
+ * An {@link AlignmentService} that wraps another one and only passes it the dependency GAVs whose answers cannot be
+ * taken from the previous alignment of the build.
+ * <p>
+ * The previous answers are the aligned dependencies of the manipulation file in the root directory, which is kept by
+ * {@code gradle clean} and is usually committed alongside the build. An aligned dependency is only reused if:
+ * <ul>
+ * <li>it was declared with the exact version that is resolved now (as a GAV includes its version a changed
+ * dependency version is a new GAV, and the answers of dynamic versions are keyed by the declaration);</li>
+ * <li>the state file next to the manipulation file records that the Dependency Analyzer gave the same answer with
+ * the current configuration (so answers changed by overrides or by hand, or obtained with e.g. a different REST URL,
+ * mode or dependency source, are not reused);</li>
+ * <li>that answer is younger than {@link Configuration#incrementalAlignmentTtl()}, so that newer builds on the
+ * server are eventually picked up.</li>
+ * </ul>
+ * GAVs without an aligned version are always passed on as a build may have been added since. Project GAVs are always
+ * passed on as their alignment depends upon the current state of the server. Without a state file (e.g. a fresh
+ * checkout that does not include it) all GAVs are passed on; disabling {@link Configuration#incrementalAlignment()}
+ * for a run refreshes all the answers.
+ */
+public class IncrementalAlignmentService implements AlignmentService {
+
+    /**
+     * The name of the state file, relative to the root directory. It lives next to the manipulation file so that both
+     * survive {@code gradle clean}.
+     */
+    public static final String STATE_FILE_NAME = "manipulation-incremental.state";
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    private final AlignmentService delegate;
+
+    private final Configuration configuration;
+
+    private final File rootDir;
+
+    /**
+     * Creates a new incremental alignment service.
+     *
+     * @param delegate the service that aligns the new GAVs
+     * @param configuration holds all configuration values for the plugins
+     * @param rootDir the root directory of the build, holding any previous manipulation file and the state file
+     */
+    public IncrementalAlignmentService(AlignmentService delegate, Configuration configuration, File rootDir) {
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.rootDir = rootDir;
+    }
+
+    /**
+     * Performs the alignment of the given request, passing only the GAVs without a reusable answer to the wrapped
+     * service.
+     *
+     * @param request both the collected project dependencies GAVs and the project GAVs
+     * @return the resulting aligned dependencies
+     * @throws ManipulationException if an error occurs when looking up GAVs
+     */
+    @Override
+    public Response align(Request request) throws ManipulationException {
+        final Path stateFile = rootDir.toPath().resolve(STATE_FILE_NAME);
+        final Map<String, ProjectVersionRef> previous = readPreviousAlignment();
+        // Any configuration change (e.g. REST URL, mode or dependency source) may change the answers. The state is
+        // not trimmed by size as it only ever holds the GAVs of this build, and only holds answered GAVs so the same
+        // time to live applies to negative answers.
+        final long ttl = TimeUnit.SECONDS.toMillis(configuration.incrementalAlignmentTtl());
+        final LookupCache state = new LookupCache(stateFile, configuration.dumpCurrentConfig(), ttl, ttl,
+                Integer.MAX_VALUE, previous.isEmpty());
+        final Map<ProjectVersionRef, String> reused = new HashMap<>();
+        final List<ProjectVersionRef> changed = new ArrayList<>();
+
+        for (ProjectVersionRef gav : request.getDependencies()) {
+            final ProjectVersionRef aligned = previous.get(gav.toString());
+            final LookupCache.Entry entry = aligned == null ? null : state.get(gav.toString());
+
+            if (entry != null && aligned.getVersionString().equals(entry.getValue())) {
+                reused.put(gav, entry.getValue());
+            } else {
+                changed.add(gav);
+            }
+        }
+        logger.info("Incremental alignment: reusing the previous answers for {} of {} GAVs ; passing {} GAVs to the "
+                + "alignment service", reused.size(), request.getDependencies().size(), changed.size());
+
+        final Response response = delegate.align(new Request(request.getProject(), changed));
+        final Map<ProjectVersionRef, String> translationMap = new HashMap<>(response.getTranslationMap());
+
+        // Record when each answer was obtained ; reused answers keep their original age.
+        changed.stream().filter(translationMap::containsKey)
+                .forEach(gav -> state.put(gav.toString(), translationMap.get(gav)));
+        // Forget the GAVs that are no longer part of the build or no longer have an answer.
+        state.retainAll(request.getDependencies().stream()
+                .filter(gav -> translationMap.containsKey(gav) || reused.containsKey(gav))
+                .map(ProjectVersionRef::toString)
+                .collect(Collectors.toSet()));
+        try {
+            state.save();
+        } catch (IOException e) {
+            logger.warn("Unable to write incremental alignment state {} ({})", stateFile, e.getMessage());
+        }
+        translationMap.putAll(reused);
+
+        final Response result = new Response(translationMap);
+        result.setNewProjectVersion(response.getNewProjectVersion());
+        result.setDependencyOverrides(response.getDependencyOverrides());
+        result.setCacheHits(response.getCacheHits());
+        result.setCacheMisses(response.getCacheMisses());
+        return result;
+    }
+
+    /**
+     * Returns the aligned dependencies of all the modules of the previous manipulation file, keyed by the declared
+     * GAV, or an empty map if there is none.
+     */
+    private Map<String, ProjectVersionRef> readPreviousAlignment() {
+        if (!new File(rootDir, ManipulationIO.MANIPULATION_FILE_NAME).exists()) {
+            logger.info("No previous manipulation file found ; aligning all GAVs");
+            return Collections.emptyMap();
+        }
+        try {
+            return ManipulationIO.readManipulationModel(rootDir).getAllAlignedDependencies();
+        } catch (ManipulationUncheckedException e) {
+            logger.warn("Unable to read the previous manipulation file ; aligning all GAVs ({})", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
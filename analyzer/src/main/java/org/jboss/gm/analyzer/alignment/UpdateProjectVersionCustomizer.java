@@ -18,6 +18,8 @@ import org.jboss.gm.analyzer.alignment.AlignmentService.Response;
 import org.jboss.gm.common.Configuration;
 import org.jboss.gm.common.ManipulationCache;
 import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.io.ManipulationModelIndex;
+import org.jboss.gm.common.logging.CollectionSummary;
 import org.jboss.gm.common.logging.GMLogger;
 
 /**
@@ -96,10 +98,10 @@ public class UpdateProjectVersionCustomizer implements AlignmentService.Manipula
             // If there is an existing manipulation file, also use this as potential candidates.
             File m = new File(project.getRootDir(), ManipulationIO.MANIPULATION_FILE_NAME);
             if (m.exists()) {
-                result.add(ManipulationIO.readManipulationModel(project.getRootDir()).getVersion());
+                result.add(ManipulationModelIndex.getIndex(project).getRoot().getVersion());
             }
             logger.debug("Adding project version candidates from cache {}",
-                    cache.getProjectVersionRefs(state.isPreserveSnapshot()));
+                    CollectionSummary.of(logger, cache.getProjectVersionRefs(state.isPreserveSnapshot())));
 
             if (translationMap == null) {
                 throw new ManipulationUncheckedException("Translation map has not been initialised");
@@ -112,7 +114,7 @@ public class UpdateProjectVersionCustomizer implements AlignmentService.Manipula
                 }
             });
 
-            logger.debug("Translation map is using {}", result);
+            logger.debug("Translation map is using {}", CollectionSummary.of(logger, result));
 
             return result;
         }
@@ -0,0 +1,73 @@
+package org.jboss.gm.analyzer.alignment.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.experimental.UtilityClass;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.jboss.gm.common.utils.SerializationUtils;
+import org.jboss.gm.common.versioning.RelaxedProjectVersionRef;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Utility class for the I/O of the dependencies collected for a single project by the
+ * {@link org.jboss.gm.analyzer.alignment.AlignmentTask}. The file maps the string form of each original dependency
+ * (which might be dynamic or unversioned) to the fully resolved GAV, in collection order.
+ */
+@UtilityClass
+public class CollectionIO {
+    /**
+     * The location of the collection file relative to the build directory of the project.
+     */
+    public final String COLLECTION_FILE_NAME = "gme/alignment-collection.json";
+
+    private final TypeReference<LinkedHashMap<String, ProjectVersionRef>> COLLECTION_TYPE =
+            new TypeReference<LinkedHashMap<String, ProjectVersionRef>>() {
+            };
+
+    /**
+     * Writes the collected dependencies of a project.
+     *
+     * @param file the collection file
+     * @param dependencies the dependencies
+     * @throws ManipulationException if an error occurs writing the file
+     */
+    public void writeCollection(File file, Map<RelaxedProjectVersionRef, ProjectVersionRef> dependencies)
+            throws ManipulationException {
+        final Map<String, ProjectVersionRef> result = new LinkedHashMap<>();
+        dependencies.forEach((k, v) -> result.put(k.toString(), v));
+
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            SerializationUtils.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, result);
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to write dependency collection {}", file, e);
+        }
+    }
+
+    /**
+     * Reads the collected dependencies of a project.
+     *
+     * @param file the collection file
+     * @return the dependencies
+     * @throws ManipulationException if an error occurs reading the file
+     */
+    public Map<RelaxedProjectVersionRef, ProjectVersionRef> readCollection(File file) throws ManipulationException {
+        final Map<RelaxedProjectVersionRef, ProjectVersionRef> result = new LinkedHashMap<>();
+
+        try {
+            final Map<String, ProjectVersionRef> collection = SerializationUtils.getObjectMapper().readValue(file,
+                    COLLECTION_TYPE);
+            collection.forEach((k, v) -> result.put(RelaxedProjectVersionRef.parse(k), v));
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to read dependency collection {}", file, e);
+        }
+        return result;
+    }
+}
@@ -5,13 +5,14 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -19,7 +20,9 @@ import lombok.experimental.UtilityClass;
 
 import org.apache.commons.io.FileUtils;
 import org.commonjava.maven.atlas.ident.ref.InvalidRefException;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.gradle.api.logging.Logger;
@@ -48,6 +51,21 @@ public class LockFileIO {
         return result;
     }
 
+    /**
+     * Indexes the given lock file entries by group:artifact so that the locked version of a dependency may be found
+     * in constant time. If several versions of the same group:artifact are locked, the last one in iteration order
+     * wins; this matches a linear scan over the same collection.
+     *
+     * @param lockFileDeps the project version refs read from the lock files
+     * @return a map of group:artifact to the locked version
+     */
+    public Map<ProjectRef, String> indexByProjectRef(Collection<ProjectVersionRef> lockFileDeps) {
+        final Map<ProjectRef, String> result = new HashMap<>(lockFileDeps.size() * 4 / 3 + 1);
+        lockFileDeps.forEach(d -> result.put(new SimpleProjectRef(d.getGroupId(), d.getArtifactId()),
+                d.getVersionString()));
+        return result;
+    }
+
     public Set<ProjectVersionRef> readProjectVersionRefLocksOfFile(File lockfile) {
         try {
             return FileUtils.readLines(lockfile, Charset.defaultCharset())
@@ -80,6 +98,20 @@ public class LockFileIO {
         }
     }
 
+    /**
+     * Replaces the versions of the aligned dependencies in the lock files of the given directory.
+     * <p>
+     * Each lock file is read in a single pass: every line is split once into its {@code group:artifact:version} and
+     * the remainder (e.g. {@code =compileClasspath}), and looked up in hash indexes built once from the aligned
+     * dependencies. An exact {@code group:artifact:version} match takes precedence. Otherwise, as the aligned
+     * dependencies may record a dynamic version while the lock file holds an explicit one, a dynamic key matches any
+     * version of the same {@code group:artifact}. A file is only written if one of its lines changed.
+     *
+     * @param logger the logger
+     * @param directory the directory holding the lock files
+     * @param alignedDependencies the aligned dependencies, keyed by the {@code group:artifact:version} of the original
+     *        dependency
+     */
     public void updateLockfiles(Logger logger, File directory,
             Map<String, ProjectVersionRef> alignedDependencies) {
         List<File> locksFiles;
@@ -89,39 +121,60 @@ public class LockFileIO {
         } catch (IOException e) {
             throw new ManipulationUncheckedException(e);
         }
+        if (locksFiles.isEmpty()) {
+            return;
+        }
+
+        final Map<String, ProjectVersionRef> exact = new HashMap<>();
+        final Map<String, ProjectVersionRef> dynamic = new HashMap<>();
+
+        alignedDependencies.forEach((key, value) -> {
+            final int separator = key.lastIndexOf(':');
+            // Unversioned keys can't be matched against a lock file entry.
+            if (separator < 0 || key.indexOf(':') == separator) {
+                return;
+            }
+            if (DynamicVersionParser.isDynamic(key.substring(separator + 1))) {
+                // One potential issue is that multiple same group:artifact with dynamic versions will
+                // all end up being replaced.
+                dynamic.put(key.substring(0, separator), value);
+            } else {
+                exact.put(key, value);
+            }
+        });
 
         for (File lockFile : locksFiles) {
             logger.debug("Examining lockfile {}", lockFile);
 
             try {
-                List<String> lockFileLines = FileUtils.readLines(lockFile, Charset.defaultCharset());
-                AtomicBoolean modified = new AtomicBoolean(false);
-
-                alignedDependencies.forEach((key, value) -> {
-                    ProjectVersionRef keyProjectVersionRef = SimpleProjectVersionRef.parse(key);
-                    boolean dynamic = DynamicVersionParser.isDynamic(keyProjectVersionRef.getVersionString());
-                    String matcher = key;
-                    // Its possible alignedDependencies has a DynamicValue recorded as key but the lockfile has an
-                    // explicit value. Therefore, we have to filter to find a partial match on group:artifact.
-                    // One potential issue is that multiple same group:artifact with dynamic versions will
-                    // all end up being replaced.
-                    if (dynamic) {
-                        matcher = keyProjectVersionRef.asProjectRef().toString();
+                final List<String> lockFileLines = FileUtils.readLines(lockFile, Charset.defaultCharset());
+                boolean modified = false;
+
+                for (int i = 0; i < lockFileLines.size(); i++) {
+                    final String line = lockFileLines.get(i);
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
                     }
+                    final int end = line.indexOf('=');
+                    final String gav = end < 0 ? line : line.substring(0, end);
 
-                    for (int i = 0; i < lockFileLines.size(); i++) {
-                        String line = lockFileLines.get(i);
-                        if (line.contains(matcher)) {
-                            logger.debug("Found lock file element '{}' to be replaced by {}", line, value);
-                            line = line.replaceFirst(matcher +
-                                    (dynamic ? ":([a-zA-Z0-9.]+)(=.*)*" : "(=.*)*"),
-                                    value + (dynamic ? "$2" : "$1"));
-                            lockFileLines.set(i, line);
-                            modified.set(true);
+                    ProjectVersionRef value = exact.get(gav);
+                    if (value == null && !dynamic.isEmpty()) {
+                        final int separator = gav.lastIndexOf(':');
+                        if (separator > 0) {
+                            value = dynamic.get(gav.substring(0, separator));
+                        }
+                    }
+                    if (value != null) {
+                        logger.debug("Found lock file element '{}' to be replaced by {}", line, value);
+                        final String replacement = end < 0 ? value.toString() : value + line.substring(end);
+                        if (!replacement.equals(line)) {
+                            lockFileLines.set(i, replacement);
+                            modified = true;
                         }
                     }
-                });
-                if (modified.get()) {
+                }
+                if (modified) {
                     FileUtils.writeLines(lockFile, lockFileLines);
                 }
             } catch (IOException e) {
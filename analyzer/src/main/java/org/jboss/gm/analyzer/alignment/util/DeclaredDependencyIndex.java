@@ -0,0 +1,88 @@
+package org.jboss.gm.analyzer.alignment.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.UnresolvedDependency;
+
+/**
+ * Hash based index of the declared dependencies of a configuration. It replaces the linear scans over the
+ * {@link org.gradle.api.artifacts.DependencySet} that were otherwise performed for every resolved dependency.
+ */
+public class DeclaredDependencyIndex {
+    /**
+     * Declared dependencies keyed by group and then name, in declaration order.
+     */
+    private final Map<String, Map<String, List<Dependency>>> dependencies = new HashMap<>();
+
+    /**
+     * The group, name and version of every declared {@link ProjectDependency}.
+     */
+    private final Set<List<String>> projectDependencies = new HashSet<>();
+
+    /**
+     * Creates the index.
+     *
+     * @param declared the declared dependencies of the configuration
+     */
+    public DeclaredDependencyIndex(Iterable<Dependency> declared) {
+        for (Dependency dependency : declared) {
+            dependencies.computeIfAbsent(dependency.getGroup(), k -> new HashMap<>())
+                    .computeIfAbsent(dependency.getName(), k -> new ArrayList<>(1))
+                    .add(dependency);
+
+            if (dependency instanceof ProjectDependency) {
+                projectDependencies.add(Arrays.asList(dependency.getGroup(), dependency.getName(),
+                        dependency.getVersion()));
+            }
+        }
+    }
+
+    /**
+     * Returns the declared dependencies with the given group and name.
+     *
+     * @param group the group
+     * @param name the name
+     * @return the matching dependencies in declaration order, or an empty list
+     */
+    public List<Dependency> getDeclared(String group, String name) {
+        final Map<String, List<Dependency>> names = dependencies.get(group);
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        return names.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Determines whether a declared project dependency has the GAV of the {@link ResolvedDependency}.
+     *
+     * @param dependency the ResolvedDependency to verify
+     * @return true if it does match
+     */
+    public boolean isProjectDependency(ResolvedDependency dependency) {
+        return !projectDependencies.isEmpty() && projectDependencies.contains(
+                Arrays.asList(dependency.getModuleGroup(), dependency.getModuleName(), dependency.getModuleVersion()));
+    }
+
+    /**
+     * Determines whether a declared project dependency has the GAV of the {@link UnresolvedDependency}.
+     *
+     * @param unresolvedDependency the UnresolvedDependency to verify
+     * @return true if it does match
+     */
+    public boolean isProjectDependency(UnresolvedDependency unresolvedDependency) {
+        final ModuleVersionSelector selector = unresolvedDependency.getSelector();
+        return !projectDependencies.isEmpty() && projectDependencies.contains(
+                Arrays.asList(selector.getGroup(), selector.getName(), selector.getVersion()));
+    }
+}
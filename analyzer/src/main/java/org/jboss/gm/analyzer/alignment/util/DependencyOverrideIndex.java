@@ -0,0 +1,97 @@
+package org.jboss.gm.analyzer.alignment.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+
+/**
+ * Index of the dependency overrides of a single project. It replaces the linear scan of the overrides (and the
+ * {@link ProjectRef#matches(ProjectRef)} regular expressions) that was otherwise performed for every dependency.
+ * <p>
+ * Overrides without a wildcard are looked up by group and artifact ; wildcard overrides are only evaluated the first
+ * time a group and artifact is seen. As before, the first matching override (in the order of the override map) wins.
+ */
+public class DependencyOverrideIndex {
+    /**
+     * The overrides without a wildcard keyed by {@code groupId:artifactId}, to their position in the override map.
+     */
+    private final Map<String, Integer> exact = new HashMap<>();
+
+    /**
+     * The overrides with a wildcard, in the order of the override map.
+     */
+    private final List<ProjectRef> wildcards = new ArrayList<>();
+
+    /**
+     * The position of each wildcard override in the override map.
+     */
+    private final List<Integer> wildcardPositions = new ArrayList<>();
+
+    /**
+     * All the overrides, in the order of the override map.
+     */
+    private final List<ProjectRef> overrides = new ArrayList<>();
+
+    /**
+     * The matching override, if any, of each {@code groupId:artifactId} looked up so far.
+     */
+    private final Map<String, Optional<ProjectRef>> matches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the index.
+     *
+     * @param overrides the dependency overrides of the project, in order of precedence
+     */
+    public DependencyOverrideIndex(Iterable<ProjectRef> overrides) {
+        for (ProjectRef override : overrides) {
+            final int position = this.overrides.size();
+
+            this.overrides.add(override);
+            if (isWildcard(override)) {
+                wildcards.add(override);
+                wildcardPositions.add(position);
+            } else {
+                exact.putIfAbsent(key(override), position);
+            }
+        }
+    }
+
+    /**
+     * Returns the first override that matches the group and artifact of the given dependency.
+     *
+     * @param dependency the dependency
+     * @return the matching override, or null if there is none
+     */
+    public ProjectRef findMatch(ProjectRef dependency) {
+        if (overrides.isEmpty()) {
+            return null;
+        }
+        final String key = key(dependency);
+        return matches.computeIfAbsent(key, k -> Optional.ofNullable(match(k, dependency))).orElse(null);
+    }
+
+    private ProjectRef match(String key, ProjectRef dependency) {
+        final Integer position = exact.get(key);
+        final int limit = position == null ? Integer.MAX_VALUE : position;
+
+        for (int i = 0; i < wildcards.size() && wildcardPositions.get(i) < limit; i++) {
+            if (wildcards.get(i).matches(dependency)) {
+                return wildcards.get(i);
+            }
+        }
+        return position == null ? null : overrides.get(position);
+    }
+
+    private static boolean isWildcard(ProjectRef override) {
+        return override.getGroupId().contains("*") || override.getArtifactId().contains("*");
+    }
+
+    private static String key(ProjectRef ref) {
+        return ref.getGroupId() + ':' + ref.getArtifactId();
+    }
+}
@@ -0,0 +1,85 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.internal.TaskInternal;
+import org.gradle.api.internal.tasks.TaskExecutionOutcome;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlignmentPluginTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void aggregateTaskFollowsEveryAlignmentTask() throws IOException {
+        final Project root = ProjectBuilder.builder().withProjectDir(tempDir.newFolder("root")).build();
+        final Project child1 = ProjectBuilder.builder().withParent(root).withName("child1").build();
+        final Project child2 = ProjectBuilder.builder().withParent(root).withName("child2").build();
+
+        root.getPluginManager().apply(AlignmentPlugin.class);
+        child1.getPluginManager().apply(AlignmentPlugin.class);
+        child2.getPluginManager().apply(AlignmentPlugin.class);
+
+        final Task aggregate = root.getTasks().getByName(AggregateAlignmentTask.NAME);
+        assertThat(child1.getTasks().findByName(AggregateAlignmentTask.NAME)).isNull();
+
+        for (Project project : new Project[] { root, child1, child2 }) {
+            final Task task = project.getTasks().getByName(AlignmentTask.NAME);
+
+            assertThat(aggregate.getTaskDependencies().getDependencies(aggregate)).contains(task);
+            assertThat(task.getFinalizedBy().getDependencies(task)).containsExactly(aggregate);
+        }
+    }
+
+    @Test
+    public void exactlyOneAggregateTask() throws IOException {
+        final Project root = ProjectBuilder.builder().withProjectDir(tempDir.newFolder("root")).build();
+        final List<Project> projects = new ArrayList<>();
+
+        projects.add(root);
+        for (int i = 0; i < 20; i++) {
+            projects.add(ProjectBuilder.builder().withParent(root).withName("child" + i).build());
+        }
+        projects.forEach(p -> p.getPluginManager().apply(AlignmentPlugin.class));
+
+        // Gradle runs the aggregation once after every collection, whatever order the collections complete in.
+        assertThat(projects.stream().map(p -> p.getTasks().findByName(AggregateAlignmentTask.NAME))
+                .filter(Objects::nonNull)).hasSize(1);
+        assertThat(projects).allSatisfy(p -> {
+            final Task task = p.getTasks().getByName(AlignmentTask.NAME);
+
+            assertThat(task.getFinalizedBy().getDependencies(task))
+                    .containsExactly(root.getTasks().getByName(AggregateAlignmentTask.NAME));
+        });
+    }
+
+    @Test
+    public void collectionsOfTasksThatDidNotRunAreStale() throws IOException {
+        final Project root = ProjectBuilder.builder().withProjectDir(tempDir.newFolder("root")).build();
+        final Project child = ProjectBuilder.builder().withParent(root).withName("child").build();
+
+        root.getPluginManager().apply(AlignmentPlugin.class);
+        child.getPluginManager().apply(AlignmentPlugin.class);
+        // Simulate collections left behind by an earlier build.
+        for (Project project : new Project[] { root, child }) {
+            assertThat(AlignmentTask.getCollectionFile(project).getParentFile().mkdirs()).isTrue();
+            assertThat(AlignmentTask.getCollectionFile(project).createNewFile()).isTrue();
+        }
+        ((TaskInternal) child.getTasks().getByName(AlignmentTask.NAME)).getState()
+                .setOutcome(TaskExecutionOutcome.UP_TO_DATE);
+
+        assertThat(AggregateAlignmentTask.isCollectionCurrent(root)).isFalse();
+        assertThat(AggregateAlignmentTask.isCollectionCurrent(child)).isTrue();
+    }
+}
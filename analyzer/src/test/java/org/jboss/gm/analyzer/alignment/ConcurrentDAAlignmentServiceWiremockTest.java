@@ -0,0 +1,108 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.core.state.DependencyState;
+import org.commonjava.maven.ext.io.rest.DefaultTranslator;
+import org.commonjava.maven.ext.io.rest.RestException;
+import org.jboss.gm.common.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the {@link DAAlignmentServiceWiremockTest} tests against {@link ConcurrentDAAlignmentService} and verifies
+ * that the lookups are made concurrently.
+ */
+public class ConcurrentDAAlignmentServiceWiremockTest extends DAAlignmentServiceWiremockTest {
+
+    private static final int DELAY = 500;
+
+    @Before
+    public void setupConcurrency() {
+        System.setProperty("restConcurrency", "4");
+    }
+
+    @Override
+    protected DAAlignmentService createService(Configuration configuration) {
+        return new ConcurrentDAAlignmentService(configuration);
+    }
+
+    @Test
+    public void concurrentLookupsReduceLatency() throws RestException, IOException, URISyntaxException {
+        assumeTrue(precedence != DependencyState.DependencyPrecedence.NONE);
+
+        stubFor(post(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_GAVS))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(DELAY)
+                        .withHeader("Content-Type", "application/json;charset=utf-8")
+                        .withBody(readSampleDAResponse())));
+        stubFor(post(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_LATEST))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(DELAY)
+                        .withHeader("Content-Type", "application/json;charset=utf-8")
+                        .withBody(readSampleDAProjectResponse())));
+
+        System.setProperty(Configuration.DA, String.format("http://localhost:%d/da/rest/v-1", PORT));
+        System.setProperty("dependencySource", precedence.toString());
+        final Configuration configuration = ConfigFactory.create(Configuration.class);
+
+        final ProjectVersionRef hibernateGav = withGAV("org.hibernate", "hibernate-core", "5.3.7.Final");
+        final AlignmentService.Request request = new AlignmentService.Request(
+                Collections.singletonList(withGAV("org.acme", "dummy", "1.0.0")),
+                Stream.of(hibernateGav,
+                        withGAV("io.undertow", "undertow-core", "2.0.15.Final"),
+                        withGAV("org.mockito", "mockito-core", "2.27.0")).collect(Collectors.toList()));
+
+        wireMockRule.resetRequests();
+        final AlignmentService.Response serial = new DAAlignmentService(configuration).align(request);
+        final long serialSpread = receivedSpread();
+
+        wireMockRule.resetRequests();
+        final DAAlignmentService service = createService(configuration);
+        final AlignmentService.Response concurrent = service.align(request);
+        final long concurrentSpread = receivedSpread();
+
+        assertThat(concurrent.getTranslationMap()).isEqualTo(serial.getTranslationMap());
+        assertThat(concurrent.getNewProjectVersion()).isEqualTo(serial.getNewProjectVersion());
+        // Serially the project lookup is only sent once the delayed response to the dependency lookup is received;
+        // concurrently all the lookups are sent before any response, so they are received within one delay.
+        assertThat(serialSpread).isGreaterThanOrEqualTo(DELAY);
+        assertThat(concurrentSpread).isLessThan(DELAY);
+
+        // Nothing is carried over between calls, so the service can align again.
+        final AlignmentService.Response again = service.align(request);
+        assertThat(again.getTranslationMap()).isEqualTo(concurrent.getTranslationMap());
+        assertThat(again.getNewProjectVersion()).isEqualTo(concurrent.getNewProjectVersion());
+    }
+
+    /**
+     * Returns the time in milliseconds between the first and the last request received by the server.
+     */
+    private static long receivedSpread() {
+        final List<Long> received = wireMockRule.findAll(anyRequestedFor(anyUrl())).stream()
+                .map(r -> r.getLoggedDate().getTime())
+                .collect(Collectors.toList());
+
+        assertThat(received).hasSizeGreaterThan(1);
+        return Collections.max(received) - Collections.min(received);
+    }
+}
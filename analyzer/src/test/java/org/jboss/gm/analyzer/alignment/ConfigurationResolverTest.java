@@ -0,0 +1,124 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.logging.LogLevel;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.rules.LoggingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationResolverTest {
+
+    @Rule
+    public final TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Rule
+    public final SystemOutRule systemOutRule = new SystemOutRule().enableLog().muteForSuccessfulTests();
+
+    @Rule
+    public final LoggingRule loggingRule = new LoggingRule(LogLevel.INFO);
+
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Test
+    public void testParallelResolutionPreservesOrder() throws Exception {
+        final Project serialProject = createProject("serial");
+        final List<String> serial = resolve(serialProject);
+
+        System.setProperty("parallelResolution", "true");
+        System.setProperty("parallelResolutionThreads", "4");
+
+        final Project parallelProject = createProject("parallel");
+        final List<String> parallel = resolve(parallelProject);
+
+        assertThat(serial).isNotEmpty();
+        assertThat(parallel).isEqualTo(serial);
+        assertThat(systemOutRule.getLog()).contains("using 4 thread(s)");
+    }
+
+    @Test
+    public void testDeduplicatedResolution() throws Exception {
+        final Project project = createProject("deduplicated");
+        final List<String> expected = resolve(createProject("reference"));
+
+        System.setProperty("resolutionDeduplication", "true");
+
+        final List<ConfigurationResolver.Resolution> resolutions = new ConfigurationResolver(
+                ConfigFactory.create(Configuration.class)).resolveAll(project);
+
+        // compileClasspath and testCompileClasspath have no dependencies and identical attributes.
+        assertThat(resolutions).anyMatch(ConfigurationResolver.Resolution::isReused);
+        assertThat(resolutions).allMatch(r -> r.getLenient() != null && r.getIncoming() != null);
+        assertThat(resolutions.stream().map(r -> r.getConfiguration().getName()).collect(Collectors.toList()))
+                .isEqualTo(expected);
+        assertThat(systemOutRule.getLog()).contains("configuration resolutions of root project 'deduplicated'");
+    }
+
+    @Test
+    public void testResolutionRulesPreventDeduplication() throws Exception {
+        final Project project = createProject("rules");
+        final String repositories = ConfigurationFingerprint.describeRepositories(project.getRepositories());
+        final org.gradle.api.artifacts.Configuration plain = project.getConfigurations().create("plain");
+        final org.gradle.api.artifacts.Configuration ruled = project.getConfigurations().create("ruled");
+
+        project.getDependencies().add("plain", "org.slf4j:slf4j-api:1.7.30");
+        project.getDependencies().add("ruled", "org.slf4j:slf4j-api:1.7.30");
+
+        assertThat(ConfigurationFingerprint.compute(ruled, repositories)).isNotNull()
+                .isEqualTo(ConfigurationFingerprint.compute(plain, repositories));
+
+        // The rule changes the resolved version, which the fingerprint cannot describe.
+        ruled.getResolutionStrategy().eachDependency(details -> details.useVersion("1.7.36"));
+
+        assertThat(ConfigurationFingerprint.compute(ruled, repositories)).isNull();
+        assertThat(ConfigurationFingerprint.compute(plain, repositories)).isNotNull();
+    }
+
+    @Test
+    public void testResolutionStrategyIsFingerprinted() throws Exception {
+        final Project project = createProject("strategy");
+        final String repositories = ConfigurationFingerprint.describeRepositories(project.getRepositories());
+        final org.gradle.api.artifacts.Configuration plain = project.getConfigurations().create("plain");
+        final org.gradle.api.artifacts.Configuration preferring = project.getConfigurations().create("preferring");
+        final org.gradle.api.artifacts.Configuration changing = project.getConfigurations().create("changing");
+
+        project.getDependencies().add("plain", "org.slf4j:slf4j-api:1.7.30");
+        project.getDependencies().add("preferring", "org.slf4j:slf4j-api:1.7.30");
+        preferring.getResolutionStrategy().preferProjectModules();
+        ((ExternalModuleDependency) project.getDependencies().add("changing", "org.slf4j:slf4j-api:1.7.30"))
+                .setChanging(true);
+
+        assertThat(ConfigurationFingerprint.compute(preferring, repositories)).isNotNull()
+                .isNotEqualTo(ConfigurationFingerprint.compute(plain, repositories));
+        // Changing modules are subject to the cache policy, which the fingerprint cannot describe.
+        assertThat(ConfigurationFingerprint.compute(changing, repositories)).isNull();
+    }
+
+    private Project createProject(String name) throws Exception {
+        final Project project = ProjectBuilder.builder().withName(name).withProjectDir(tempDir.newFolder(name)).build();
+        project.apply(configuration -> configuration.plugin("java"));
+        return project;
+    }
+
+    private List<String> resolve(Project project) {
+        final Configuration configuration = ConfigFactory.create(Configuration.class);
+
+        return new ConfigurationResolver(configuration).resolveAll(project).stream()
+                .peek(r -> assertThat(r.getLenient()).isNotNull())
+                .map(r -> r.getConfiguration().getName())
+                .collect(Collectors.toList());
+    }
+}
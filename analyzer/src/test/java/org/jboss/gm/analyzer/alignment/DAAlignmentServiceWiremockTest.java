@@ -37,6 +37,7 @@ import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,7 +46,7 @@ import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
 @RunWith(Parameterized.class)
 public class DAAlignmentServiceWiremockTest {
 
-    private static final int PORT = 8089;
+    static final int PORT = 8089;
 
     @Rule
     public final TestRule restoreSystemProperties = new RestoreSystemProperties();
@@ -97,7 +98,7 @@ public class DAAlignmentServiceWiremockTest {
         System.setProperty("dependencySource", precedence.toString());
         final Configuration configuration = ConfigFactory.create(Configuration.class);
 
-        final DAAlignmentService sut = new DAAlignmentService(configuration);
+        final DAAlignmentService sut = createService(configuration);
 
         final ProjectVersionRef projectGav = withGAV("org.acme", "dummy", "1.0.0");
         final ProjectVersionRef hibernateGav = withGAV("org.hibernate", "hibernate-core", "5.3.7.Final");
@@ -127,14 +128,70 @@ public class DAAlignmentServiceWiremockTest {
         });
     }
 
-    private String readSampleDAResponse() throws URISyntaxException, IOException {
+    @Test
+    public void alignmentUsesLookupCache() throws RestException, IOException {
+        System.setProperty(Configuration.DA, String.format("http://localhost:%d/da/rest/v-1", PORT));
+        System.setProperty("dependencySource", precedence.toString());
+        System.setProperty("restCache", "true");
+        System.setProperty("restCacheDirectory", tempDir.newFolder("cache").getAbsolutePath());
+        final Configuration configuration = ConfigFactory.create(Configuration.class);
+
+        final ProjectVersionRef projectGav = withGAV("org.acme", "dummy", "1.0.0");
+        final ProjectVersionRef hibernateGav = withGAV("org.hibernate", "hibernate-core", "5.3.7.Final");
+        final ProjectVersionRef undertowGav = withGAV("io.undertow", "undertow-core", "2.0.15.Final");
+        final ProjectVersionRef mockitoGav = withGAV("org.mockito", "mockito-core", "2.27.0");
+        final AlignmentService.Request request = new AlignmentService.Request(
+                Collections.singletonList(projectGav),
+                Stream.of(hibernateGav, undertowGav, mockitoGav).collect(Collectors.toList()));
+
+        wireMockRule.resetRequests();
+
+        final AlignmentService.Response first = createService(configuration).align(request);
+        final int lookups = wireMockRule.findAll(
+                postRequestedFor(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_GAVS))).size();
+        final AlignmentService.Response second = createService(configuration).align(request);
+
+        final Project project = ProjectBuilder.builder().withProjectDir(tempDir.newFolder("dummy")).build();
+
+        assertThat(second.getNewProjectVersion()).isEqualTo("1.0.0.redhat-00002");
+        if (precedence != DependencyState.DependencyPrecedence.NONE) {
+            assertThat(first.getCacheHits()).isEqualTo(0);
+            assertThat(first.getCacheMisses()).isEqualTo(3);
+            assertThat(second.getCacheHits()).isEqualTo(3);
+            assertThat(second.getCacheMisses()).isEqualTo(0);
+            assertThat(second.getAlignedVersionOfGav(project, hibernateGav)).isEqualTo("5.3.7.Final-redhat-00001");
+            assertThat(second.getAlignedVersionOfGav(project, undertowGav)).isEqualTo("2.0.15.Final-redhat-00001");
+            // Negative answers are cached as well.
+            assertThat(second.getAlignedVersionOfGav(project, mockitoGav)).isNull();
+
+            // The second alignment is answered entirely from the cache.
+            assertThat(lookups).isGreaterThan(0);
+            wireMockRule.verify(lookups,
+                    postRequestedFor(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_GAVS)));
+        }
+        // Project versions are never cached.
+        wireMockRule.verify(2,
+                postRequestedFor(urlEqualTo("/da/rest/v-1/" + DefaultTranslator.Endpoint.LOOKUP_LATEST)));
+    }
+
+    /**
+     * Creates the service under test.
+     *
+     * @param configuration the current configuration
+     * @return the service under test
+     */
+    protected DAAlignmentService createService(Configuration configuration) {
+        return new DAAlignmentService(configuration);
+    }
+
+    String readSampleDAResponse() throws URISyntaxException, IOException {
         return FileUtils.readFileToString(
                 Paths.get(DAAlignmentServiceWiremockTest.class.getClassLoader().getResource("sample-da-response.json")
                         .toURI()).toFile(),
                 StandardCharsets.UTF_8.name());
     }
 
-    private String readSampleDAProjectResponse() throws URISyntaxException, IOException {
+    String readSampleDAProjectResponse() throws URISyntaxException, IOException {
         return FileUtils.readFileToString(
                 Paths.get(DAAlignmentServiceWiremockTest.class.getClassLoader().getResource("sample-da-response-project" +
                         ".json")
@@ -0,0 +1,138 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
+
+public class IncrementalAlignmentServiceTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    private final List<List<ProjectVersionRef>> requests = new ArrayList<>();
+
+    private final ProjectVersionRef hibernate = withGAV("org.hibernate", "hibernate-core", "5.3.7.Final");
+
+    private final ProjectVersionRef undertow = withGAV("io.undertow", "undertow-core", "2.0.15.Final");
+
+    private final ProjectVersionRef mockito = withGAV("org.mockito", "mockito-core", "2.27.0");
+
+    @Test
+    public void onlyGavsWithoutPreviousAnswersArePassedOn() throws ManipulationException {
+        AlignmentService.Response response = align(hibernate, undertow);
+        assertThat(requests).containsExactly(Arrays.asList(hibernate, undertow));
+        assertThat(response.getTranslationMap()).containsOnlyKeys(hibernate);
+
+        // Without a previous manipulation file the state is not trusted.
+        align(hibernate, undertow);
+        assertThat(requests.get(1)).containsExactly(hibernate, undertow);
+
+        writeModel(hibernate);
+        response = align(hibernate, undertow, mockito);
+        // Undertow had no aligned version, so it is looked up again in case it has been built since.
+        assertThat(requests.get(2)).containsExactly(undertow, mockito);
+        assertThat(response.getTranslationMap()).containsOnlyKeys(hibernate, mockito);
+        assertThat(response.getTranslationMap().get(hibernate)).isEqualTo("5.3.7.Final-redhat-00001");
+        assertThat(response.getNewProjectVersion()).isEqualTo("1.0.0.redhat-00001");
+
+        writeModel(hibernate, mockito);
+        response = align(hibernate, undertow, mockito);
+        assertThat(requests.get(3)).containsExactly(undertow);
+        assertThat(response.getTranslationMap()).containsOnlyKeys(hibernate, mockito);
+
+        // A GAV is only reused while it is aligned by the manipulation file...
+        writeModel(mockito);
+        align(hibernate, undertow, mockito);
+        assertThat(requests.get(4)).containsExactly(hibernate, undertow);
+
+        // ...to the version answered by the Dependency Analyzer.
+        final Map<ProjectVersionRef, String> overridden = new HashMap<>();
+        overridden.put(hibernate, "5.3.7.Final-redhat-00002");
+        overridden.put(mockito, "2.27.0-redhat-00001");
+        writeModel(overridden);
+        align(hibernate, undertow, mockito);
+        assertThat(requests.get(5)).containsExactly(hibernate, undertow);
+
+        // A change of configuration invalidates the previous answers.
+        writeModel(hibernate, mockito);
+        System.setProperty("dependencySource", "NONE");
+        align(hibernate, undertow, mockito);
+        assertThat(requests.get(6)).containsExactly(hibernate, undertow, mockito);
+    }
+
+    @Test
+    public void expiredAnswersArePassedOn() throws ManipulationException, InterruptedException {
+        System.setProperty("incrementalAlignmentTtl", "1");
+
+        writeModel(hibernate);
+        align(hibernate);
+        align(hibernate);
+        assertThat(requests.get(1)).isEmpty();
+
+        Thread.sleep(1100);
+        align(hibernate);
+        assertThat(requests.get(2)).containsExactly(hibernate);
+    }
+
+    /**
+     * Writes a manipulation file aligning the given GAVs as the Dependency Analyzer answers them.
+     */
+    private void writeModel(ProjectVersionRef... gavs) throws ManipulationException {
+        final Map<ProjectVersionRef, String> aligned = new HashMap<>();
+
+        for (ProjectVersionRef gav : gavs) {
+            aligned.put(gav, gav.getVersionString() + "-redhat-00001");
+        }
+        writeModel(aligned);
+    }
+
+    private void writeModel(Map<ProjectVersionRef, String> aligned) throws ManipulationException {
+        final ManipulationModel model = new ManipulationModel();
+
+        aligned.forEach((gav, version) -> model.getAlignedDependencies().put(gav.toString(),
+                withGAV(gav.getGroupId(), gav.getArtifactId(), version)));
+        ManipulationIO.writeManipulationModel(tempDir.getRoot(), model);
+    }
+
+    private AlignmentService.Response align(ProjectVersionRef... dependencies) throws ManipulationException {
+        final Configuration configuration = ConfigFactory.create(Configuration.class);
+        final AlignmentService delegate = request -> {
+            requests.add(request.getDependencies());
+
+            final Map<ProjectVersionRef, String> translationMap = new HashMap<>();
+            for (ProjectVersionRef gav : request.getDependencies()) {
+                // Undertow deliberately has no aligned version.
+                if (!gav.equals(undertow)) {
+                    translationMap.put(gav, gav.getVersionString() + "-redhat-00001");
+                }
+            }
+            final AlignmentService.Response response = new AlignmentService.Response(translationMap);
+            response.setNewProjectVersion("1.0.0.redhat-00001");
+            return response;
+        };
+        return new IncrementalAlignmentService(delegate, configuration, tempDir.getRoot())
+                .align(new AlignmentService.Request(Collections.singletonList(withGAV("org.acme", "dummy", "1.0.0")),
+                        Arrays.asList(dependencies)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.jboss.gm.analyzer.alignment.io;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.jboss.gm.common.versioning.RelaxedProjectVersionRef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionIOTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void writeAndReadCollection() throws Exception {
+        final File file = new File(tempDir.getRoot(), CollectionIO.COLLECTION_FILE_NAME);
+        final Map<RelaxedProjectVersionRef, ProjectVersionRef> dependencies = new LinkedHashMap<>();
+
+        dependencies.put(new RelaxedProjectVersionRef(new SimpleProjectVersionRef("org.foo", "bar", "1.+")),
+                new SimpleProjectVersionRef("org.foo", "bar", "1.2"));
+        dependencies.put(new RelaxedProjectVersionRef(new SimpleProjectVersionRef("org.foo", "baz", "2.0")),
+                new SimpleProjectVersionRef("org.foo", "baz", "2.0"));
+        dependencies.put(RelaxedProjectVersionRef.parse("org.foo:unversioned"),
+                new SimpleProjectVersionRef("org.foo", "unversioned", "3.0"));
+
+        CollectionIO.writeCollection(file, dependencies);
+        assertThat(file).exists();
+
+        final Map<RelaxedProjectVersionRef, ProjectVersionRef> result = CollectionIO.readCollection(file);
+
+        assertThat(result).hasSize(3);
+        assertThat(result.keySet()).extracting(Object::toString)
+                .containsExactly("org.foo:bar:1.+", "org.foo:baz:2.0", "org.foo:unversioned");
+        assertThat(result.values()).containsExactlyElementsOf(dependencies.values());
+        assertThat(result.keySet().stream().skip(2).findFirst().get().asProjectRef())
+                .isEqualTo(new SimpleProjectRef("org.foo", "unversioned"));
+    }
+
+    @Test(expected = ManipulationException.class)
+    public void readMissingCollection() throws ManipulationException {
+        CollectionIO.readCollection(new File(tempDir.getRoot(), "missing.json"));
+    }
+}
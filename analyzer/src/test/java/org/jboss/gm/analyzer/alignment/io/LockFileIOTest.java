@@ -5,13 +5,16 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.Logger;
@@ -111,4 +114,71 @@ public class LockFileIOTest {
                 + ".8' to be replaced by org.apache.commons:commons-lang3:3.8.redhat-00001");
 
     }
+
+    @Test
+    public void testIndexByProjectRef() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add("# This is a Gradle generated file for dependency locking.");
+        for (int i = 0; i < 5000; i++) {
+            lines.add("org.example.group" + (i % 50) + ":artifact-" + i + ":1." + i + "=compileClasspath");
+        }
+        FileUtils.writeLines(tempDir.newFile("compileClasspath.lockfile"), lines);
+
+        final Set<ProjectVersionRef> lockFileDeps = LockFileIO.allProjectVersionRefsFromLockfiles(tempDir.getRoot());
+        final Map<ProjectRef, String> index = LockFileIO.indexByProjectRef(lockFileDeps);
+
+        assertThat(index).hasSize(5000);
+        assertThat(index.get(new SimpleProjectRef("org.example.group7", "artifact-4957"))).isEqualTo("1.4957");
+        assertThat(index.get(new SimpleProjectRef("org.example.group7", "artifact-1"))).isNull();
+
+        // The index must agree with a linear scan where the last match wins.
+        for (ProjectVersionRef dep : lockFileDeps) {
+            String expected = null;
+            for (ProjectVersionRef lockFileDep : lockFileDeps) {
+                if (lockFileDep.getGroupId().equals(dep.getGroupId())
+                        && lockFileDep.getArtifactId().equals(dep.getArtifactId())) {
+                    expected = lockFileDep.getVersionString();
+                }
+            }
+            assertThat(index.get(dep.asProjectRef())).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testUpdateLargeLockFile() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add("# This is a Gradle generated file for dependency locking.");
+        for (int i = 0; i < 5000; i++) {
+            lines.add("org.example.group" + (i % 50) + ":artifact-" + i + ":1." + i + "=compileClasspath");
+        }
+        lines.add("empty=");
+        final File lockFile = tempDir.newFile("gradle.lockfile");
+        FileUtils.writeLines(lockFile, lines);
+
+        final Map<String, ProjectVersionRef> map = new HashMap<>();
+        map.put("org.example.group7:artifact-4957:1.4957",
+                SimpleProjectVersionRef.parse("org.example.group7:artifact-4957:1.4957.redhat-00001"));
+        // A dynamic version matches the explicit version recorded in the lock file.
+        map.put("org.example.group1:artifact-1:1.+",
+                SimpleProjectVersionRef.parse("org.example.group1:artifact-1:1.1.redhat-00001"));
+        // A prefix of a locked version must not match.
+        map.put("org.example.group2:artifact-2:1.",
+                SimpleProjectVersionRef.parse("org.example.group2:artifact-2:1.redhat-00001"));
+        map.put("org.example:unversioned", SimpleProjectVersionRef.parse("org.example:unversioned:1.0"));
+
+        LockFileIO.updateLockfiles(logger, tempDir.getRoot(), map);
+
+        final List<String> updated = FileUtils.readLines(lockFile, Charset.defaultCharset());
+        assertThat(updated).hasSameSizeAs(lines);
+        assertThat(updated.get(4958))
+                .isEqualTo("org.example.group7:artifact-4957:1.4957.redhat-00001=compileClasspath");
+        assertThat(updated.get(2)).isEqualTo("org.example.group1:artifact-1:1.1.redhat-00001=compileClasspath");
+        assertThat(updated.get(3)).isEqualTo(lines.get(3));
+
+        for (int i = 0; i < lines.size(); i++) {
+            if (i != 2 && i != 4958) {
+                assertThat(updated.get(i)).isEqualTo(lines.get(i));
+            }
+        }
+    }
 }
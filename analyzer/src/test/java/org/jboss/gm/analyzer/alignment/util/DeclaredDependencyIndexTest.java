@@ -0,0 +1,107 @@
+package org.jboss.gm.analyzer.alignment.util;
+
+import java.util.Arrays;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.UnresolvedDependency;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeclaredDependencyIndexTest {
+
+    @Rule
+    public final TemporaryFolder tempDir = new TemporaryFolder();
+
+    private DependencyHandler handler;
+
+    private Dependency subproject;
+
+    @Before
+    public void setup() throws Exception {
+        final Project root = ProjectBuilder.builder().withName("root").withProjectDir(tempDir.newFolder()).build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+
+        child.setGroup("org.acme");
+        child.setVersion("1.0.0");
+        handler = root.getDependencies();
+        subproject = handler.create(child);
+    }
+
+    @Test
+    public void declaredLookup() {
+        final Dependency core = handler.create("org.hibernate:hibernate-core:5.3.7.Final");
+        final Dependency coreTests = handler.create("org.hibernate:hibernate-core:5.3.7.Final:tests");
+        final Dependency envers = handler.create("org.hibernate:hibernate-envers:5.3.7.Final");
+        final DeclaredDependencyIndex index = new DeclaredDependencyIndex(Arrays.asList(core, envers, coreTests));
+
+        assertThat(index.getDeclared("org.hibernate", "hibernate-core")).containsExactly(core, coreTests);
+        assertThat(index.getDeclared("org.hibernate", "hibernate-envers")).containsExactly(envers);
+        assertThat(index.getDeclared("org.hibernate", "hibernate-validator")).isEmpty();
+        assertThat(index.getDeclared("io.undertow", "hibernate-core")).isEmpty();
+    }
+
+    @Test
+    public void unversionedLookup() {
+        final Dependency unversioned = handler.create("org.slf4j:slf4j-api");
+        final DeclaredDependencyIndex index = new DeclaredDependencyIndex(Arrays.asList(unversioned, subproject));
+
+        assertThat(unversioned.getVersion()).isNull();
+        assertThat(index.getDeclared("org.slf4j", "slf4j-api")).containsExactly(unversioned);
+        // Only project dependencies are matched by their GAV.
+        assertThat(index.isProjectDependency(resolved("org.slf4j", "slf4j-api", null))).isFalse();
+        assertThat(index.isProjectDependency(unresolved("org.slf4j", "slf4j-api", null))).isFalse();
+    }
+
+    @Test
+    public void projectDependencyLookup() {
+        final Dependency external = handler.create("org.hibernate:hibernate-core:5.3.7.Final");
+        final DeclaredDependencyIndex index = new DeclaredDependencyIndex(Arrays.asList(external, subproject));
+
+        assertThat(index.getDeclared("org.acme", "child")).containsExactly(subproject);
+        assertThat(index.isProjectDependency(resolved("org.acme", "child", "1.0.0"))).isTrue();
+        assertThat(index.isProjectDependency(resolved("org.acme", "child", "1.0.1"))).isFalse();
+        assertThat(index.isProjectDependency(resolved("org.hibernate", "hibernate-core", "5.3.7.Final"))).isFalse();
+        assertThat(index.isProjectDependency(unresolved("org.acme", "child", "1.0.0"))).isTrue();
+        assertThat(index.isProjectDependency(unresolved("org.acme", "parent", "1.0.0"))).isFalse();
+    }
+
+    @Test
+    public void noProjectDependencies() {
+        final DeclaredDependencyIndex index = new DeclaredDependencyIndex(
+                Arrays.asList(handler.create("org.hibernate:hibernate-core:5.3.7.Final")));
+
+        assertThat(index.isProjectDependency(resolved("org.acme", "child", "1.0.0"))).isFalse();
+        assertThat(index.isProjectDependency(unresolved("org.acme", "child", "1.0.0"))).isFalse();
+    }
+
+    private static ResolvedDependency resolved(String group, String name, String version) {
+        final ResolvedDependency dependency = mock(ResolvedDependency.class);
+
+        when(dependency.getModuleGroup()).thenReturn(group);
+        when(dependency.getModuleName()).thenReturn(name);
+        when(dependency.getModuleVersion()).thenReturn(version);
+        return dependency;
+    }
+
+    private static UnresolvedDependency unresolved(String group, String name, String version) {
+        final UnresolvedDependency dependency = mock(UnresolvedDependency.class);
+        final ModuleVersionSelector selector = mock(ModuleVersionSelector.class);
+
+        when(selector.getGroup()).thenReturn(group);
+        when(selector.getName()).thenReturn(name);
+        when(selector.getVersion()).thenReturn(version);
+        when(dependency.getSelector()).thenReturn(selector);
+        return dependency;
+    }
+}
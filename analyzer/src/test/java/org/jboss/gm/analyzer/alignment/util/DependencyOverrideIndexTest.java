@@ -0,0 +1,66 @@
+package org.jboss.gm.analyzer.alignment.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DependencyOverrideIndexTest {
+
+    private final ProjectRef exact = new SimpleProjectRef("org.hibernate", "hibernate-core");
+
+    private final ProjectRef artifactWildcard = new SimpleProjectRef("org.hibernate", "*");
+
+    private final ProjectRef groupWildcard = new SimpleProjectRef("*", "hibernate-core");
+
+    @Test
+    public void exactMatch() {
+        final DependencyOverrideIndex index = new DependencyOverrideIndex(Collections.singletonList(exact));
+
+        assertThat(index.findMatch(new SimpleProjectVersionRef("org.hibernate", "hibernate-core", "5.3.7.Final")))
+                .isSameAs(exact);
+        assertThat(index.findMatch(new SimpleProjectVersionRef("org.hibernate", "hibernate-envers", "5.3.7.Final")))
+                .isNull();
+        assertThat(index.findMatch(new SimpleProjectVersionRef("orgxhibernate", "hibernate-core", "5.3.7.Final")))
+                .isNull();
+    }
+
+    @Test
+    public void wildcardMatch() {
+        final DependencyOverrideIndex index = new DependencyOverrideIndex(Arrays.asList(exact, artifactWildcard));
+
+        assertThat(index.findMatch(new SimpleProjectVersionRef("org.hibernate", "hibernate-envers", "5.3.7.Final")))
+                .isSameAs(artifactWildcard);
+        // Looked up a second time from the memoised matches
+        assertThat(index.findMatch(new SimpleProjectVersionRef("org.hibernate", "hibernate-envers", "5.3.8.Final")))
+                .isSameAs(artifactWildcard);
+        assertThat(index.findMatch(new SimpleProjectVersionRef("io.undertow", "undertow-core", "2.0.15.Final")))
+                .isNull();
+    }
+
+    @Test
+    public void firstMatchWins() {
+        final SimpleProjectVersionRef gav = new SimpleProjectVersionRef("org.hibernate", "hibernate-core",
+                "5.3.7.Final");
+
+        assertThat(new DependencyOverrideIndex(Arrays.asList(exact, artifactWildcard)).findMatch(gav))
+                .isSameAs(exact);
+        assertThat(new DependencyOverrideIndex(Arrays.asList(artifactWildcard, exact)).findMatch(gav))
+                .isSameAs(artifactWildcard);
+        assertThat(new DependencyOverrideIndex(Arrays.asList(groupWildcard, artifactWildcard, exact)).findMatch(gav))
+                .isSameAs(groupWildcard);
+    }
+
+    @Test
+    public void noOverrides() {
+        final DependencyOverrideIndex index = new DependencyOverrideIndex(Collections.emptyList());
+
+        assertThat(index.findMatch(new SimpleProjectVersionRef("org.hibernate", "hibernate-core", "5.3.7.Final")))
+                .isNull();
+    }
+}
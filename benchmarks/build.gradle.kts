@@ -0,0 +1,62 @@
+plugins {
+    java
+}
+
+group = "org.jboss.gm"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    implementation(project(":common"))
+    implementation(project(":analyzer"))
+    implementation(project(":manipulation"))
+    implementation(gradleApi())
+    implementation(localGroovy())
+
+    implementation("org.openjdk.jmh:jmh-core:${project.extra.get("jmhVersion")}")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:${project.extra.get("jmhVersion")}")
+
+    implementation("org.commonjava.maven.ext:pom-manipulation-common:${project.extra.get("pmeVersion")}")
+    implementation("org.commonjava.maven.atlas:atlas-identities:${project.extra.get("atlasVersion")}")
+    implementation("org.aeonbits.owner:owner-java8:${project.extra.get("ownerVersion")}")
+    implementation("commons-io:commons-io:${project.extra.get("commonsVersion")}")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.9.8")
+
+    runtimeOnly("org.apache.maven:maven-core:${project.extra.get("mavenVersion")}")
+    runtimeOnly("org.apache.maven:maven-model:${project.extra.get("mavenVersion")}")
+    runtimeOnly("org.apache.maven:maven-artifact:${project.extra.get("mavenVersion")}")
+}
+
+/*
+ * Runs the benchmarks and writes the results, in the JMH JSON format, to build/reports/jmh/results.json so that runs
+ * of different versions may be compared. Use e.g. -Pjmh.include=LockFileIO to run a subset of the benchmarks and
+ * -Pjmh.args="-p modules=10,100" to pass further JMH options.
+ */
+tasks.register("jmh", Exec::class.java) {
+    description = "Runs the JMH benchmarks"
+    group = "benchmark"
+    dependsOn("classes")
+
+    val results = File(buildDir, "reports/jmh/results.json")
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+
+    doFirst {
+        results.parentFile.mkdirs()
+
+        val arguments = mutableListOf(
+            File(System.getProperty("java.home"), "bin/java").path,
+            "-cp", sourceSets["main"].runtimeClasspath.asPath,
+            "org.openjdk.jmh.Main",
+            "-rf", "json",
+            "-rff", results.path
+        )
+        (project.findProperty("jmh.args") as String?)?.let { arguments.addAll(it.trim().split("\\s+".toRegex())) }
+        (project.findProperty("jmh.include") as String?)?.let { arguments.add(it) }
+
+        commandLine(arguments)
+    }
+}
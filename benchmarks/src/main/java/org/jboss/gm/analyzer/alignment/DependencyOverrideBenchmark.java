@@ -0,0 +1,130 @@
+package org.jboss.gm.analyzer.alignment;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jboss.gm.analyzer.alignment.AlignmentService.Response;
+import org.jboss.gm.benchmarks.SyntheticBuild;
+import org.jboss.gm.common.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applying {@code dependencyOverride} properties: computing the overrides of each module with
+ * {@link DependencyOverrideCustomizer} and looking up the aligned version of each dependency of each module, as done
+ * when updating the module dependencies. A fifth of the overrides use wildcards and a tenth are scoped to a module.
+ * <p>
+ * This lives in the package of {@link Response} as the lookup is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DependencyOverrideBenchmark {
+
+    @Param({ "500" })
+    public int modules;
+
+    @Param({ "200" })
+    public int overrides;
+
+    @Param({ "200" })
+    public int dependencies;
+
+    private File rootDir;
+
+    private Configuration configuration;
+
+    private Set<Project> projects;
+
+    private List<ProjectVersionRef> gavs;
+
+    private Map<ProjectVersionRef, String> translationMap;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticBuild.quietLogging();
+        rootDir = SyntheticBuild.createTempDirectory();
+
+        final Project root = ProjectBuilder.builder().withProjectDir(rootDir).withName("root").build();
+        projects = new LinkedHashSet<>();
+        projects.add(root);
+        for (int i = 0; i < modules; i++) {
+            projects.add(ProjectBuilder.builder().withParent(root).withName("module" + i).build());
+        }
+        for (Project project : projects) {
+            project.setGroup(SyntheticBuild.GROUP);
+            project.setVersion(SyntheticBuild.VERSION);
+        }
+
+        for (int i = 0; i < overrides; i++) {
+            final String key;
+            if (i % 5 == 0) {
+                key = "org.dep" + (i % 50) + ":artifact" + i + "*@*";
+            } else if (i % 10 == 1) {
+                key = "org.dep" + (i % 50) + ":artifact" + i + "@" + SyntheticBuild.GROUP + ":module" + i;
+            } else {
+                key = "org.dep" + (i % 50) + ":artifact" + i + "@*";
+            }
+            System.setProperty(DependencyOverrideCustomizer.DEPENDENCY_OVERRIDE + key, "1.0.0.override-" + i);
+        }
+        configuration = ConfigFactory.create(Configuration.class);
+
+        gavs = SyntheticBuild.dependencies(dependencies);
+        translationMap = new HashMap<>();
+        for (int i = 0; i < gavs.size(); i += 2) {
+            translationMap.put(gavs.get(i), gavs.get(i).getVersionString() + ".redhat-00001");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(rootDir);
+    }
+
+    @Benchmark
+    public Response customize() {
+        final Response response = new Response(translationMap);
+
+        new DependencyOverrideCustomizer(configuration, projects).customize(response);
+        return response;
+    }
+
+    @Benchmark
+    public int customizeAndLookup() {
+        final Response response = customize();
+        int overridden = 0;
+
+        for (Project project : projects) {
+            for (ProjectVersionRef gav : gavs) {
+                if (response.getAlignedVersionOfGav(project, gav) != null) {
+                    overridden++;
+                }
+            }
+        }
+        return overridden;
+    }
+}
@@ -0,0 +1,98 @@
+package org.jboss.gm.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.gradle.api.artifacts.DependencyResolveDetails;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.manipulation.ResolvedDependenciesRepository;
+import org.jboss.gm.manipulation.actions.AlignedDependencyResolverAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The throughput of {@link AlignedDependencyResolverAction}, which Gradle runs for every dependency of every resolved
+ * configuration, for a module with the given number of dependencies of which half are aligned.
+ * <p>
+ * The resolve details are dynamic proxies, as the Gradle interface gains methods between versions ; the dispatch
+ * overhead is the same for every run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AlignedDependencyResolverActionBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int dependencies;
+
+    private AlignedDependencyResolverAction action;
+
+    private DependencyResolveDetails[] details;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticBuild.quietLogging();
+
+        final ManipulationModel module = SyntheticBuild.model(0, dependencies);
+        final List<ProjectVersionRef> requested = SyntheticBuild.dependencies(dependencies);
+
+        action = new AlignedDependencyResolverAction(module, new ResolvedDependenciesRepository());
+        details = requested.stream().map(AlignedDependencyResolverActionBenchmark::details)
+                .toArray(DependencyResolveDetails[]::new);
+    }
+
+    @Benchmark
+    public void execute() {
+        action.execute(details[next]);
+        next = (next + 1) % details.length;
+    }
+
+    private static DependencyResolveDetails details(ProjectVersionRef gav) {
+        final ModuleVersionSelector selector = (ModuleVersionSelector) Proxy.newProxyInstance(
+                ModuleVersionSelector.class.getClassLoader(), new Class<?>[] { ModuleVersionSelector.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getGroup":
+                            return gav.getGroupId();
+                        case "getName":
+                            return gav.getArtifactId();
+                        case "getVersion":
+                            return gav.getVersionString();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        return (DependencyResolveDetails) Proxy.newProxyInstance(DependencyResolveDetails.class.getClassLoader(),
+                new Class<?>[] { DependencyResolveDetails.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequested":
+                        case "getTarget":
+                            return selector;
+                        case "because":
+                            return proxy;
+                        case "useVersion":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
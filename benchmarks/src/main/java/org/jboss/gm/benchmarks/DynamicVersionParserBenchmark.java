@@ -0,0 +1,57 @@
+package org.jboss.gm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.gm.common.versioning.DynamicVersionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DynamicVersionParser#isDynamic(String)} over a corpus of the given number of distinct version strings, in the
+ * proportions typically seen in lock files and aligned dependencies: mostly exact release and redhat versions, with
+ * some prefix, latest and range selectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DynamicVersionParserBenchmark {
+
+    private static final String[] PATTERNS = { "%d.%d.%d", "%d.%d.%d.Final", "%d.%d.%d.Final-redhat-%05d",
+            "%d.%d.%d.redhat-%05d", "%d.%d.%d-SNAPSHOT", "%d.%d.%d.RELEASE", "%d.%d.%d-jre", "%d.%d.%d.Final",
+            "%d.%d.+", "[%d.%d,%d.0)", "%d.%d.%d", "latest.release" };
+
+    @Param({ "100", "10000" })
+    public int versions;
+
+    private String[] corpus;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        corpus = new String[versions];
+        for (int i = 0; i < versions; i++) {
+            corpus[i] = String.format(PATTERNS[i % PATTERNS.length], i / 100 + 1, i / 10 % 10, i % 10, i);
+        }
+    }
+
+    @Benchmark
+    public boolean isDynamic() {
+        final String version = corpus[next];
+
+        next = (next + 1) % corpus.length;
+        return DynamicVersionParser.isDynamic(version);
+    }
+}
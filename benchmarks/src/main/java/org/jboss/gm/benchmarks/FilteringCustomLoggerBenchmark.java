@@ -0,0 +1,71 @@
+package org.jboss.gm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.internal.logging.events.LogEvent;
+import org.gradle.internal.logging.events.OutputEventListener;
+import org.jboss.gm.common.logging.FilteringCustomLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FilteringCustomLogger} filtering a million log events of ignored, promoted and passed categories, as seen
+ * by a large build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FilteringCustomLoggerBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+
+    private static final String[] CATEGORIES = {
+            "org.gradle.api.internal.artifacts.ivyservice.ivyresolve.RepositoryChainComponentMetaDataResolver",
+            "org.gradle.internal.resource.transport.http.HttpClientHelper",
+            "org.gradle.cache.internal.DefaultFileLockManager",
+            "org.commonjava.maven.ext.io.rest.DefaultTranslator",
+            "com.redhat.resilience.otel.OTelCLIHelper",
+            "org.jboss.gm.analyzer.alignment.AlignmentTask",
+            "org.jboss.gm.manipulation.ManipulationPlugin",
+            "org.gradle.api.Project" };
+
+    private final LogEvent[] events = new LogEvent[EVENTS];
+
+    private OutputEventListener filter;
+
+    private long delivered;
+
+    @Setup
+    public void setup() {
+        SyntheticBuild.quietLogging();
+        FilteringCustomLogger.getContext().setOutputEventListener(event -> delivered++);
+        FilteringCustomLogger.enableFilter();
+        filter = FilteringCustomLogger.getContext().getOutputEventListener();
+
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new LogEvent(i, CATEGORIES[i % CATEGORIES.length], LogLevel.INFO, "message " + i, null);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long onOutput() {
+        for (LogEvent event : events) {
+            filter.onOutput(event);
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,64 @@
+package org.jboss.gm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aeonbits.owner.ConfigCache;
+import org.gradle.api.logging.LogLevel;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.Configuration;
+import org.jboss.gm.common.logging.FilteringCustomLogger;
+import org.jboss.gm.common.logging.GMLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of a {@link GMLogger} call at a disabled level (debug, sent to info) and at an enabled level (info, sent to
+ * lifecycle), with and without the class name and line number of the caller. The output itself is discarded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GMLoggerBenchmark {
+
+    @Param({ "false", "true" })
+    public String callSite;
+
+    private Logger logger;
+
+    private final String group = "org.hibernate";
+
+    private final String version = "5.3.7.Final";
+
+    @Setup
+    public void setup() {
+        System.setProperty("loggingClassnameLineNumber", callSite);
+        System.setProperty("loggingColours", "false");
+        ConfigCache.getOrCreate(Configuration.class).reload();
+
+        SyntheticBuild.quietLogging();
+        FilteringCustomLogger.getContext().setLevel(LogLevel.LIFECYCLE);
+        logger = GMLogger.getLogger(getClass());
+    }
+
+    @Benchmark
+    public void disabled() {
+        logger.debug("Mapping {} to {}", group, version);
+    }
+
+    @Benchmark
+    public void enabled() {
+        logger.info("Overriding dependency {} with new version {}", group, version);
+    }
+}
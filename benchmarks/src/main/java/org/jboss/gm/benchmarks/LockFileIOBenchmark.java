@@ -0,0 +1,91 @@
+package org.jboss.gm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.analyzer.alignment.io.LockFileIO;
+import org.jboss.gm.common.logging.GMLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing, indexing and rewriting four lock files of the given number of entries, half of which are aligned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LockFileIOBenchmark {
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int entries;
+
+    private File directory;
+
+    private Set<ProjectVersionRef> locked;
+
+    private Map<String, ProjectVersionRef> aligned;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticBuild.quietLogging();
+        directory = SyntheticBuild.createTempDirectory();
+        SyntheticBuild.writeLockFiles(directory, entries);
+        locked = LockFileIO.allProjectVersionRefsFromLockfiles(directory);
+        aligned = SyntheticBuild.alignedDependencies(entries);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Benchmark
+    public Set<ProjectVersionRef> parse() throws IOException {
+        return LockFileIO.allProjectVersionRefsFromLockfiles(directory);
+    }
+
+    @Benchmark
+    public Map<ProjectRef, String> index() {
+        return LockFileIO.indexByProjectRef(locked);
+    }
+
+    @Benchmark
+    public void update(Rewrite rewrite) {
+        LockFileIO.updateLockfiles(logger, directory, aligned);
+    }
+
+    /**
+     * The update rewrites the aligned versions so the original lock files are restored before each call. This is
+     * not measured and, unlike a per invocation setup of the whole class, does not slow down the other benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class Rewrite {
+        @Setup(Level.Invocation)
+        public void restore(LockFileIOBenchmark benchmark) throws IOException {
+            SyntheticBuild.writeLockFiles(benchmark.directory, benchmark.entries);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.jboss.gm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading and writing {@code manipulation.json}: the whole model, and a single module with the streaming reader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ManipulationIOBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int modules;
+
+    @Param({ "20" })
+    public int dependencies;
+
+    private File rootDir;
+
+    private ManipulationModel model;
+
+    private String lastModule;
+
+    @Setup
+    public void setup() throws IOException, ManipulationException {
+        SyntheticBuild.quietLogging();
+        rootDir = SyntheticBuild.createTempDirectory();
+        model = SyntheticBuild.model(modules, dependencies);
+        ManipulationIO.writeManipulationModel(rootDir, model);
+
+        final List<String> paths = SyntheticBuild.paths(modules);
+        lastModule = paths.get(paths.size() - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(rootDir);
+    }
+
+    @Benchmark
+    public void write() throws ManipulationException {
+        ManipulationIO.writeManipulationModel(rootDir, model);
+    }
+
+    @Benchmark
+    public ManipulationModel read() {
+        return ManipulationIO.readManipulationModel(rootDir);
+    }
+
+    @Benchmark
+    public ManipulationModel readModule() {
+        return ManipulationIO.readManipulationModel(rootDir, lastModule);
+    }
+}
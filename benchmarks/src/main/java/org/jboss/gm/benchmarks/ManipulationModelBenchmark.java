@@ -0,0 +1,54 @@
+package org.jboss.gm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Project;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ManipulationModel#findCorrespondingChild(Project)} for every project of the build in turn, as done by the
+ * manipulation plugin and the analyzer for each project.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ManipulationModelBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int modules;
+
+    private ManipulationModel model;
+
+    private Project[] projects;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticBuild.quietLogging();
+        model = SyntheticBuild.model(modules, 0);
+        projects = SyntheticBuild.paths(modules).stream().map(SyntheticBuild::project).toArray(Project[]::new);
+    }
+
+    @Benchmark
+    public ManipulationModel findCorrespondingChild() {
+        final Project project = projects[next];
+
+        next = (next + 1) % projects.length;
+        return model.findCorrespondingChild(project);
+    }
+}
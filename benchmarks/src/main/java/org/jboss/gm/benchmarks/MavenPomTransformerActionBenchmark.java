@@ -0,0 +1,73 @@
+package org.jboss.gm.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.XmlProvider;
+import org.jboss.gm.manipulation.ResolvedDependenciesRepository;
+import org.jboss.gm.manipulation.actions.MavenPomTransformerAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * {@link MavenPomTransformerAction} on a POM with the given number of dependencies, half of which are aligned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MavenPomTransformerActionBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int dependencies;
+
+    private MavenPomTransformerAction action;
+
+    private Document pom;
+
+    private XmlProvider provider;
+
+    @Setup
+    public void setup() {
+        SyntheticBuild.quietLogging();
+        action = new MavenPomTransformerAction(SyntheticBuild.model(0, dependencies),
+                new ResolvedDependenciesRepository());
+        pom = SyntheticBuild.pom(dependencies);
+    }
+
+    /**
+     * The action aligns the versions in place so each call is given a fresh copy of the POM.
+     */
+    @Setup(Level.Invocation)
+    public void copy() {
+        final Element element = ((Document) pom.cloneNode(true)).getDocumentElement();
+
+        provider = (XmlProvider) Proxy.newProxyInstance(XmlProvider.class.getClassLoader(),
+                new Class<?>[] { XmlProvider.class }, (proxy, method, args) -> {
+                    if ("asElement".equals(method.getName())) {
+                        return element;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public XmlProvider execute() {
+        action.execute(provider);
+        return provider;
+    }
+}
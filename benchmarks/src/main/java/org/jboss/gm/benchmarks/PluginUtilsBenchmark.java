@@ -0,0 +1,85 @@
+package org.jboss.gm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.utils.PluginUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PluginUtils#pluginRemoval} over the build scripts of the given number of modules: scanning scripts that do
+ * not use the plugins, and removing the plugins from scripts that do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PluginUtilsBenchmark {
+
+    private static final String[] PLUGINS = { "com.github.ben-manes.versions", "gradle-enterprise" };
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int modules;
+
+    private File withoutPlugins;
+
+    private File withPlugins;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticBuild.quietLogging();
+        withoutPlugins = SyntheticBuild.createTempDirectory();
+        withPlugins = SyntheticBuild.createTempDirectory();
+        SyntheticBuild.writeBuildScripts(withoutPlugins, modules, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(withoutPlugins);
+        FileUtils.deleteQuietly(withPlugins);
+    }
+
+    @Benchmark
+    public void scan() throws ManipulationException {
+        PluginUtils.pluginRemoval(logger, withoutPlugins, new HashSet<>(Arrays.asList(PLUGINS)));
+    }
+
+    @Benchmark
+    public void remove(Restore restore) throws ManipulationException {
+        PluginUtils.pluginRemoval(logger, withPlugins, new HashSet<>(Arrays.asList(PLUGINS)));
+    }
+
+    /**
+     * The removal rewrites the build scripts so they are restored, without being measured, before each call.
+     */
+    @State(Scope.Benchmark)
+    public static class Restore {
+        @Setup(Level.Invocation)
+        public void restore(PluginUtilsBenchmark benchmark) throws IOException {
+            SyntheticBuild.writeBuildScripts(benchmark.withPlugins, benchmark.modules, true);
+        }
+    }
+}
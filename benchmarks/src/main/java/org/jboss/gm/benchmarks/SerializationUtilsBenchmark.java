@@ -0,0 +1,58 @@
+package org.jboss.gm.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.common.utils.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory (de)serialisation of the manipulation model, including the {@code ProjectVersionRef} (de)serializers,
+ * without the cost of the file system.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SerializationUtilsBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int modules;
+
+    @Param({ "20" })
+    public int dependencies;
+
+    private ManipulationModel model;
+
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticBuild.quietLogging();
+        model = SyntheticBuild.model(modules, dependencies);
+        json = SerializationUtils.getObjectMapper().writeValueAsString(model);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return SerializationUtils.getObjectMapper().writeValueAsString(model);
+    }
+
+    @Benchmark
+    public ManipulationModel deserialize() throws IOException {
+        return SerializationUtils.getObjectMapper().readValue(json, ManipulationModel.class);
+    }
+}
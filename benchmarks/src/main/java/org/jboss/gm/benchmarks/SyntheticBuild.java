@@ -0,0 +1,288 @@
+package org.jboss.gm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.LogLevel;
+import org.jboss.gm.common.logging.FilteringCustomLogger;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.common.versioning.ProjectVersionFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Generates the synthetic inputs of the benchmarks: manipulation models, lock files, build scripts and POMs of
+ * arbitrary size. The same sizes always produce the same content.
+ * <p>
+ * Modules {@code module0} to {@code module9} are children of the root project ; every further module is nested under
+ * one of them (e.g. {@code :module3:module23}) so that both simple and nested project paths are exercised.
+ */
+public final class SyntheticBuild {
+    /**
+     * The group of the generated modules.
+     */
+    public static final String GROUP = "org.bench";
+
+    /**
+     * The version of the generated modules.
+     */
+    public static final String VERSION = "1.0.0";
+
+    private static final String SUFFIX = ".redhat-00001";
+
+    private SyntheticBuild() {
+    }
+
+    /**
+     * Returns the project paths of the given number of modules, root project excluded.
+     *
+     * @param modules the number of modules
+     * @return the project paths
+     */
+    public static List<String> paths(int modules) {
+        final List<String> result = new ArrayList<>(modules);
+
+        for (int i = 0; i < modules; i++) {
+            result.add(i < 10 ? ":module" + i : ":module" + (i % 10) + ":module" + i);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the model of a root project and its modules, each with the given number of aligned dependencies.
+     *
+     * @param modules the number of modules
+     * @param dependencies the number of aligned dependencies of each module
+     * @return the root model
+     */
+    public static ManipulationModel model(int modules, int dependencies) {
+        final Map<String, ProjectVersionRef> aligned = alignedDependencies(dependencies);
+        final ManipulationModel root = module("root", aligned);
+
+        for (int i = 0; i < modules; i++) {
+            final ManipulationModel module = module("module" + i, aligned);
+
+            if (i < 10) {
+                root.addChild(module);
+            } else {
+                root.getChildren().get("module" + (i % 10)).addChild(module);
+            }
+        }
+        return root;
+    }
+
+    private static ManipulationModel module(String name, Map<String, ProjectVersionRef> aligned) {
+        final ManipulationModel module = new ManipulationModel();
+
+        module.setGroup(GROUP);
+        module.setName(name);
+        module.setProjectPathName(name);
+        module.setVersion(VERSION + SUFFIX);
+        module.setOriginalVersion(VERSION);
+        module.getAlignedDependencies().putAll(aligned);
+        return module;
+    }
+
+    /**
+     * Returns the original GAVs of the given number of dependencies.
+     *
+     * @param dependencies the number of dependencies
+     * @return the dependency GAVs
+     */
+    public static List<ProjectVersionRef> dependencies(int dependencies) {
+        final List<ProjectVersionRef> result = new ArrayList<>(dependencies);
+
+        for (int i = 0; i < dependencies; i++) {
+            result.add(ProjectVersionFactory.withGAV("org.dep" + (i % 50), "artifact" + i, "1." + i + ".0"));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the alignment of every second dependency of {@link #dependencies(int)}, keyed by the original GAV as in
+     * {@code manipulation.json}.
+     *
+     * @param dependencies the number of dependencies
+     * @return the aligned dependencies
+     */
+    public static Map<String, ProjectVersionRef> alignedDependencies(int dependencies) {
+        final Map<String, ProjectVersionRef> result = new LinkedHashMap<>();
+        final List<ProjectVersionRef> gavs = dependencies(dependencies);
+
+        for (int i = 0; i < gavs.size(); i += 2) {
+            final ProjectVersionRef dependency = gavs.get(i);
+
+            result.put(dependency.toString(), ProjectVersionFactory.withNewVersion(dependency,
+                    dependency.getVersionString() + SUFFIX));
+        }
+        return result;
+    }
+
+    /**
+     * Writes Gradle 6 style lock files, holding the given number of dependencies, for four configurations.
+     *
+     * @param directory the directory of the lock files
+     * @param dependencies the number of locked dependencies
+     * @throws IOException if an error occurs
+     */
+    public static void writeLockFiles(File directory, int dependencies) throws IOException {
+        final StringBuilder content = new StringBuilder(
+                "# This is a Gradle generated file for dependency locking.\n"
+                        + "# Manual edits can break the build and are not advised.\n"
+                        + "# This file is expected to be part of source control.\n");
+
+        for (ProjectVersionRef dependency : dependencies(dependencies)) {
+            content.append(dependency).append('\n');
+        }
+        for (String configuration : new String[] { "compileClasspath", "runtimeClasspath", "testCompileClasspath",
+                "testRuntimeClasspath" }) {
+            FileUtils.writeStringToFile(new File(directory, configuration + ".lockfile"), content.toString(),
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes the settings and build scripts of a root project and the given number of modules. If requested, each
+     * script applies and configures the {@code com.github.ben-manes.versions} and {@code gradle-enterprise} plugins.
+     *
+     * @param root the root directory
+     * @param modules the number of modules
+     * @param withPlugins whether the scripts use the plugins
+     * @throws IOException if an error occurs
+     */
+    public static void writeBuildScripts(File root, int modules, boolean withPlugins) throws IOException {
+        final StringBuilder settings = new StringBuilder("rootProject.name = 'root'\n");
+
+        writeBuildScript(new File(root, "build.gradle"), withPlugins);
+        for (String path : paths(modules)) {
+            settings.append("include '").append(path).append("'\n");
+            writeBuildScript(new File(root, path.substring(1).replace(':', '/') + "/build.gradle"), withPlugins);
+        }
+        if (withPlugins) {
+            settings.append("plugins {\n    id 'gradle-enterprise' version '3.6.1'\n}\n")
+                    .append("gradleEnterprise {\n    buildScan {\n        publishAlways()\n    }\n}\n");
+        }
+        FileUtils.writeStringToFile(new File(root, "settings.gradle"), settings.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBuildScript(File file, boolean withPlugins) throws IOException {
+        final StringBuilder content = new StringBuilder("plugins {\n    id 'java-library'\n");
+
+        if (withPlugins) {
+            content.append("    id 'com.github.ben-manes.versions' version '0.39.0'\n");
+        }
+        content.append("}\n\ndependencies {\n");
+        for (ProjectVersionRef dependency : dependencies(20)) {
+            content.append("    implementation '").append(dependency).append("'\n");
+        }
+        content.append("}\n");
+        if (withPlugins) {
+            content.append("\ndependencyUpdates {\n    revision = 'release'\n}\n");
+        }
+        Files.createDirectories(file.getParentFile().toPath());
+        FileUtils.writeStringToFile(file, content.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a POM declaring the given number of dependencies.
+     *
+     * @param dependencies the number of dependencies
+     * @return the POM document
+     */
+    public static Document pom(int dependencies) {
+        final Document document;
+
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new ManipulationUncheckedException(e);
+        }
+        final Element project = document.createElement("project");
+        final Element dependenciesElement = document.createElement("dependencies");
+
+        document.appendChild(project);
+        project.appendChild(element(document, "groupId", GROUP));
+        project.appendChild(element(document, "artifactId", "module0"));
+        project.appendChild(element(document, "version", VERSION));
+        project.appendChild(dependenciesElement);
+        for (ProjectVersionRef dependency : dependencies(dependencies)) {
+            final Element element = document.createElement("dependency");
+
+            element.appendChild(element(document, "groupId", dependency.getGroupId()));
+            element.appendChild(element(document, "artifactId", dependency.getArtifactId()));
+            element.appendChild(element(document, "version", dependency.getVersionString()));
+            element.appendChild(element(document, "scope", "compile"));
+            dependenciesElement.appendChild(element);
+        }
+        return document;
+    }
+
+    private static Element element(Document document, String name, String text) {
+        final Element element = document.createElement(name);
+
+        element.setTextContent(text);
+        return element;
+    }
+
+    /**
+     * Creates a minimal {@link Project} which only answers its path and name ; enough for model lookups without the
+     * cost of building thousands of real projects.
+     *
+     * @param path the project path
+     * @return the project
+     */
+    public static Project project(String path) {
+        final String name = path.substring(path.lastIndexOf(':') + 1);
+
+        return (Project) Proxy.newProxyInstance(SyntheticBuild.class.getClassLoader(),
+                new Class<?>[] { Project.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPath":
+                            return path;
+                        case "getName":
+                            return name;
+                        case "toString":
+                            return "project '" + path + "'";
+                        case "hashCode":
+                            return path.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Creates a temporary directory for the inputs of a benchmark.
+     *
+     * @return the directory
+     * @throws IOException if an error occurs
+     */
+    public static File createTempDirectory() throws IOException {
+        return Files.createTempDirectory("gme-benchmark").toFile();
+    }
+
+    /**
+     * Silences the Gradle logging so that the benchmarks measure the code rather than the console.
+     */
+    public static void quietLogging() {
+        FilteringCustomLogger.getContext().setOutputEventListener(event -> {
+        });
+        FilteringCustomLogger.getContext().setLevel(LogLevel.QUIET);
+    }
+}
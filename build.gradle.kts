@@ -206,6 +206,7 @@ subprojects {
     extra["ivyVersion"] = "2.5.0"
     extra["jacksonVersion"] = "2.11.2"
     extra["jgitVersion"] = "6.3.0.202209071007-r"
+    extra["jmhVersion"] = "1.36"
     extra["junitVersion"] = "4.13.1"
     extra["logbackVersion"] = "1.2.9"
     extra["mavenVersion"] = "3.5.0"
@@ -221,6 +222,24 @@ subprojects {
         apply(plugin = "com.diffplug.spotless")
     }
 
+    spotless {
+        java {
+            importOrderFile("$rootDir/ide-config/eclipse.importorder")
+            eclipse().configFile("$rootDir/ide-config/eclipse-format.xml")
+            // The sources generated by the JMH annotation processor of the benchmarks are not ours to format.
+            targetExclude("**/jmh_generated/**")
+        }
+    }
+
+    tasks.withType<JavaCompile>().configureEach {
+        dependsOn("spotlessApply")
+    }
+
+    // The benchmarks are neither shadowed nor published ; see benchmarks/build.gradle.kts
+    if (project.name == "benchmarks") {
+        return@subprojects
+    }
+
     apply(plugin = "com.adarshr.test-logger")
     apply(plugin = "io.freefair.lombok")
 
@@ -439,17 +458,6 @@ subprojects {
         theme = ThemeType.MOCHA
     }
 
-    spotless {
-        java {
-            importOrderFile("$rootDir/ide-config/eclipse.importorder")
-            eclipse().configFile("$rootDir/ide-config/eclipse-format.xml")
-        }
-    }
-
-    tasks.withType<JavaCompile>().configureEach {
-        dependsOn("spotlessApply")
-    }
-
     if (project.name != "cli") {
         // Exclude logback from dependency tree.
         configurations {
@@ -1,9 +1,15 @@
 package org.jboss.gm.cli;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -16,8 +22,14 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,7 +59,9 @@ import org.slf4j.LoggerFactory;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
 import picocli.CommandLine.Unmatched;
 import ch.qos.logback.classic.Level;
 
@@ -63,10 +77,18 @@ public class Main implements Callable<Void> {
 
     private static final GradleVersion MIN_GRADLE_VERSION_GRADLE_ISSUE_3117 = GradleVersion.version("5.3");
 
-    private final GradleConnector connector = GradleConnector.newConnector();
+    private static final String STDIN = "-";
+
+    /**
+     * The connectors by Gradle distribution, so that targets built by the same distribution share its daemons.
+     */
+    private final Map<String, GradleConnector> connectors = new ConcurrentHashMap<>();
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    @Spec
+    private CommandSpec spec;
+
     @SuppressWarnings({ "FieldCanBeLocal", "FieldMayBeFinal" })
     @Option(names = "--no-colour",
             negatable = true,
@@ -91,6 +113,17 @@ public class Main implements Callable<Void> {
     @Option(names = "-l", description = "Location of Gradle installation.")
     private File installation;
 
+    @Option(names = "--batch",
+            description = "File listing the target Gradle directories to process, one per line, or '-' to read them "
+                    + "from standard input. Blank lines and lines starting with '#' are ignored. "
+                    + "Cannot be used with --target.")
+    private String batch;
+
+    @Option(names = "--batch-concurrency",
+            description = "Number of batch targets processed concurrently (default: ${DEFAULT-VALUE}).",
+            defaultValue = "1")
+    private int batchConcurrency;
+
     @Unmatched
     private List<String> gradleArgs;
 
@@ -104,6 +137,14 @@ public class Main implements Callable<Void> {
      * <cli-tool> [-d] [-l <location>]  -t <target>   ...gradle arguments... -Dkey-value
      * }
      *
+     * <p>
+     * or, to process several targets in turn with the same arguments:
+     *
+     * <p>
+     * {@code
+     * <cli-tool> [-d] [-l <location>]  --batch <file|-> [--batch-concurrency <n>]  ...gradle arguments... -Dkey-value
+     * }
+     *
      * @param args Arguments to the process
      * @throws Exception if an error occurs.
      */
@@ -168,32 +209,91 @@ public class Main implements Callable<Void> {
         }
     }
 
-    private void executeGradle(OutputStream out, boolean quiet, List<String> currentGradleArgs) throws ManipulationException {
+    /**
+     * Returns the connector for the Gradle distribution of the target, creating it if required. The connectors are
+     * shared by the targets of a batch.
+     *
+     * @param target the target Gradle directory
+     * @return the connector
+     * @throws ManipulationException if the Gradle installation does not exist
+     */
+    private GradleConnector getConnector(File target) throws ManipulationException {
+        final String distribution;
+
         if (installation != null) {
             if (!installation.exists()) {
                 throw new ManipulationException("Unable to locate Gradle installation at {}", installation);
             }
-            connector.useInstallation(installation);
+            distribution = installation.getAbsolutePath();
         } else {
-            connector.useBuildDistribution();
+            distribution = getWrapperDistribution(target);
+        }
+        return connectors.computeIfAbsent(distribution, d -> {
+            final GradleConnector connector = GradleConnector.newConnector();
+
+            if (installation != null) {
+                connector.useInstallation(installation);
+            } else {
+                connector.useBuildDistribution();
+            }
+            if (connector instanceof DefaultGradleConnector) {
+                DefaultGradleConnector dgc = ((DefaultGradleConnector) connector);
+
+                // Set the timeout to a low value (default is 3 minutes) so that it expires quickly ; in batch mode
+                // keep the default so that the daemon is reused by the following targets.
+                if (batch == null) {
+                    dgc.daemonMaxIdleTime(10, TimeUnit.SECONDS);
+                }
+            }
+            return connector;
+        });
+    }
+
+    /**
+     * Returns the distribution URL of the Gradle wrapper of the target, or an empty string if it has no wrapper.
+     */
+    private String getWrapperDistribution(File target) throws ManipulationException {
+        final File wrapper = new File(target, "gradle/wrapper/gradle-wrapper.properties");
+        final Properties properties = new Properties();
+
+        if (!wrapper.exists()) {
+            return "";
+        }
+        try (Reader reader = Files.newBufferedReader(wrapper.toPath(), StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to read {}", wrapper, e);
         }
-        // Set the timeout to a low value (default is 3 minutes) so that it expires quickly.
-        if (connector instanceof DefaultGradleConnector) {
-            DefaultGradleConnector dgc = ((DefaultGradleConnector) connector);
-            dgc.daemonMaxIdleTime(10, TimeUnit.SECONDS);
-
-            if (quiet) {
-                currentGradleArgs.add("--quiet");
-            } else if (trace) {
-                dgc.setVerboseLogging(true);
-            } else if (debug) {
-                // If debug has been enabled in the CLI propagate that through as info (we have customised logging).
-                // Insert it at the start to allow overrides (e.g. for debugging)
-                currentGradleArgs.add(0, "--info");
+        return properties.getProperty("distributionUrl", "");
+    }
+
+    /**
+     * Connects to the target. As the project directory and logging are properties of the shared connector the
+     * connection is created while holding its lock.
+     */
+    private ProjectConnection connect(File target, boolean quiet) throws ManipulationException {
+        final GradleConnector connector = getConnector(target);
+
+        synchronized (connector) {
+            connector.forProjectDirectory(target);
+            if (connector instanceof DefaultGradleConnector) {
+                ((DefaultGradleConnector) connector).setVerboseLogging(!quiet && trace);
             }
+            return connector.connect();
+        }
+    }
+
+    private void executeGradle(File target, OutputStream out, boolean quiet, List<String> currentGradleArgs)
+            throws ManipulationException {
+        if (quiet) {
+            currentGradleArgs.add("--quiet");
+        } else if (!trace && debug) {
+            // If debug has been enabled in the CLI propagate that through as info (we have customised logging).
+            // Insert it at the start to allow overrides (e.g. for debugging)
+            currentGradleArgs.add(0, "--info");
         }
 
-        try (ProjectConnection connection = connector.connect()) {
+        try (ProjectConnection connection = connect(target, quiet)) {
             BuildEnvironment buildEnvironment = connection.getModel(BuildEnvironment.class);
             GradleEnvironment gradleEnvironment = buildEnvironment.getGradle();
             String versionString = gradleEnvironment.getGradleVersion();
@@ -206,7 +306,8 @@ public class Main implements Callable<Void> {
                 logger.info("Java home overridden to: {}", javaHome.getAbsolutePath());
             }
 
-            envVars.put("JAVA_HOME", javaHome.getAbsolutePath());
+            final Map<String, String> environment = new HashMap<>(envVars);
+            environment.put("JAVA_HOME", javaHome.getAbsolutePath());
 
             BuildLauncher build = connection.newBuild();
             Set<String> jvmArgs = jvmPropertyParams.entrySet().stream()
@@ -225,17 +326,18 @@ public class Main implements Callable<Void> {
                     ManifestUtils.getManifestInformation(Main.class), target, jvmArgs, currentGradleArgs);
 
             if (logger.isDebugEnabled()) {
-                logger.debug("Environment variables: {}", envVars.keySet().stream().sorted().collect(Collectors.toList()));
+                logger.debug("Environment variables: {}",
+                        environment.keySet().stream().sorted().collect(Collectors.toList()));
             }
 
             if (gradleVersion.compareTo(MIN_GRADLE_VERSION_GRADLE_ISSUE_3117) < 0) {
-                if (envVars.values().stream().anyMatch(s -> !s.chars().allMatch(c -> c < 128))) {
+                if (environment.values().stream().anyMatch(s -> !s.chars().allMatch(c -> c < 128))) {
                     logger.error(
                             "Non-ASCII characters detected in environment. If build fails, try setting environment variable LC_ALL=en_US. See https://github.com/gradle/gradle/issues/3117.");
                 }
             }
 
-            build.setEnvironmentVariables(envVars);
+            build.setEnvironmentVariables(environment);
             build.setJvmArguments(jvmArgs);
             build.withArguments(currentGradleArgs);
             build.setStandardOutput(out);
@@ -289,16 +391,6 @@ public class Main implements Callable<Void> {
             ((ch.qos.logback.classic.Logger) rootLogger).setLevel(Level.DEBUG);
         }
 
-        if (!target.isAbsolute()) {
-            target = new File(Paths.get("").toAbsolutePath().toFile(), target.toString());
-            logger.debug("Relative path detected ; resetting to {}", target);
-        }
-        if (!target.exists()) {
-            throw new ManipulationException("Unable to locate target directory {}", target);
-        } else if (!target.isDirectory()) {
-            throw new ManipulationException("Pass project root as directory not file : {}", target);
-        }
-
         if (!jvmPropertyParams.isEmpty()) {
             // By passing the command line into the configuration object have a standard place to retrieve
             // the configuration which makes the underlying code simpler.
@@ -310,14 +402,44 @@ public class Main implements Callable<Void> {
             }
         }
 
-        connector.forProjectDirectory(target);
+        if (batch != null) {
+            if (spec.commandLine().getParseResult().hasMatchedOption("-t")) {
+                throw new ManipulationException("Options --batch and --target are mutually exclusive");
+            }
+            runBatch(configuration);
+        } else {
+            processTarget(configuration, target, System.out);
+        }
+
+        return null;
+    }
+
+    /**
+     * Runs the Groovy scripts and then Gradle on a target.
+     *
+     * @param configuration the current configuration
+     * @param target the target Gradle directory
+     * @param out the stream for the output of Gradle
+     * @throws ManipulationException if an error occurs
+     */
+    private void processTarget(Configuration configuration, File target, OutputStream out)
+            throws ManipulationException {
+        if (!target.isAbsolute()) {
+            target = new File(Paths.get("").toAbsolutePath().toFile(), target.toString());
+            logger.debug("Relative path detected ; resetting to {}", target);
+        }
+        if (!target.exists()) {
+            throw new ManipulationException("Unable to locate target directory {}", target);
+        } else if (!target.isDirectory()) {
+            throw new ManipulationException("Pass project root as directory not file : {}", target);
+        }
 
         if (PluginUtils.checkForSemanticBuildVersioning(logger, target)) {
             org.apache.commons.io.output.ByteArrayOutputStream stdout = new org.apache.commons.io.output.ByteArrayOutputStream();
             List<String> versionQuery = new ArrayList<>();
             versionQuery.add("--console=plain");
             versionQuery.add("printVersion");
-            executeGradle(stdout, true, versionQuery);
+            executeGradle(target, stdout, true, versionQuery);
             try {
                 String projectVersion = stdout.toString(Charset.defaultCharset()).trim();
 
@@ -349,10 +471,151 @@ public class Main implements Callable<Void> {
             logger.info("Gradle Manipulator disabled");
         } else {
             logger.debug("Executing Gradle");
-            executeGradle(System.out, false, gradleArgs);
+            executeGradle(target, out, false,
+                    gradleArgs == null ? new ArrayList<>() : new ArrayList<>(gradleArgs));
         }
+    }
 
-        return null;
+    /**
+     * Runs each target of the batch, with at most {@link #batchConcurrency} at a time, and logs a summary of the
+     * results. With a concurrency above one the Gradle output of each target is buffered and written once it
+     * completes so that the output of the targets is not interleaved.
+     *
+     * @param configuration the current configuration
+     * @throws ManipulationException if the batch cannot be read or any of the targets failed
+     */
+    private void runBatch(Configuration configuration) throws ManipulationException {
+        final List<File> targets = readBatch();
+        final int concurrency = Math.max(1, Math.min(batchConcurrency, targets.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        final List<Future<BatchResult>> futures = new ArrayList<>(targets.size());
+        final List<BatchResult> results = new ArrayList<>(targets.size());
+
+        logger.info("Processing {} targets with a concurrency of {}", targets.size(), concurrency);
+        try {
+            for (File batchTarget : targets) {
+                futures.add(executor.submit(() -> runBatchTarget(configuration, batchTarget, concurrency > 1)));
+            }
+            for (Future<BatchResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException("Interrupted processing batch", e);
+        } catch (ExecutionException e) {
+            throw new ManipulationException("Problem processing batch", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            disconnect();
+        }
+
+        final long failed = results.stream().filter(BatchResult::isFailed).count();
+
+        logger.info("Batch summary ({} targets, {} failed):", results.size(), failed);
+        logger.info(String.format("  %-7s %10s  %s", "RESULT", "TIME", "TARGET"));
+        for (BatchResult result : results) {
+            logger.info(result.toString());
+        }
+        if (failed > 0) {
+            throw new ManipulationException("{} of {} batch targets failed", failed, results.size());
+        }
+    }
+
+    private BatchResult runBatchTarget(Configuration configuration, File batchTarget, boolean buffered) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final long start = System.nanoTime();
+        Exception failure = null;
+
+        logger.info("Processing target {}", batchTarget);
+        try {
+            processTarget(configuration, batchTarget, buffered ? buffer : System.out);
+        } catch (ManipulationException | RuntimeException e) {
+            logger.error("Problem processing target {}", batchTarget, e);
+            failure = e;
+        } finally {
+            if (buffered) {
+                synchronized (System.out) {
+                    System.out.println("Output of " + batchTarget + ':');
+                    System.out.print(buffer.toString());
+                    System.out.flush();
+                }
+            }
+        }
+        return new BatchResult(batchTarget, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failure);
+    }
+
+    /**
+     * Stops the daemons started by the connectors of the batch, as unlike a single target they are kept running with
+     * the default idle timeout. Older versions of the Tooling API only allow all connectors to be closed at once.
+     */
+    private void disconnect() {
+        boolean closeAll = false;
+
+        for (GradleConnector connector : connectors.values()) {
+            try {
+                connector.getClass().getMethod("disconnect").invoke(connector);
+            } catch (NoSuchMethodException e) {
+                closeAll = true;
+            } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+                logger.warn("Unable to disconnect from Gradle", e);
+            }
+        }
+        if (closeAll) {
+            DefaultGradleConnector.close();
+        }
+        connectors.clear();
+    }
+
+    /**
+     * Reads the targets of the batch, ignoring blank lines and comments.
+     *
+     * @return the targets
+     * @throws ManipulationException if the batch cannot be read or is empty
+     */
+    private List<File> readBatch() throws ManipulationException {
+        final List<File> targets = new ArrayList<>();
+
+        try (InputStream in = STDIN.equals(batch) ? System.in : Files.newInputStream(Paths.get(batch));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    targets.add(new File(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to read batch {}", batch, e);
+        }
+        if (targets.isEmpty()) {
+            throw new ManipulationException("No targets found in batch {}", batch);
+        }
+        return targets;
+    }
+
+    private static class BatchResult {
+
+        private final File target;
+
+        private final long millis;
+
+        private final Exception failure;
+
+        private BatchResult(File target, long millis, Exception failure) {
+            this.target = target;
+            this.millis = millis;
+            this.failure = failure;
+        }
+
+        private boolean isFailed() {
+            return failure != null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("  %-7s %9.3fs  %s%s", isFailed() ? "FAILED" : "SUCCESS", millis / 1000.0, target,
+                    isFailed() ? " : " + failure.getMessage() : "");
+        }
     }
 
     private static class ExceptionHandler implements CommandLine.IExecutionExceptionHandler {
@@ -6,8 +6,10 @@ import java.io.IOException;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 import org.aeonbits.owner.ConfigCache;
 import org.apache.commons.io.FileUtils;
@@ -340,6 +342,46 @@ public class MainTest {
         }
     }
 
+    @Test
+    public void testBatch() throws Exception {
+        final File projectRoot = new File(MainTest.class.getClassLoader().getResource("build.gradle").getPath());
+        final File missing = new File(tempDir.getRoot(), UUID.randomUUID().toString());
+        final File batch = tempDir.newFile();
+        FileUtils.writeLines(batch, Arrays.asList("# Targets", projectRoot.getParentFile().getAbsolutePath(), "",
+                missing.getAbsolutePath()));
+
+        Main m = new Main();
+        String[] args = new String[] { "--batch", batch.getAbsolutePath(), "--batch-concurrency", "2", "help" };
+        try {
+            m.run(args);
+            fail("No exception thrown");
+        } catch (Exception e) {
+            assertThat(e.getMessage()).contains("1 of 2 batch targets failed");
+        }
+
+        assertThat(systemOutRule.getLog()).contains("Processing 2 targets with a concurrency of 2")
+                .contains("Welcome to Gradle")
+                .contains("Batch summary (2 targets, 1 failed)")
+                .containsPattern("SUCCESS +[0-9.]+s  " + Pattern.quote(projectRoot.getParentFile().getAbsolutePath()))
+                .containsPattern("FAILED +[0-9.]+s  " + Pattern.quote(missing.getAbsolutePath())
+                        + " : Unable to locate target directory");
+    }
+
+    @Test
+    public void testBatchWithTarget() throws Exception {
+        final File batch = tempDir.newFile();
+
+        Main m = new Main();
+        String[] args = new String[] { "--batch", batch.getAbsolutePath(), "-t", tempDir.getRoot().getAbsolutePath(),
+                "help" };
+        try {
+            m.run(args);
+            fail("No exception thrown");
+        } catch (Exception e) {
+            assertThat(e.getMessage()).contains("Options --batch and --target are mutually exclusive");
+        }
+    }
+
     @Test
     public void testSetEnvironmentVariables() throws Exception {
         final File projectRoot = new File(MainTest.class.getClassLoader().getResource("build.gradle").getPath());
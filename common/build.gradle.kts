@@ -34,6 +34,7 @@ dependencies {
 
     testFixturesCompile("org.codehaus.plexus:plexus-archiver:4.2.3")
     testFixturesCompile("org.assertj:assertj-core:${project.extra.get("assertjVersion")}")
+    testFixturesCompile("com.github.tomakehurst:wiremock-jre8:2.26.3")
     testImplementation("junit:junit:${project.extra.get("junitVersion")}")
     testImplementation("com.github.stefanbirkner:system-rules:${project.extra.get("systemRulesVersion")}")
     testImplementation(gradleApi())
@@ -242,6 +242,194 @@ public interface Configuration extends Accessible, Reloadable {
     @DefaultValue("false")
     boolean restBrewPullActive();
 
+    /**
+     * The maximum number of concurrent requests to the Dependency Analyzer. If greater than one, the dependency GAVs
+     * are looked up in concurrent chunks and the project GAVs are looked up alongside them.
+     * <p>
+     * Default value: 1
+     *
+     * @return the maximum number of concurrent REST requests
+     */
+    @Key("restConcurrency")
+    @DefaultValue("1")
+    int restConcurrency();
+
+    /**
+     * Whether answers of the Dependency Analyzer for dependency GAVs are cached on disk across builds. Only cache
+     * misses are sent to the server. Project version lookups are never cached as they depend upon the current server
+     * state.
+     * <p>
+     * Default value: false
+     *
+     * @return whether the REST lookup cache is enabled
+     */
+    @Key("restCache")
+    @DefaultValue("false")
+    boolean restCache();
+
+    /**
+     * The directory holding the REST lookup cache. If empty, {@code ~/.gradle/caches/gme} is used.
+     * <p>
+     * Default value: empty string
+     *
+     * @return the REST lookup cache directory
+     */
+    @Key("restCacheDirectory")
+    @DefaultValue("")
+    String restCacheDirectory();
+
+    /**
+     * The time to live, in seconds, of an entry in the REST lookup cache. A value of zero or less never expires
+     * entries.
+     * <p>
+     * Default value: 86400 (one day)
+     *
+     * @return the time to live of a cached answer
+     */
+    @Key("restCacheTtl")
+    @DefaultValue("86400")
+    long restCacheTtl();
+
+    /**
+     * The time to live, in seconds, of a negative answer (a GAV the Dependency Analyzer has no aligned version for) in
+     * the REST lookup cache. This is shorter than {@link #restCacheTtl()} as an aligned version may become available
+     * at any time. A value of zero or less never expires negative answers.
+     * <p>
+     * Default value: 3600 (one hour)
+     *
+     * @return the time to live of a cached negative answer
+     */
+    @Key("restCacheNegativeTtl")
+    @DefaultValue("3600")
+    long restCacheNegativeTtl();
+
+    /**
+     * The maximum number of entries retained in the REST lookup cache; the least recently used entries are evicted.
+     * <p>
+     * Default value: 100000
+     *
+     * @return the maximum number of cached answers
+     */
+    @Key("restCacheMaxEntries")
+    @DefaultValue("100000")
+    int restCacheMaxEntries();
+
+    /**
+     * Whether to ignore any existing entries of the REST lookup cache, querying all GAVs and replacing the cached
+     * answers.
+     * <p>
+     * Default value: false
+     *
+     * @return whether the REST lookup cache is refreshed
+     */
+    @Key("restCacheRefresh")
+    @DefaultValue("false")
+    boolean restCacheRefresh();
+
+    /**
+     * Whether a compact binary encoding of the manipulation model is written next to {@code manipulation.json}. The
+     * manipulation plugin prefers it to the JSON file as long as it matches the JSON file's checksum.
+     * <p>
+     * Default value: false
+     *
+     * @return whether the binary manipulation model sidecar is written
+     */
+    @Key("manipulationSidecar")
+    @DefaultValue("false")
+    boolean manipulationSidecar();
+
+    /**
+     * Whether alignment is incremental. If enabled, the aligned dependencies of the previous manipulation file that
+     * the Dependency Analyzer answered with the same configuration, within {@link #incrementalAlignmentTtl()}, are
+     * reused and only the remaining dependency GAVs are passed to the Dependency Analyzer. Disabling it for a run
+     * refreshes all the answers.
+     * <p>
+     * Default value: false
+     *
+     * @return whether incremental alignment is enabled
+     */
+    @Key("incrementalAlignment")
+    @DefaultValue("false")
+    boolean incrementalAlignment();
+
+    /**
+     * The time, in seconds, for which an answer of the Dependency Analyzer is reused by incremental alignment. Once
+     * expired the GAV is looked up again so that newer builds are picked up. A value of zero or less never expires
+     * answers.
+     * <p>
+     * Default value: 86400 (one day)
+     *
+     * @return the time to live of a reused answer
+     */
+    @Key("incrementalAlignmentTtl")
+    @DefaultValue("86400")
+    long incrementalAlignmentTtl();
+
+    /**
+     * Whether the per-project dependency collection of the analyzer may be skipped by Gradle when its inputs (build
+     * scripts, lock files, {@code gradle.properties}, the previous manipulation file and this configuration) are
+     * unchanged, reusing the collection written to {@code build/gme} (or the build cache). Inputs that Gradle cannot
+     * see, such as scripts applied from outside the project directory, are not tracked, hence this is opt-in.
+     * <p>
+     * Default value: false
+     *
+     * @return whether dependency collection results may be reused
+     */
+    @Key("alignmentCaching")
+    @DefaultValue("false")
+    boolean alignmentCaching();
+
+    /**
+     * Whether the resolved graphs of the configurations of a project are walked concurrently during alignment. The
+     * configurations themselves are always resolved serially, as Gradle does not allow resolution from threads that it
+     * does not manage. The collected dependencies are still merged in configuration order so the result is identical
+     * to serial processing.
+     * <p>
+     * Default value: false
+     *
+     * @return whether parallel processing of resolved configurations is enabled
+     */
+    @Key("parallelResolution")
+    @DefaultValue("false")
+    boolean parallelResolution();
+
+    /**
+     * The maximum number of processing threads used when {@link #parallelResolution()} is enabled. A value of zero or
+     * less uses the number of available processors.
+     * <p>
+     * Default value: 0
+     *
+     * @return the maximum number of processing threads
+     */
+    @Key("parallelResolutionThreads")
+    @DefaultValue("0")
+    int parallelResolutionThreads();
+
+    /**
+     * Whether configurations of a project that declare identical dependencies, constraints, attributes and
+     * repositories share a single resolution rather than each being resolved separately.
+     * <p>
+     * Default value: false
+     *
+     * @return whether resolution deduplication is enabled
+     */
+    @Key("resolutionDeduplication")
+    @DefaultValue("false")
+    boolean resolutionDeduplication();
+
+    /**
+     * The file, relative to the root project, to which the OpenTelemetry spans of the alignment are written as JSON.
+     * If set, spans are collected by an in-process, in-memory exporter rather than exported to
+     * {@code OTEL_EXPORTER_OTLP_ENDPOINT}, so that the instrumentation may be verified without a collector.
+     * <p>
+     * Default value: empty string
+     *
+     * @return the span file
+     */
+    @Key("otelSpanFile")
+    @DefaultValue("")
+    String otelSpanFile();
+
     class DependencyConverter implements Converter<DependencyPrecedence> {
         /**
          * Converts the given input into an Object of type T.
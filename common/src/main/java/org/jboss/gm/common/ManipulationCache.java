@@ -1,14 +1,10 @@
 package org.jboss.gm.common;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -27,6 +23,14 @@ import org.jboss.gm.common.versioning.RelaxedProjectVersionRef;
 
 /**
  * Cache that is stored in the root project extensions.
+ * <p>
+ * The alignment tasks of the projects may run concurrently (e.g. with {@code --parallel}) so the cache is thread-safe.
+ * Projects and their GAVs are held in project order (the root project first) rather than task execution order so that
+ * the results do not depend on scheduling.
+ * <p>
+ * The cache does not track which projects remain to be scanned. The alignment is performed by the single aggregate
+ * task of the root project, which Gradle only runs once the collection tasks of all projects have completed, so no
+ * collection task needs to be elected to finish the alignment.
  */
 public class ManipulationCache {
 
@@ -40,22 +44,18 @@ public class ManipulationCache {
     @Getter
     private final Project rootProject;
 
-    /**
-     * Will be built up to contain all the projects that need alignment. The same reference is passed to each task
-     * and is used to make sure that the result of alignment is only written once (by the last alignment task to be
-     * performed).
-     */
-    private final Set<String> projectCounter = Collections.synchronizedSet(new HashSet<>());
-
     /**
      * Root model.
      *
      * @return the root model
      */
     @Getter
-    private ManipulationModel model;
+    private volatile ManipulationModel model;
 
-    private final List<ProjectVersionRef> projectVersionRefs = new ArrayList<>();
+    /**
+     * The project GAVs keyed by project path ; {@code :} (the root project) sorts first.
+     */
+    private final Map<String, ProjectVersionRef> projectVersionRefs = new ConcurrentSkipListMap<>();
 
     /**
      * This is the project dependencies - it represents a mapping of project module to a map of the original Dependency
@@ -64,14 +64,15 @@ public class ManipulationCache {
      * @return the project dependencies
      */
     @Getter
-    private final Map<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>> dependencies = new LinkedHashMap<>();
+    private final Map<Project, Map<RelaxedProjectVersionRef, ProjectVersionRef>> dependencies =
+            new ConcurrentSkipListMap<>();
 
     @Getter
-    private final Map<ArtifactRepository, Path> repositories = new HashMap<>();
+    private final Map<ArtifactRepository, Path> repositories = new ConcurrentHashMap<>();
 
     @Getter
     @Setter
-    private DokkaVersion dokkaVersion = DokkaVersion.NONE;
+    private volatile DokkaVersion dokkaVersion = DokkaVersion.NONE;
 
     /**
      * Retrieves the cache given any project. It will access the root project, check if the
@@ -96,7 +97,7 @@ public class ManipulationCache {
      * @param project the {@link Project} reference.
      * @return the ManipulationCache object.
      */
-    public static ManipulationCache getCache(Project project) {
+    public static synchronized ManipulationCache getCache(Project project) {
         if (project == null) {
             throw new ManipulationUncheckedException("Null project");
         }
@@ -115,26 +116,6 @@ public class ManipulationCache {
         this.rootProject = rootProject;
     }
 
-    /**
-     * Used to track the number of projects/subprojects.
-     *
-     * @param project the project
-     */
-    public void addProject(Project project) {
-        projectCounter.add(project.getPath());
-    }
-
-    /**
-     * Tracking projects - remove the project when it is evaluated.
-     *
-     * @param project the project
-     * @return true if all projects are now handled.
-     */
-    public boolean removeProject(Project project) {
-        projectCounter.remove(project.getPath());
-        return projectCounter.isEmpty();
-    }
-
     public void addDependencies(Project project, Map<RelaxedProjectVersionRef, ProjectVersionRef> deps) {
         dependencies.put(project, deps);
     }
@@ -151,7 +132,7 @@ public class ManipulationCache {
         if (project != null && model != null) {
             model.findCorrespondingChild(project).setGroup(ProjectUtils.getRealGroupId(project));
         }
-        this.projectVersionRefs.add(gav);
+        this.projectVersionRefs.put(project == null ? gav.toString() : project.getPath(), gav);
     }
 
     @Override
@@ -164,14 +145,10 @@ public class ManipulationCache {
     }
 
     public List<ProjectVersionRef> getProjectVersionRefs(boolean versionSuffixSnapshot) {
-        return projectVersionRefs.stream()
+        return projectVersionRefs.values().stream()
                 .map(e -> !versionSuffixSnapshot
                         ? new SimpleProjectVersionRef(e.asProjectRef(), Version.removeSnapshot(e.getVersionString()))
                         : e)
                 .collect(Collectors.toList());
     }
-
-    public String getProjectCounterRemaining() {
-        return projectCounter.toString();
-    }
 }
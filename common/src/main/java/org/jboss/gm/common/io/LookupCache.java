@@ -0,0 +1,285 @@
+package org.jboss.gm.common.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.logging.GMLogger;
+
+/**
+ * A size bounded, file backed, cache of lookup answers (e.g. the aligned version of a GAV as returned by the
+ * Dependency Analyzer). The answers of a single namespace (for instance the combination of REST URL, REST mode and
+ * dependency source) are stored in one file; a file written for a different namespace is ignored.
+ * <p>
+ * Each entry expires once it is older than the configured time to live. Negative answers (a lookup that returned
+ * nothing) are cached as well, with their own, usually shorter, time to live as the answer may appear at any time.
+ * When the cache is saved it is trimmed to its maximum size by evicting the least recently used entries; the file is
+ * written in access order so that the recency information survives across builds, including builds that only read
+ * from the cache.
+ * <p>
+ * The file format is line based: a header line (holding a digest of the namespace) followed by one
+ * {@code created<TAB>key<TAB>value} line per entry, where an empty value represents a negative answer.
+ */
+public class LookupCache {
+    private static final String HEADER = "# gme-lookup-cache 1 ";
+
+    private static final char SEPARATOR = '\t';
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    private final Path file;
+
+    private final String namespace;
+
+    private final long timeToLive;
+
+    private final long negativeTimeToLive;
+
+    private final int maxEntries;
+
+    /**
+     * Entries in access order: the eldest entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * The number of lookups answered by the cache.
+     *
+     * @return the number of cache hits
+     */
+    @Getter
+    private int hits;
+
+    /**
+     * The number of lookups that were not in the cache (or had expired).
+     *
+     * @return the number of cache misses
+     */
+    @Getter
+    private int misses;
+
+    private boolean modified;
+
+    /**
+     * A cached answer.
+     */
+    @Getter
+    public static final class Entry {
+        /**
+         * The time the answer was obtained, in milliseconds since the epoch.
+         *
+         * @return the creation time
+         */
+        private final long created;
+
+        /**
+         * The cached answer, or null if the lookup returned nothing.
+         *
+         * @return the answer
+         */
+        private final String value;
+
+        private Entry(long created, String value) {
+            this.created = created;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Creates a cache. Existing entries are loaded from the file unless {@code refresh} is set, in which case the
+     * cache starts empty and the file is overwritten when {@link #save() saved}.
+     *
+     * @param file the file that holds the cache
+     * @param namespace the namespace of the answers (e.g. the REST URL and mode)
+     * @param timeToLive the time to live of an entry, in milliseconds. A value of zero or less never expires entries
+     * @param negativeTimeToLive the time to live of a negative answer, in milliseconds. A value of zero or less never
+     *        expires negative answers
+     * @param maxEntries the maximum number of entries to retain
+     * @param refresh whether to ignore any existing entries
+     */
+    public LookupCache(Path file, String namespace, long timeToLive, long negativeTimeToLive, int maxEntries,
+            boolean refresh) {
+        this.file = file;
+        this.namespace = digest(namespace);
+        this.timeToLive = timeToLive;
+        this.negativeTimeToLive = negativeTimeToLive;
+        this.maxEntries = maxEntries;
+
+        if (refresh) {
+            logger.info("Refreshing lookup cache {}", file);
+            modified = true;
+        } else {
+            load();
+        }
+    }
+
+    /**
+     * Returns the file, within the given directory, that holds the cache of the given namespace. This allows several
+     * namespaces to share a directory.
+     *
+     * @param directory the directory that holds the cache files
+     * @param namespace the namespace of the answers
+     * @return the cache file
+     */
+    public static Path fileFor(Path directory, String namespace) {
+        return directory.resolve(digest(namespace) + ".cache");
+    }
+
+    /**
+     * Returns the cached answer for the key, recording a hit or a miss. A hit makes the entry the most recently used
+     * one, so the cache needs saving even if nothing was added.
+     *
+     * @param key the key
+     * @return the entry, or null if the key is not cached or has expired
+     */
+    public synchronized Entry get(String key) {
+        final Entry entry = entries.get(key);
+
+        if (entry == null || isExpired(entry, System.currentTimeMillis())) {
+            misses++;
+            return null;
+        }
+        hits++;
+        modified = true;
+        return entry;
+    }
+
+    /**
+     * Caches an answer.
+     *
+     * @param key the key
+     * @param value the answer, or null to record that the lookup returned nothing
+     */
+    public synchronized void put(String key, String value) {
+        entries.put(key, new Entry(System.currentTimeMillis(), value));
+        modified = true;
+    }
+
+    /**
+     * Removes all entries whose key is not in the given collection.
+     *
+     * @param keys the keys to retain
+     */
+    public synchronized void retainAll(Collection<String> keys) {
+        if (entries.keySet().retainAll(keys)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns the number of entries currently held.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache to disk if it has changed. Expired entries are dropped and the least recently used entries are
+     * evicted if the cache exceeds its maximum size.
+     *
+     * @throws IOException if an error occurs
+     */
+    public synchronized void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> isExpired(e, now));
+
+        int evict = entries.size() - maxEntries;
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (evict-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        Files.createDirectories(file.getParent());
+        final Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write(namespace);
+                writer.newLine();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    writer.write(Long.toString(e.getValue().created));
+                    writer.write(SEPARATOR);
+                    writer.write(e.getKey());
+                    writer.write(SEPARATOR);
+                    if (e.getValue().value != null) {
+                        writer.write(e.getValue().value);
+                    }
+                    writer.newLine();
+                }
+            }
+            // Another build may be writing the same cache ; the last one to finish wins.
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        modified = false;
+        logger.debug("Wrote {} entries to lookup cache {}", entries.size(), file);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        final long ttl = entry.value == null ? negativeTimeToLive : timeToLive;
+        return ttl > 0 && now - entry.created > ttl;
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final String header = reader.readLine();
+
+            if (!(HEADER + namespace).equals(header)) {
+                logger.warn("Ignoring lookup cache {} as it was written for a different configuration", file);
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int first = line.indexOf(SEPARATOR);
+                final int second = line.indexOf(SEPARATOR, first + 1);
+
+                if (first <= 0 || second < 0) {
+                    continue;
+                }
+                final String value = line.substring(second + 1);
+                entries.put(line.substring(first + 1, second),
+                        new Entry(Long.parseLong(line.substring(0, first)), value.isEmpty() ? null : value));
+            }
+            logger.info("Loaded {} entries from lookup cache {}", entries.size(), file);
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable lookup cache {} ({})", file, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static String digest(String value) {
+        try {
+            final StringBuilder result = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ManipulationUncheckedException(e);
+        }
+    }
+}
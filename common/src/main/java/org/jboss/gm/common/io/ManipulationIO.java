@@ -5,20 +5,27 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.jboss.gm.common.model.ManipulationModel;
 import org.jboss.gm.common.utils.SerializationUtils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 public final class ManipulationIO {
     public static final String MANIPULATION_FILE_NAME = "manipulation.json";
 
+    private static final String CHILDREN = "children";
+
     private ManipulationIO() {
     }
 
     /**
      * This is meant to be called from as part of a Gradle task that is executed for each project/subproject of the
-     * build. It assumes that a task for various projects is never called in parallel.
+     * build. The tasks may run in parallel ; prefer {@link ManipulationModelIndex} which parses the file once.
      *
      * @param rootDir the root directory
      * @return a valid manipulation model
@@ -33,6 +40,58 @@ public final class ManipulationIO {
         }
     }
 
+    /**
+     * Reads the model of a single module, and its children, without materialising the other modules. The file is
+     * streamed and the subtrees of the modules that are not on the given path are skipped.
+     *
+     * @param rootDir the root directory
+     * @param path the Gradle project path of the module, e.g. {@code :} for the root or {@code :child1:child11}
+     * @return the model of the module
+     */
+    public static ManipulationModel readManipulationModel(File rootDir, String path) {
+        final ObjectMapper mapper = SerializationUtils.getObjectMapper();
+
+        try (JsonParser parser = mapper.getFactory().createParser(new File(rootDir, MANIPULATION_FILE_NAME))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ManipulationUncheckedException("Unable to deserialize {} as it does not hold an object",
+                        MANIPULATION_FILE_NAME);
+            }
+            for (String name : StringUtils.split(path, ':')) {
+                if (!seekChild(parser, name)) {
+                    throw new ManipulationUncheckedException("ManipulationModel '{}' does not exist", path);
+                }
+            }
+            return mapper.readValue(parser, ManipulationModel.class);
+        } catch (IOException e) {
+            throw new ManipulationUncheckedException("Unable to deserialize {}", MANIPULATION_FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Advances the parser from the start of a module to the start of its child with the given name, skipping every
+     * other value on the way.
+     */
+    private static boolean seekChild(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+
+            if (parser.nextToken() == JsonToken.START_OBJECT && CHILDREN.equals(field)) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String child = parser.getCurrentName();
+
+                    parser.nextToken();
+                    if (child.equals(name)) {
+                        return true;
+                    }
+                    parser.skipChildren();
+                }
+                return false;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
     /**
      * Write the model to disk - override any existing file that might exist.
      *
@@ -0,0 +1,123 @@
+package org.jboss.gm.common.io;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.model.ManipulationModel;
+
+/**
+ * The previously written {@link ManipulationModel}, parsed once per build and indexed by project path. It is stored in
+ * the root project extensions (like {@link org.jboss.gm.common.ManipulationCache}) so that every project of the build
+ * shares it instead of parsing the whole file again.
+ * <p>
+ * The index itself is immutable ; the models it holds are shared and must not be modified. The file is parsed again
+ * if it has been rewritten since it was indexed. If a current {@link ManipulationSidecarIO binary sidecar} exists it
+ * is loaded instead of the JSON file.
+ */
+public final class ManipulationModelIndex {
+
+    private static final String NAME_PREFIX = "manipulationModelIndex";
+
+    private static final Logger logger = GMLogger.getLogger(ManipulationModelIndex.class);
+
+    /**
+     * The root model.
+     *
+     * @return the root model
+     */
+    @Getter
+    private final ManipulationModel root;
+
+    private final Map<String, ManipulationModel> modules;
+
+    private final long lastModified;
+
+    private final long length;
+
+    private ManipulationModelIndex(File file) {
+        final long start = System.currentTimeMillis();
+
+        this.lastModified = file.lastModified();
+        this.length = file.length();
+
+        final ManipulationModel sidecar = ManipulationSidecarIO.readManipulationSidecar(file.getParentFile());
+        this.root = sidecar == null ? ManipulationIO.readManipulationModel(file.getParentFile()) : sidecar;
+
+        final Map<String, ManipulationModel> result = new HashMap<>();
+        index(":", root, result);
+        this.modules = Collections.unmodifiableMap(result);
+
+        logger.info("Indexed {} modules of {} ({} bytes) in {} ms", modules.size(), file, length,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Retrieves the index given any project. It will access the root project, check if the index exists and is
+     * current, and create it if required.
+     *
+     * @param project the {@link Project} reference.
+     * @return the ManipulationModelIndex object.
+     */
+    public static synchronized ManipulationModelIndex getIndex(Project project) {
+        if (project == null) {
+            throw new ManipulationUncheckedException("Null project");
+        }
+        final File file = new File(project.getRootDir(), ManipulationIO.MANIPULATION_FILE_NAME);
+        final ExtraPropertiesExtension extraProperties = project.getRootProject().getExtensions()
+                .getExtraProperties();
+
+        if (extraProperties.has(NAME_PREFIX)) {
+            final ManipulationModelIndex index = (ManipulationModelIndex) extraProperties.get(NAME_PREFIX);
+
+            if (index.lastModified == file.lastModified() && index.length == file.length()) {
+                return index;
+            }
+        }
+        final ManipulationModelIndex index = new ManipulationModelIndex(file);
+        extraProperties.set(NAME_PREFIX, index);
+        return index;
+    }
+
+    /**
+     * Returns the model of the given project.
+     *
+     * @param project the project
+     * @return the model of the project
+     */
+    public ManipulationModel get(Project project) {
+        return get(project.getPath());
+    }
+
+    /**
+     * Returns the model of the module with the given project path.
+     *
+     * @param path the Gradle project path of the module, e.g. {@code :} for the root or {@code :child1:child11}
+     * @return the model of the module
+     */
+    public ManipulationModel get(String path) {
+        final ManipulationModel result = modules.get(path);
+
+        if (result == null) {
+            throw new ManipulationUncheckedException("ManipulationModel '{}' does not exist", path);
+        }
+        return result;
+    }
+
+    private static void index(String path, ManipulationModel model, Map<String, ManipulationModel> result) {
+        result.put(path, model);
+
+        final String prefix = ":".equals(path) ? path : path + ':';
+        for (Map.Entry<String, ManipulationModel> child : model.getChildren().entrySet()) {
+            index(prefix + child.getKey(), child.getValue(), result);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.jboss.gm.common.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.logging.GMLogger;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.jboss.gm.common.versioning.ProjectVersionFactory;
+
+/**
+ * Reads and writes a compact binary encoding of the {@link ManipulationModel} that sits next to
+ * {@link ManipulationIO#MANIPULATION_FILE_NAME}. The JSON file remains the source of truth: the sidecar records the
+ * length, modification time and CRC-32 checksum of the JSON file it was written from. Loading only compares the length
+ * and modification time, which does not require reading the JSON file. The checksum is only computed if the
+ * modification time differs (for instance as the file has been copied or touched) and the sidecar is ignored unless it
+ * matches.
+ * <p>
+ * The format is a header (magic number, format version, JSON length, modification time and checksum) followed by a
+ * table of all the distinct strings of the model and then the module records, which refer to the strings by their
+ * index:
+ *
+ * <pre>
+ * module := group name projectPathName version originalVersion
+ *           alignedCount (key groupId artifactId version)* childCount (key module)*
+ * </pre>
+ *
+ * Absent strings are encoded as {@code -1}.
+ */
+public final class ManipulationSidecarIO {
+    public static final String SIDECAR_FILE_NAME = "manipulation.bin";
+
+    private static final int MAGIC = 0x474d4531; // GME1
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final Logger logger = GMLogger.getLogger(ManipulationSidecarIO.class);
+
+    private ManipulationSidecarIO() {
+    }
+
+    /**
+     * Writes the sidecar of the given model, which must just have been written to the JSON file by
+     * {@link ManipulationIO#writeManipulationModel(File, ManipulationModel)}.
+     *
+     * @param rootDir the root directory
+     * @param model the model
+     * @throws ManipulationException if an error occurs
+     */
+    public static void writeManipulationSidecar(File rootDir, ManipulationModel model) throws ManipulationException {
+        final Path file = rootDir.toPath().resolve(SIDECAR_FILE_NAME);
+
+        try {
+            final Path jsonFile = rootDir.toPath().resolve(ManipulationIO.MANIPULATION_FILE_NAME);
+            final long modified = Files.getLastModifiedTime(jsonFile).toMillis();
+            final byte[] json = Files.readAllBytes(jsonFile);
+            final Map<String, Integer> strings = new HashMap<>();
+            final List<String> table = new ArrayList<>();
+            intern(model, strings, table);
+
+            final Path temporary = Files.createTempFile(rootDir.toPath(), SIDECAR_FILE_NAME, ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeLong(json.length);
+                    out.writeLong(modified);
+                    out.writeLong(checksum(json));
+                    out.writeInt(table.size());
+                    for (String s : table) {
+                        out.writeUTF(s);
+                    }
+                    write(out, model, strings);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            logger.info("Wrote {} ({} bytes, {} strings ; {} is {} bytes)", SIDECAR_FILE_NAME, Files.size(file),
+                    table.size(), ManipulationIO.MANIPULATION_FILE_NAME, json.length);
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to write {} in project root", SIDECAR_FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Reads the model from the sidecar if it exists and matches the JSON file.
+     *
+     * @param rootDir the root directory
+     * @return the model, or null if there is no usable sidecar
+     */
+    public static ManipulationModel readManipulationSidecar(File rootDir) {
+        final Path file = rootDir.toPath().resolve(SIDECAR_FILE_NAME);
+        final Path jsonFile = rootDir.toPath().resolve(ManipulationIO.MANIPULATION_FILE_NAME);
+
+        if (!Files.isRegularFile(file) || !Files.isRegularFile(jsonFile)) {
+            return null;
+        }
+        final long start = System.currentTimeMillis();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.warn("Ignoring {} as it has an unknown format", file);
+                return null;
+            }
+            final long length = in.readLong();
+            final long modified = in.readLong();
+            final long checksum = in.readLong();
+
+            if (length != Files.size(jsonFile) || (modified != Files.getLastModifiedTime(jsonFile).toMillis()
+                    && checksum != checksum(jsonFile))) {
+                logger.warn("Ignoring stale {} as {} has changed since it was written", file,
+                        ManipulationIO.MANIPULATION_FILE_NAME);
+                return null;
+            }
+            final String[] table = new String[in.readInt()];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = in.readUTF();
+            }
+            final ManipulationModel result = read(in, table);
+
+            logger.info("Loaded {} ({} bytes) in {} ms", file, Files.size(file), System.currentTimeMillis() - start);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable {} ({})", file, e.toString());
+            return null;
+        }
+    }
+
+    private static void intern(ManipulationModel model, Map<String, Integer> strings, List<String> table) {
+        intern(model.getGroup(), strings, table);
+        intern(model.getName(), strings, table);
+        intern(model.getProjectPathName(), strings, table);
+        intern(model.getVersion(), strings, table);
+        intern(model.getOriginalVersion(), strings, table);
+
+        for (Map.Entry<String, ProjectVersionRef> aligned : model.getAlignedDependencies().entrySet()) {
+            intern(aligned.getKey(), strings, table);
+            intern(aligned.getValue().getGroupId(), strings, table);
+            intern(aligned.getValue().getArtifactId(), strings, table);
+            intern(aligned.getValue().getVersionString(), strings, table);
+        }
+        for (Map.Entry<String, ManipulationModel> child : model.getChildren().entrySet()) {
+            intern(child.getKey(), strings, table);
+            intern(child.getValue(), strings, table);
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> strings, List<String> table) {
+        if (value != null && !strings.containsKey(value)) {
+            strings.put(value, table.size());
+            table.add(value);
+        }
+    }
+
+    private static void write(DataOutputStream out, ManipulationModel model, Map<String, Integer> strings)
+            throws IOException {
+        write(out, model.getGroup(), strings);
+        write(out, model.getName(), strings);
+        write(out, model.getProjectPathName(), strings);
+        write(out, model.getVersion(), strings);
+        write(out, model.getOriginalVersion(), strings);
+
+        out.writeInt(model.getAlignedDependencies().size());
+        for (Map.Entry<String, ProjectVersionRef> aligned : model.getAlignedDependencies().entrySet()) {
+            write(out, aligned.getKey(), strings);
+            write(out, aligned.getValue().getGroupId(), strings);
+            write(out, aligned.getValue().getArtifactId(), strings);
+            write(out, aligned.getValue().getVersionString(), strings);
+        }
+        out.writeInt(model.getChildren().size());
+        for (Map.Entry<String, ManipulationModel> child : model.getChildren().entrySet()) {
+            write(out, child.getKey(), strings);
+            write(out, child.getValue(), strings);
+        }
+    }
+
+    private static void write(DataOutputStream out, String value, Map<String, Integer> strings) throws IOException {
+        out.writeInt(value == null ? -1 : strings.get(value));
+    }
+
+    private static ManipulationModel read(DataInputStream in, String[] table) throws IOException {
+        final ManipulationModel model = new ManipulationModel();
+
+        model.setGroup(read(in, table));
+        model.setName(read(in, table));
+        model.setProjectPathName(read(in, table));
+        model.setVersion(read(in, table));
+        model.setOriginalVersion(read(in, table));
+
+        for (int i = in.readInt(); i > 0; i--) {
+            final String key = read(in, table);
+            model.getAlignedDependencies().put(key,
+                    ProjectVersionFactory.withGAV(read(in, table), read(in, table), read(in, table)));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            final String key = read(in, table);
+            model.getChildren().put(key, read(in, table));
+        }
+        return model;
+    }
+
+    private static String read(DataInputStream in, String[] table) throws IOException {
+        final int index = in.readInt();
+        return index < 0 ? null : table[index];
+    }
+
+    private static long checksum(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    private static long checksum(Path path) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[65536];
+
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,105 @@
+package org.jboss.gm.common.logging;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Locates the source file and line of the code that called a {@link GMLogger} method, i.e. the first stack frame
+ * outside of the logging classes.
+ * <p>
+ * On JDK 9 and above the {@code StackWalker} API (accessed reflectively as the plugins target Java 8) is used, which
+ * only materialises the frames that are examined. Otherwise a full stack trace is captured.
+ */
+final class CallerLocator {
+    private static final String UNKNOWN = "Unknown Source:-1";
+
+    private static final Object walker;
+
+    private static final Method walk;
+
+    private static final Method getClassName;
+
+    private static final Method toStackTraceElement;
+
+    private static final Function<Stream<Object>, Object> firstCaller = frames -> frames
+            .filter(f -> !isLoggingFrame(className(f))).findFirst().orElse(null);
+
+    static {
+        Object w = null;
+        Method wk = null;
+        Method cn = null;
+        Method ste = null;
+        try {
+            final Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+            final Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+
+            w = walkerClass.getMethod("getInstance").invoke(null);
+            wk = walkerClass.getMethod("walk", Function.class);
+            cn = frameClass.getMethod("getClassName");
+            ste = frameClass.getMethod("toStackTraceElement");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 8 ; fall back to capturing the stack trace.
+            w = null;
+        }
+        walker = w;
+        walk = wk;
+        getClassName = cn;
+        toStackTraceElement = ste;
+    }
+
+    private CallerLocator() {
+    }
+
+    /**
+     * Returns whether the {@code StackWalker} API is used.
+     *
+     * @return true on JDK 9 and above
+     */
+    static boolean usesStackWalker() {
+        return walker != null;
+    }
+
+    /**
+     * Returns the location of the caller of the logger in the form {@code File.java:123}.
+     *
+     * @return the location of the caller
+     */
+    static String locate() {
+        final StackTraceElement caller = walker == null ? fromStackTrace() : fromStackWalker();
+
+        return caller == null ? UNKNOWN : caller.getFileName() + ':' + caller.getLineNumber();
+    }
+
+    private static StackTraceElement fromStackWalker() {
+        try {
+            final Object frame = walk.invoke(walker, firstCaller);
+            return frame == null ? null : (StackTraceElement) toStackTraceElement.invoke(frame);
+        } catch (ReflectiveOperationException e) {
+            return fromStackTrace();
+        }
+    }
+
+    private static StackTraceElement fromStackTrace() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!isLoggingFrame(element.getClassName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static String className(Object frame) {
+        try {
+            return (String) getClassName.invoke(frame);
+        } catch (ReflectiveOperationException e) {
+            return "";
+        }
+    }
+
+    private static boolean isLoggingFrame(String className) {
+        return className.equals(GMLogger.class.getName()) || className.equals(CallerLocator.class.getName())
+                || className.startsWith("java.lang.reflect.") || className.startsWith("jdk.internal.reflect.")
+                || className.startsWith("sun.reflect.");
+    }
+}
@@ -0,0 +1,120 @@
+package org.jboss.gm.common.logging;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logging argument that renders a collection or map lazily, and bounded in size. Unless trace logging is enabled for
+ * the logger (for a {@link GMLogger}, Gradle's debug level, as that is where it sends trace output) only the number
+ * of elements and the first {@link #DEFAULT_LIMIT} of them are output, e.g.
+ * {@code [a, b, c, ... 4997 more (5000 in total)]}, so that alignments of thousands of dependencies do not produce
+ * multi-megabyte log lines. Nothing is rendered unless the message is actually logged.
+ * <p>
+ * Usage: {@code logger.debug("Dependencies are {}", CollectionSummary.of(logger, dependencies));}
+ */
+public final class CollectionSummary {
+    /**
+     * The number of elements output when the collection is summarised.
+     */
+    public static final int DEFAULT_LIMIT = 10;
+
+    private final Logger logger;
+
+    private final Object original;
+
+    private final Collection<?> elements;
+
+    private final int limit;
+
+    private final char open;
+
+    private final char close;
+
+    private String text;
+
+    private CollectionSummary(Logger logger, Object original, Collection<?> elements, int limit, char open,
+            char close) {
+        this.logger = logger;
+        this.original = original;
+        this.elements = elements;
+        this.limit = limit;
+        this.open = open;
+        this.close = close;
+    }
+
+    /**
+     * Summarises a collection.
+     *
+     * @param logger the logger the summary is logged to ; the full collection is output if it has trace enabled
+     * @param collection the collection, may be null
+     * @return the logging argument
+     */
+    public static CollectionSummary of(Logger logger, Collection<?> collection) {
+        return of(logger, collection, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Summarises a collection.
+     *
+     * @param logger the logger the summary is logged to ; the full collection is output if it has trace enabled
+     * @param collection the collection, may be null
+     * @param limit the number of elements output when summarised
+     * @return the logging argument
+     */
+    public static CollectionSummary of(Logger logger, Collection<?> collection, int limit) {
+        return new CollectionSummary(logger, collection, collection, limit, '[', ']');
+    }
+
+    /**
+     * Summarises a map.
+     *
+     * @param logger the logger the summary is logged to ; the full map is output if it has trace enabled
+     * @param map the map, may be null
+     * @return the logging argument
+     */
+    public static CollectionSummary of(Logger logger, Map<?, ?> map) {
+        return of(logger, map, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Summarises a map.
+     *
+     * @param logger the logger the summary is logged to ; the full map is output if it has trace enabled
+     * @param map the map, may be null
+     * @param limit the number of entries output when summarised
+     * @return the logging argument
+     */
+    public static CollectionSummary of(Logger logger, Map<?, ?> map, int limit) {
+        return new CollectionSummary(logger, map, map == null ? null : map.entrySet(), limit, '{', '}');
+    }
+
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = render();
+        }
+        return text;
+    }
+
+    private String render() {
+        if (elements == null) {
+            return "null";
+        }
+        final int size = elements.size();
+
+        if (size <= limit || logger.isTraceEnabled()) {
+            return original.toString();
+        }
+        final StringBuilder sb = new StringBuilder().append(open);
+        final Iterator<?> iterator = elements.iterator();
+
+        for (int i = 0; i < limit && iterator.hasNext(); i++) {
+            sb.append(iterator.next()).append(", ");
+        }
+        return sb.append("... ").append(size - limit).append(" more (").append(size).append(" in total)")
+                .append(close).toString();
+    }
+}
@@ -9,13 +9,28 @@ import org.gradle.internal.logging.events.LogEvent;
 import org.gradle.internal.logging.events.OutputEvent;
 import org.gradle.internal.logging.events.OutputEventListener;
 import org.gradle.internal.logging.slf4j.OutputEventListenerBackedLoggerContext;
+import org.jboss.gm.common.utils.BoundedCache;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
 public class FilteringCustomLogger implements OutputEventListener {
 
+    /**
+     * Upper bound on the number of cached category decisions. Categories are logger names, of which a build has a few
+     * hundred at most.
+     */
+    private static final int MAX_CACHED_CATEGORIES = 4096;
+
+    private enum Decision {
+        IGNORE,
+        PROMOTE,
+        PASS
+    }
+
     private final OutputEventListener delegate;
 
+    private final BoundedCache<String, Decision> decisions = new BoundedCache<>(MAX_CACHED_CATEGORIES);
+
     private final List<String> ignoreCategories = Arrays.asList(
             "org.gradle.api",
             "org.gradle.cache",
@@ -43,21 +58,40 @@ public class FilteringCustomLogger implements OutputEventListener {
         }
     }
 
-    private FilteringCustomLogger(OutputEventListener outputEventListener) {
+    FilteringCustomLogger(OutputEventListener outputEventListener) {
         this.delegate = outputEventListener;
     }
 
     @Override
     public void onOutput(OutputEvent event) {
         LogEvent logEvent = (LogEvent) event;
-        if (ignoreCategories.stream().noneMatch(i -> logEvent.getCategory().startsWith(i))) {
-            if (logEvent.getCategory().startsWith("org.commonjava.maven.ext") ||
-                    logEvent.getCategory().startsWith("com.redhat")) {
+
+        switch (decide(logEvent.getCategory())) {
+            case PROMOTE:
                 delegate.onOutput(new LogEvent(logEvent.getTimestamp(), logEvent.getCategory(), LogLevel.LIFECYCLE,
                         logEvent.getMessage(), logEvent.getThrowable()));
-            } else {
+                break;
+            case PASS:
                 delegate.onOutput(event);
-            }
+                break;
+            default:
+                break;
         }
     }
+
+    /**
+     * Every log event passes through here so the decision for each category (a small, bounded set of logger names) is
+     * only computed once.
+     */
+    private Decision decide(String category) {
+        return decisions.get(category, c -> {
+            if (ignoreCategories.stream().anyMatch(c::startsWith)) {
+                return Decision.IGNORE;
+            } else if (c.startsWith("org.commonjava.maven.ext") || c.startsWith("com.redhat")) {
+                return Decision.PROMOTE;
+            } else {
+                return Decision.PASS;
+            }
+        });
+    }
 }
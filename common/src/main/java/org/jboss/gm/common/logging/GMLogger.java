@@ -1,9 +1,6 @@
 package org.jboss.gm.common.logging;
 
-import java.util.Arrays;
-
 import org.aeonbits.owner.ConfigCache;
-import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
@@ -50,23 +47,19 @@ public class GMLogger implements Logger {
     }
 
     // TODO: Change this to a formatting method that allows full stacktrace formatting, MDC etc.
-    private String injectLoggerFormatting(String msg) {
-
-        StringBuilder sb = new StringBuilder();
-
-        // Using a SecurityManager would be faster but we want the line number. And the StackWalker API
-        // is JDK9 and above.
-        StackTraceElement[] result = Thread.currentThread().getStackTrace();
-        // 0 is this getStackTrace call.
-        // 1 is this method
-        // 2 is the logging method
-        // 3 is the target we want.
-        // And therefore we need to ensure we have at least 3 frames to examine.
-        if (result.length < 4) {
-            throw new ManipulationUncheckedException(
-                    "Internal logging failure ; not enough stacktrace elements {}", Arrays.toString(result));
+    /**
+     * Formats the message. Callers must check that the target level is enabled first so that nothing is formatted, and
+     * no call site located, for messages that are discarded.
+     *
+     * @param loggingLevel the name of the level the message is logged at, as called by the user
+     * @param msg the message
+     * @return the formatted message
+     */
+    private String injectLoggerFormatting(String loggingLevel, String msg) {
+        if (!configuration.addLoggingClassnameLinenumber() && !configuration.addLoggingColours()) {
+            return msg;
         }
-        String loggingLevel = result[2].getMethodName().toUpperCase();
+        StringBuilder sb = new StringBuilder();
 
         if (configuration.addLoggingClassnameLinenumber()) {
 
@@ -79,9 +72,7 @@ public class GMLogger implements Logger {
                 sb.append(']');
             }
             sb.append('[');
-            sb.append(result[3].getFileName());
-            sb.append(':');
-            sb.append(result[3].getLineNumber());
+            sb.append(CallerLocator.locate());
             sb.append("] ");
             if (configuration.addLoggingColours()) {
                 sb.append(ANSI_RESET);
@@ -122,7 +113,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(String message, Object... objects) {
-        delegate.info(injectLoggerFormatting(message), objects);
+        if (delegate.isInfoEnabled()) {
+            delegate.info(injectLoggerFormatting("DEBUG", message), objects);
+        }
     }
 
     /**
@@ -143,7 +136,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void lifecycle(String message, Object... objects) {
-        delegate.lifecycle(injectLoggerFormatting(message), objects);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("LIFECYCLE", message), objects);
+        }
     }
 
     /**
@@ -154,7 +149,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void lifecycle(String message, Throwable throwable) {
-        delegate.lifecycle(injectLoggerFormatting(message), throwable);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("LIFECYCLE", message), throwable);
+        }
     }
 
     /**
@@ -183,7 +180,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void quiet(String message, Object... objects) {
-        delegate.quiet(injectLoggerFormatting(message), objects);
+        if (delegate.isQuietEnabled()) {
+            delegate.quiet(injectLoggerFormatting("QUIET", message), objects);
+        }
     }
 
     /**
@@ -194,7 +193,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(String message, Object... objects) {
-        delegate.lifecycle(injectLoggerFormatting(message), objects);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", message), objects);
+        }
     }
 
     /**
@@ -205,7 +206,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void quiet(String message, Throwable throwable) {
-        delegate.quiet(injectLoggerFormatting(message), throwable);
+        if (delegate.isQuietEnabled()) {
+            delegate.quiet(injectLoggerFormatting("QUIET", message), throwable);
+        }
     }
 
     /**
@@ -272,7 +275,8 @@ public class GMLogger implements Logger {
      */
     @Override
     public boolean isTraceEnabled() {
-        return delegate.isTraceEnabled();
+        // Trace output is sent to the debug category, which is the only one Gradle enables beneath info.
+        return delegate.isDebugEnabled();
     }
 
     /**
@@ -283,7 +287,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(String msg) {
-        delegate.debug(injectLoggerFormatting(msg));
+        if (delegate.isDebugEnabled()) {
+            delegate.debug(injectLoggerFormatting("TRACE", msg));
+        }
     }
 
     /**
@@ -299,7 +305,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(String format, Object arg) {
-        delegate.debug(injectLoggerFormatting(format), arg);
+        if (delegate.isDebugEnabled()) {
+            delegate.debug(injectLoggerFormatting("TRACE", format), arg);
+        }
     }
 
     /**
@@ -316,7 +324,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(String format, Object arg1, Object arg2) {
-        delegate.debug(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isDebugEnabled()) {
+            delegate.debug(injectLoggerFormatting("TRACE", format), arg1, arg2);
+        }
     }
 
     /**
@@ -335,7 +345,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(String format, Object... arguments) {
-        delegate.debug(injectLoggerFormatting(format), arguments);
+        if (delegate.isDebugEnabled()) {
+            delegate.debug(injectLoggerFormatting("TRACE", format), arguments);
+        }
     }
 
     /**
@@ -348,7 +360,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(String msg, Throwable t) {
-        delegate.debug(injectLoggerFormatting(msg), t);
+        if (delegate.isDebugEnabled()) {
+            delegate.debug(injectLoggerFormatting("TRACE", msg), t);
+        }
     }
 
     /**
@@ -363,7 +377,7 @@ public class GMLogger implements Logger {
      */
     @Override
     public boolean isTraceEnabled(Marker marker) {
-        return delegate.isTraceEnabled(marker);
+        return delegate.isDebugEnabled(marker);
     }
 
     /**
@@ -389,7 +403,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(Marker marker, String format, Object arg) {
-        delegate.debug(marker, injectLoggerFormatting(format), arg);
+        if (delegate.isDebugEnabled(marker)) {
+            delegate.debug(marker, injectLoggerFormatting("TRACE", format), arg);
+        }
     }
 
     /**
@@ -405,7 +421,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(Marker marker, String format, Object arg1, Object arg2) {
-        delegate.debug(marker, injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isDebugEnabled(marker)) {
+            delegate.debug(marker, injectLoggerFormatting("TRACE", format), arg1, arg2);
+        }
     }
 
     /**
@@ -420,7 +438,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(Marker marker, String format, Object... argArray) {
-        delegate.debug(marker, injectLoggerFormatting(format), argArray);
+        if (delegate.isDebugEnabled(marker)) {
+            delegate.debug(marker, injectLoggerFormatting("TRACE", format), argArray);
+        }
     }
 
     /**
@@ -434,7 +454,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void trace(Marker marker, String msg, Throwable t) {
-        delegate.debug(marker, injectLoggerFormatting(msg), t);
+        if (delegate.isDebugEnabled(marker)) {
+            delegate.debug(marker, injectLoggerFormatting("TRACE", msg), t);
+        }
     }
 
     /**
@@ -455,7 +477,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(String msg) {
-        delegate.info(injectLoggerFormatting(msg));
+        if (delegate.isInfoEnabled()) {
+            delegate.info(injectLoggerFormatting("DEBUG", msg));
+        }
     }
 
     /**
@@ -470,7 +494,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(String format, Object arg) {
-        delegate.info(injectLoggerFormatting(format), arg);
+        if (delegate.isInfoEnabled()) {
+            delegate.info(injectLoggerFormatting("DEBUG", format), arg);
+        }
     }
 
     /**
@@ -486,7 +512,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(String format, Object arg1, Object arg2) {
-        delegate.info(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isInfoEnabled()) {
+            delegate.info(injectLoggerFormatting("DEBUG", format), arg1, arg2);
+        }
     }
 
     /**
@@ -498,7 +526,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(String msg, Throwable t) {
-        delegate.info(injectLoggerFormatting(msg), t);
+        if (delegate.isInfoEnabled()) {
+            delegate.info(injectLoggerFormatting("DEBUG", msg), t);
+        }
     }
 
     /**
@@ -522,7 +552,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(Marker marker, String msg) {
-        delegate.info(marker, injectLoggerFormatting(msg));
+        if (delegate.isInfoEnabled(marker)) {
+            delegate.info(marker, injectLoggerFormatting("DEBUG", msg));
+        }
     }
 
     /**
@@ -535,7 +567,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(Marker marker, String format, Object arg) {
-        delegate.info(marker, injectLoggerFormatting(format), arg);
+        if (delegate.isInfoEnabled(marker)) {
+            delegate.info(marker, injectLoggerFormatting("DEBUG", format), arg);
+        }
     }
 
     /**
@@ -550,7 +584,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(Marker marker, String format, Object arg1, Object arg2) {
-        delegate.info(marker, injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isInfoEnabled(marker)) {
+            delegate.info(marker, injectLoggerFormatting("DEBUG", format), arg1, arg2);
+        }
     }
 
     /**
@@ -564,7 +600,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(Marker marker, String format, Object... arguments) {
-        delegate.info(marker, injectLoggerFormatting(format), arguments);
+        if (delegate.isInfoEnabled(marker)) {
+            delegate.info(marker, injectLoggerFormatting("DEBUG", format), arguments);
+        }
     }
 
     /**
@@ -577,7 +615,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void debug(Marker marker, String msg, Throwable t) {
-        delegate.info(marker, injectLoggerFormatting(msg), t);
+        if (delegate.isInfoEnabled(marker)) {
+            delegate.info(marker, injectLoggerFormatting("DEBUG", msg), t);
+        }
     }
 
     /**
@@ -598,7 +638,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(String msg) {
-        delegate.lifecycle(injectLoggerFormatting(msg));
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", msg));
+        }
     }
 
     /**
@@ -613,7 +655,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(String format, Object arg) {
-        delegate.lifecycle(injectLoggerFormatting(format), arg);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", format), arg);
+        }
     }
 
     /**
@@ -629,7 +673,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(String format, Object arg1, Object arg2) {
-        delegate.lifecycle(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", format), arg1, arg2);
+        }
     }
 
     /**
@@ -641,7 +687,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(String msg, Throwable t) {
-        delegate.lifecycle(injectLoggerFormatting(msg), t);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", msg), t);
+        }
     }
 
     /**
@@ -664,7 +712,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(Marker marker, String msg) {
-        delegate.lifecycle(injectLoggerFormatting(msg));
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", msg));
+        }
     }
 
     /**
@@ -677,7 +727,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(Marker marker, String format, Object arg) {
-        delegate.lifecycle(injectLoggerFormatting(format), arg);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", format), arg);
+        }
     }
 
     /**
@@ -692,7 +744,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(Marker marker, String format, Object arg1, Object arg2) {
-        delegate.lifecycle(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", format), arg1, arg2);
+        }
     }
 
     /**
@@ -706,7 +760,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(Marker marker, String format, Object... arguments) {
-        delegate.lifecycle(injectLoggerFormatting(format), arguments);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", format), arguments);
+        }
     }
 
     /**
@@ -719,7 +775,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void info(Marker marker, String msg, Throwable t) {
-        delegate.lifecycle(injectLoggerFormatting(msg), t);
+        if (delegate.isLifecycleEnabled()) {
+            delegate.lifecycle(injectLoggerFormatting("INFO", msg), t);
+        }
     }
 
     /**
@@ -740,7 +798,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(String msg) {
-        delegate.warn(injectLoggerFormatting(msg));
+        if (delegate.isWarnEnabled()) {
+            delegate.warn(injectLoggerFormatting("WARN", msg));
+        }
     }
 
     /**
@@ -755,7 +815,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(String format, Object arg) {
-        delegate.warn(injectLoggerFormatting(format), arg);
+        if (delegate.isWarnEnabled()) {
+            delegate.warn(injectLoggerFormatting("WARN", format), arg);
+        }
     }
 
     /**
@@ -774,7 +836,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(String format, Object... arguments) {
-        delegate.warn(injectLoggerFormatting(format), arguments);
+        if (delegate.isWarnEnabled()) {
+            delegate.warn(injectLoggerFormatting("WARN", format), arguments);
+        }
     }
 
     /**
@@ -790,7 +854,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(String format, Object arg1, Object arg2) {
-        delegate.warn(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isWarnEnabled()) {
+            delegate.warn(injectLoggerFormatting("WARN", format), arg1, arg2);
+        }
     }
 
     /**
@@ -802,7 +868,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(String msg, Throwable t) {
-        delegate.warn(injectLoggerFormatting(msg), t);
+        if (delegate.isWarnEnabled()) {
+            delegate.warn(injectLoggerFormatting("WARN", msg), t);
+        }
     }
 
     /**
@@ -826,7 +894,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(Marker marker, String msg) {
-        delegate.warn(marker, injectLoggerFormatting(msg));
+        if (delegate.isWarnEnabled(marker)) {
+            delegate.warn(marker, injectLoggerFormatting("WARN", msg));
+        }
     }
 
     /**
@@ -839,7 +909,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(Marker marker, String format, Object arg) {
-        delegate.warn(marker, injectLoggerFormatting(format), arg);
+        if (delegate.isWarnEnabled(marker)) {
+            delegate.warn(marker, injectLoggerFormatting("WARN", format), arg);
+        }
     }
 
     /**
@@ -854,7 +926,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(Marker marker, String format, Object arg1, Object arg2) {
-        delegate.warn(marker, injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isWarnEnabled(marker)) {
+            delegate.warn(marker, injectLoggerFormatting("WARN", format), arg1, arg2);
+        }
     }
 
     /**
@@ -868,7 +942,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(Marker marker, String format, Object... arguments) {
-        delegate.warn(marker, injectLoggerFormatting(format), arguments);
+        if (delegate.isWarnEnabled(marker)) {
+            delegate.warn(marker, injectLoggerFormatting("WARN", format), arguments);
+        }
     }
 
     /**
@@ -881,7 +957,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void warn(Marker marker, String msg, Throwable t) {
-        delegate.warn(marker, injectLoggerFormatting(msg), t);
+        if (delegate.isWarnEnabled(marker)) {
+            delegate.warn(marker, injectLoggerFormatting("WARN", msg), t);
+        }
     }
 
     /**
@@ -902,7 +980,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(String msg) {
-        delegate.error(injectLoggerFormatting(msg));
+        if (delegate.isErrorEnabled()) {
+            delegate.error(injectLoggerFormatting("ERROR", msg));
+        }
     }
 
     /**
@@ -917,7 +997,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(String format, Object arg) {
-        delegate.error(injectLoggerFormatting(format), arg);
+        if (delegate.isErrorEnabled()) {
+            delegate.error(injectLoggerFormatting("ERROR", format), arg);
+        }
     }
 
     /**
@@ -933,7 +1015,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(String format, Object arg1, Object arg2) {
-        delegate.error(injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isErrorEnabled()) {
+            delegate.error(injectLoggerFormatting("ERROR", format), arg1, arg2);
+        }
     }
 
     /**
@@ -952,7 +1036,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(String format, Object... arguments) {
-        delegate.error(injectLoggerFormatting(format), arguments);
+        if (delegate.isErrorEnabled()) {
+            delegate.error(injectLoggerFormatting("ERROR", format), arguments);
+        }
     }
 
     /**
@@ -964,7 +1050,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(String msg, Throwable t) {
-        delegate.error(injectLoggerFormatting(msg), t);
+        if (delegate.isErrorEnabled()) {
+            delegate.error(injectLoggerFormatting("ERROR", msg), t);
+        }
     }
 
     /**
@@ -988,7 +1076,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(Marker marker, String msg) {
-        delegate.error(marker, injectLoggerFormatting(msg));
+        if (delegate.isErrorEnabled(marker)) {
+            delegate.error(marker, injectLoggerFormatting("ERROR", msg));
+        }
     }
 
     /**
@@ -1001,7 +1091,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(Marker marker, String format, Object arg) {
-        delegate.error(marker, injectLoggerFormatting(format), arg);
+        if (delegate.isErrorEnabled(marker)) {
+            delegate.error(marker, injectLoggerFormatting("ERROR", format), arg);
+        }
     }
 
     /**
@@ -1016,7 +1108,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(Marker marker, String format, Object arg1, Object arg2) {
-        delegate.error(marker, injectLoggerFormatting(format), arg1, arg2);
+        if (delegate.isErrorEnabled(marker)) {
+            delegate.error(marker, injectLoggerFormatting("ERROR", format), arg1, arg2);
+        }
     }
 
     /**
@@ -1030,7 +1124,9 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(Marker marker, String format, Object... arguments) {
-        delegate.error(marker, injectLoggerFormatting(format), arguments);
+        if (delegate.isErrorEnabled(marker)) {
+            delegate.error(marker, injectLoggerFormatting("ERROR", format), arguments);
+        }
     }
 
     /**
@@ -1044,6 +1140,8 @@ public class GMLogger implements Logger {
      */
     @Override
     public void error(Marker marker, String msg, Throwable t) {
-        delegate.error(marker, injectLoggerFormatting(msg), t);
+        if (delegate.isErrorEnabled(marker)) {
+            delegate.error(marker, injectLoggerFormatting("ERROR", msg), t);
+        }
     }
 }
@@ -58,10 +58,12 @@ public class ManipulationModel {
     /**
      * This should be effectively the same as the folder name.
      *
+     * @param projectPathName the folder name
      * @return the folder name
      */
     @JsonProperty
     @Getter
+    @Setter
     protected String projectPathName;
 
     /**
@@ -0,0 +1,82 @@
+package org.jboss.gm.common.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most a fixed number of entries, evicting the least recently used entry once full. It
+ * is meant for memoising values that are cheap to recompute but requested very often, keyed by a set that is small in
+ * practice (such as logger names or version strings) but not bounded by construction.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+    private final Map<K, V> entries;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public BoundedCache(int maxEntries) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for the given key, computing and caching it if it is absent.
+     *
+     * @param key the key
+     * @param loader computes the value of an absent key ; it must not return null
+     * @return the value
+     */
+    public synchronized V get(K key, Function<? super K, ? extends V> loader) {
+        V value = entries.get(key);
+
+        if (value == null) {
+            misses++;
+            value = loader.apply(key);
+            entries.put(key, value);
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to compute the value.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
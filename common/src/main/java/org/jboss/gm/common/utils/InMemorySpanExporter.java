@@ -0,0 +1,89 @@
+package org.jboss.gm.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import org.apache.commons.io.FileUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * An in-process {@link SpanExporter} that keeps the finished spans in memory, standing in for an OTLP collector so
+ * that the instrumentation may be verified without network access. It is selected by
+ * {@link org.jboss.gm.common.Configuration#otelSpanFile()} and the spans are written as JSON by
+ * {@link #write(File)} once the run completes.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<SpanData> spans = new ArrayList<>();
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        this.spans.addAll(spans);
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Unlike an exporter to a collector the spans are kept on shutdown, so that they may be written afterwards.
+     */
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Returns the spans exported so far, in the order they finished.
+     *
+     * @return a copy of the spans
+     */
+    public synchronized List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Writes the spans exported so far as a JSON array of objects holding the name, trace id, span id, parent span id
+     * (absent for a root span), start and end (epoch nanoseconds) and attributes of each span.
+     *
+     * @param file the file to write
+     * @throws IOException if an error occurs writing the file
+     */
+    public void write(File file) throws IOException {
+        final List<Map<String, Object>> result = new ArrayList<>();
+
+        for (SpanData span : getFinishedSpans()) {
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            final Map<String, Object> attributes = new LinkedHashMap<>();
+
+            span.getAttributes().forEach((k, v) -> attributes.put(k.getKey(), v));
+            entry.put("name", span.getName());
+            entry.put("traceId", span.getTraceId());
+            entry.put("spanId", span.getSpanId());
+            if (span.getParentSpanContext().isValid()) {
+                entry.put("parentSpanId", span.getParentSpanId());
+            }
+            entry.put("startEpochNanos", span.getStartEpochNanos());
+            entry.put("endEpochNanos", span.getEndEpochNanos());
+            entry.put("attributes", attributes);
+            result.add(entry);
+        }
+        FileUtils.writeStringToFile(file,
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(result)
+                        + System.lineSeparator(),
+                StandardCharsets.UTF_8.name());
+    }
+}
@@ -1,9 +1,18 @@
 package org.jboss.gm.common.utils;
 
+import java.io.File;
+import java.io.IOException;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import lombok.experimental.UtilityClass;
 
+import org.aeonbits.owner.ConfigCache;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.Configuration;
 import org.jboss.gm.common.logging.FilteringCustomLogger;
 import org.jboss.gm.common.logging.GMLogger;
 
@@ -16,35 +25,106 @@ public class OTELUtils {
 
     private final LogLevel originalLevel = FilteringCustomLogger.getContext().getLevel();
 
-    public void startOTel() {
+    private volatile boolean started;
+
+    private volatile InMemorySpanExporter inMemoryExporter;
+
+    private volatile Context rootContext = Context.root();
+
+    /**
+     * Returns whether OpenTelemetry collection is configured, i.e. an OTLP endpoint has been set.
+     *
+     * @return true if spans will be exported
+     */
+    public boolean isEnabled() {
+        return System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT") != null;
+    }
+
+    /**
+     * Returns whether OpenTelemetry has been started and not yet stopped.
+     *
+     * @return true if started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Returns the context holding the root span created when OpenTelemetry was started. The root span is only current
+     * on the thread that started OpenTelemetry, so spans started on other threads use this as their parent.
+     *
+     * @return the root context
+     */
+    public Context getRootContext() {
+        return rootContext;
+    }
+
+    /**
+     * Starts OpenTelemetry if configured. As the tasks of the plugin may run in any order (e.g. with --parallel) each
+     * calls this and only the first starts it.
+     */
+    public synchronized void startOTel() {
+        if (started) {
+            return;
+        }
         String endpoint = System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT");
         String service = System.getenv("OTEL_SERVICE_NAME");
 
-        if (endpoint != null) {
-            if (service == null) {
-                service = "gradle-manipulator";
-            }
+        if (service == null) {
+            service = "gradle-manipulator";
+        }
+        if (!ConfigCache.getOrCreate(Configuration.class).otelSpanFile().isEmpty()) {
+            logger.info("Enabling in-memory OpenTelemetry collection with service name {}", service);
+            inMemoryExporter = new InMemorySpanExporter();
+            // Export each span as it ends so that none are pending when the spans are written.
+            startOTel(service, SimpleSpanProcessor.create(inMemoryExporter));
+        } else if (endpoint != null) {
             logger.info("Enabling OpenTelemetry collection on {} with service name {}", endpoint, service);
-            try {
-                if (originalLevel != LogLevel.DEBUG) {
-                    FilteringCustomLogger.getContext().setLevel(LogLevel.DEBUG);
-                }
-                OTelCLIHelper.startOTel(service, "alignment-plugin",
-                        OTelCLIHelper.defaultSpanProcessor(OTelCLIHelper.defaultSpanExporter(endpoint)));
-            } finally {
-                FilteringCustomLogger.getContext().setLevel(originalLevel);
-            }
+            startOTel(service, OTelCLIHelper.defaultSpanProcessor(OTelCLIHelper.defaultSpanExporter(endpoint)));
         }
     }
 
-    public void stopOTel() {
+    private void startOTel(String service, SpanProcessor processor) {
         try {
+            if (originalLevel != LogLevel.DEBUG) {
+                FilteringCustomLogger.getContext().setLevel(LogLevel.DEBUG);
+            }
+            OTelCLIHelper.startOTel(service, "alignment-plugin", processor);
+            rootContext = Context.current();
+            started = true;
+        } finally {
+            FilteringCustomLogger.getContext().setLevel(originalLevel);
+        }
+    }
+
+    public synchronized void stopOTel() {
+        started = false;
+        // The root span is held by the thread that started OpenTelemetry, which may not be this one.
+        try (Scope ignored = rootContext.makeCurrent()) {
             if (originalLevel != LogLevel.DEBUG) {
                 FilteringCustomLogger.getContext().setLevel(LogLevel.DEBUG);
             }
             OTelCLIHelper.stopOTel();
         } finally {
+            rootContext = Context.root();
             FilteringCustomLogger.getContext().setLevel(originalLevel);
         }
     }
+
+    /**
+     * Writes the spans collected by the in-process exporter, if any, and discards the exporter. This should be called
+     * once OpenTelemetry has been stopped so that all the spans have ended.
+     *
+     * @param file the file to write
+     * @throws IOException if an error occurs writing the file
+     */
+    public void writeInMemorySpans(File file) throws IOException {
+        final InMemorySpanExporter exporter = inMemoryExporter;
+
+        inMemoryExporter = null;
+        if (exporter != null) {
+            logger.info("Writing {} OpenTelemetry spans to {}", exporter.getFinishedSpans().size(), file);
+            exporter.write(file);
+        }
+    }
 }
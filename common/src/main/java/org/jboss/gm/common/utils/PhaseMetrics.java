@@ -0,0 +1,253 @@
+package org.jboss.gm.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import org.apache.commons.io.FileUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records the duration of the phases of an alignment run (e.g. the collection of a project, the REST lookup or the
+ * writing of the report) so that a regression can be traced to a phase.
+ * <p>
+ * Each phase is, once {@link OTELUtils#startOTel()} has been called, exported as an OpenTelemetry span, along with its
+ * attributes. Regardless, the phases are summarised by name (count, total and maximum duration, and the sum of each
+ * numeric attribute) ; if OpenTelemetry is not configured the summaries are written to {@value #METRICS_FILE} in the
+ * build directory by {@link #write(File)}.
+ * <p>
+ * A phase is meant to be used with try-with-resources:
+ *
+ * <pre>
+ * try (PhaseMetrics.Phase phase = PhaseMetrics.start("restLookup")) {
+ *     phase.attribute("gavs", gavs.size());
+ *     ...
+ * }
+ * </pre>
+ *
+ * The state is static as the per-project tasks and the aggregation task share it ; it is reset by {@link #reset()}
+ * at the start of a build as the plugin classes may be reused by the daemon.
+ */
+public final class PhaseMetrics {
+
+    public static final String METRICS_FILE = "gme-metrics.json";
+
+    private static final String INSTRUMENTATION_NAME = "gradle-manipulator";
+
+    private static final Map<String, Summary> summaries = new LinkedHashMap<>();
+
+    private static final ThreadLocal<Deque<Phase>> current = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private PhaseMetrics() {
+    }
+
+    /**
+     * Starts a phase on the current thread.
+     *
+     * @param name the name of the phase
+     * @return the phase, to be closed once completed
+     */
+    public static Phase start(String name) {
+        final Phase phase = new Phase(name);
+
+        current.get().push(phase);
+        return phase;
+    }
+
+    /**
+     * Adds a numeric attribute to the innermost phase of the current thread, if any.
+     *
+     * @param key the attribute name
+     * @param value the attribute value
+     */
+    public static void attribute(String key, long value) {
+        final Phase phase = current.get().peek();
+
+        if (phase != null) {
+            phase.attribute(key, value);
+        }
+    }
+
+    /**
+     * Wraps a task submitted to another thread so that its phases are children of the current span.
+     *
+     * @param task the task
+     * @return the wrapped task
+     */
+    public static Runnable wrap(Runnable task) {
+        return OTELUtils.isStarted() ? Context.current().wrap(task) : task;
+    }
+
+    /**
+     * Writes the summaries of the phases recorded so far, as JSON, and resets them.
+     *
+     * @param buildDir the build directory of the root project
+     * @throws IOException if an error occurs writing the file
+     */
+    public static void write(File buildDir) throws IOException {
+        final List<Map<String, Object>> phases = new ArrayList<>();
+
+        synchronized (summaries) {
+            summaries.values().forEach(s -> phases.add(s.toMap()));
+            summaries.clear();
+        }
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("phases", phases);
+
+        FileUtils.writeStringToFile(new File(buildDir, METRICS_FILE),
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(metrics)
+                        + System.lineSeparator(),
+                StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Discards the phases recorded so far.
+     */
+    public static void reset() {
+        synchronized (summaries) {
+            summaries.clear();
+        }
+    }
+
+    /**
+     * Returns the summaries of the phases recorded so far, keyed by phase name, as written by {@link #write(File)}.
+     *
+     * @return a copy of the summaries
+     */
+    public static Map<String, Map<String, Object>> getSummaries() {
+        final Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+
+        synchronized (summaries) {
+            summaries.forEach((k, v) -> result.put(k, v.toMap()));
+        }
+        return result;
+    }
+
+    private static void record(Phase phase, long duration) {
+        synchronized (summaries) {
+            summaries.computeIfAbsent(phase.name, Summary::new).add(duration, phase.attributes);
+        }
+    }
+
+    /**
+     * A phase being recorded.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final String name;
+
+        private final long start = System.nanoTime();
+
+        private final Map<String, Long> attributes = new LinkedHashMap<>();
+
+        private final Span span;
+
+        private final Scope scope;
+
+        private Phase(String name) {
+            this.name = name;
+
+            // GlobalOpenTelemetry may only be set before it is first used so leave it alone until started.
+            if (OTELUtils.isStarted()) {
+                // Phases on threads other than the one that started OpenTelemetry belong to its root span too.
+                final Context parent = Span.current().getSpanContext().isValid() ? Context.current()
+                        : OTELUtils.getRootContext();
+                span = GlobalOpenTelemetry.getTracer(INSTRUMENTATION_NAME).spanBuilder(name).setParent(parent)
+                        .startSpan();
+                scope = span.makeCurrent();
+            } else {
+                span = null;
+                scope = null;
+            }
+        }
+
+        /**
+         * Adds a numeric attribute ; the values of an attribute are summed across the phases of the same name.
+         *
+         * @param key the attribute name
+         * @param value the attribute value
+         * @return this phase
+         */
+        public Phase attribute(String key, long value) {
+            attributes.merge(key, value, Long::sum);
+            if (span != null) {
+                span.setAttribute(key, attributes.get(key));
+            }
+            return this;
+        }
+
+        /**
+         * Adds a descriptive attribute, e.g. the project path ; these are only exported with the span.
+         *
+         * @param key the attribute name
+         * @param value the attribute value
+         * @return this phase
+         */
+        public Phase attribute(String key, String value) {
+            if (span != null) {
+                span.setAttribute(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            final long duration = System.nanoTime() - start;
+
+            current.get().remove(this);
+            if (span != null) {
+                scope.close();
+                span.end();
+            }
+            record(this, duration);
+        }
+    }
+
+    private static final class Summary {
+
+        private final String name;
+
+        private long count;
+
+        private long total;
+
+        private long max;
+
+        private final Map<String, Long> attributes = new LinkedHashMap<>();
+
+        private Summary(String name) {
+            this.name = name;
+        }
+
+        private void add(long duration, Map<String, Long> phaseAttributes) {
+            count++;
+            total += duration;
+            max = Math.max(max, duration);
+            phaseAttributes.forEach((k, v) -> attributes.merge(k, v, Long::sum));
+        }
+
+        private Map<String, Object> toMap() {
+            final Map<String, Object> result = new LinkedHashMap<>();
+
+            result.put("name", name);
+            result.put("count", count);
+            result.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(total));
+            result.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(max));
+            result.put("attributes", new LinkedHashMap<>(attributes));
+            return result;
+        }
+    }
+}
@@ -2,8 +2,14 @@ package org.jboss.gm.common.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.Charset;
-import java.util.Collection;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -18,8 +24,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.io.IOUtils;
 import org.commonjava.maven.atlas.ident.util.VersionUtils;
 import org.commonjava.maven.atlas.ident.version.InvalidVersionSpecificationException;
 import org.commonjava.maven.atlas.ident.version.VersionSpec;
@@ -163,13 +168,64 @@ public class PluginUtils {
             plugins.add("'signing'");
         }
 
+        // Validate and precompile every removal before touching any file.
+        final List<PluginRemoval> removals = new ArrayList<>(plugins.size());
         for (String plugin : plugins) {
+            removals.add(new PluginRemoval(plugin));
+        }
+
+        for (File buildFile : findBuildFiles(target)) {
+            final long start = System.currentTimeMillis();
+
+            try {
+                final String original = FileUtils.readFileToString(buildFile, Charset.defaultCharset());
+                final String eol = getEOL(logger, buildFile);
+                String content = original;
+
+                // Each removal is applied to the result of the previous one, as if the file had been rewritten
+                // in between.
+                for (PluginRemoval removal : removals) {
+                    final String result = removal.apply(logger, buildFile, eol, content);
+                    if (result != null) {
+                        content = result;
+                    }
+                }
+                if (!content.equals(original)) {
+                    FileUtils.writeStringToFile(buildFile, content, Charset.defaultCharset());
+                }
+            } catch (IOException e) {
+                throw new ManipulationException("Unable to read build file {}", buildFile, e);
+            }
+            logger.debug("Examined {} for plugin removal in {} ms", buildFile, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * The removal of a single plugin, with its patterns compiled once for all the build files.
+     */
+    private static final class PluginRemoval {
+        private final String plugin;
+
+        private final Set<String> tasks;
+
+        private final Set<String> configBlocks;
+
+        private final Set<String> pluginImports;
+
+        private final Pattern applyPattern;
+
+        private final Pattern quotedPattern;
+
+        private final Pattern unquotedPattern;
+
+        private final List<Pattern> blockPatterns = new ArrayList<>();
+
+        private final List<Pattern> taskBlockPatterns = new ArrayList<>();
+
+        private PluginRemoval(String plugin) throws ManipulationException {
             PluginReference pluginReference = PLUGINS.get(plugin);
-            Set<String> tasks;
-            Set<String> configBlocks;
             String pluginType;
             String configureExtension;
-            Set<String> pluginImports;
 
             if (plugin.matches(".signing.")) {
                 configBlocks = Collections.singleton("signing");
@@ -186,108 +242,139 @@ public class PluginUtils {
                 pluginImports = pluginReference.imports;
                 configureExtension = pluginReference.configureExtension;
             }
+            this.plugin = plugin;
+
+            applyPattern = Pattern.compile("\\s*apply.*" + plugin + ".*");
+            // Plugins can be applied as below with quote variation of ", ', `
+            // id("...")
+            // id "..."
+            // apply plugin: "..."
+            quotedPattern = Pattern.compile(".*([`\"'])" + plugin + "([`\"']).*");
+            unquotedPattern = Pattern.compile(".*\\s+" + plugin + "(\\s|$)+.*");
+
+            // Remove any configuration block
+            for (String configBlock : configBlocks) {
+                blockPatterns.add(Pattern.compile("(?m)(^|project\\.|\\s)+" + configBlock + "(\\s|$)+"));
+            }
+            // Remove withType blocks
+            if (isNotEmpty(pluginType)) {
+                blockPatterns.add(Pattern.compile("plugins.withType<" + pluginType + ">"));
+            }
+            // Remove withId blocks e.g.
+            // plugins.withId("de.marcphilipp.nexus-publish") { ... }
+            blockPatterns.add(Pattern.compile("plugins.withId\\(\"" + plugin + "\"\\)"));
+            // Remove configure extension blocks e.g.
+            // configure<NexusPublishExtension> {
+            if (isNotEmpty(configureExtension)) {
+                blockPatterns.add(Pattern.compile("configure<" + configureExtension + ">"));
+            }
+            // Remove any multi-line task references e.g.
+            // rootProject.tasks.named("closeAndReleaseRepository") {
+            for (String t : tasks) {
+                taskBlockPatterns.add(Pattern.compile("(?m)^.*\\(\"" + t + "\"\\)(\\.configure|)"));
+                // Sometimes tasks can be single quoted e.g.
+                // tasks.named('closeAndReleaseRepository') {
+                taskBlockPatterns.add(Pattern.compile("(?m)^.*\\('" + t + "'\\)(\\.configure|)"));
+                taskBlockPatterns.add(Pattern.compile("(?m)^.*named<" + t + ">.*?\\s"));
+            }
+        }
 
-            final Collection<File> files = FileUtils.listFiles(target,
-                    new WildcardFileFilter("*.gradle", "*.gradle.kts"), TrueFileFilter.INSTANCE);
-
-            for (File buildFile : files) {
-                try {
-                    List<String> lines = org.apache.commons.io.FileUtils.readLines(buildFile, Charset.defaultCharset());
-                    String eol = getEOL(logger, buildFile);
-
-                    for (int i = 0; i < lines.size(); i++) {
-                        // Special case handling - https://github.com/marcphilipp/nexus-publish-plugin implicitly
-                        // applies the maven-publish plugin so apply it manually to avoid breakages
-                        if (plugin.equals("de.marcphilipp.nexus-publish") &&
-                                lines.get(i).matches("\\s*apply.*" + plugin + ".*")) {
-                            logger.debug("Replacing nexus-publish apply plugin with maven-publish");
-                            if (buildFile.getName().endsWith(".gradle")) {
-                                lines.set(i, "apply plugin: \"maven-publish\"");
-                            } else {
-                                lines.set(i, "apply(plugin = \"maven-publish\")");
-                            }
-                            break;
-                        }
-                    }
-                    // Remove the plugin. Plugins can be applied as below with quote variation of ", ', `
-                    // id("...")
-                    // id "..."
-                    // apply plugin: "..."
-                    boolean removed = lines.removeIf(i -> i.matches(".*([`\"'])" + plugin + "([`\"']).*") &&
-                            !i.contains("plugins.withId"));
-                    removed |= lines.removeIf(i -> i.matches(".*\\s+" + plugin + "(\\s|$)+.*")
-                            && !i.contains("{"));
-
-                    // Remove any task references.
-                    for (String t : tasks) {
-                        removed |= lines.removeIf(i -> i.contains(t) && !i.contains("{"));
+        /**
+         * Removes the plugin from the content of a build file.
+         *
+         * @return the new content, or null if nothing was removed
+         */
+        private String apply(Logger logger, File buildFile, String eol, String original)
+                throws ManipulationException, IOException {
+            final List<String> lines = IOUtils.readLines(new StringReader(original));
+
+            for (int i = 0; i < lines.size(); i++) {
+                // Special case handling - https://github.com/marcphilipp/nexus-publish-plugin implicitly
+                // applies the maven-publish plugin so apply it manually to avoid breakages
+                if (plugin.equals("de.marcphilipp.nexus-publish") && applyPattern.matcher(lines.get(i)).matches()) {
+                    logger.debug("Replacing nexus-publish apply plugin with maven-publish");
+                    if (buildFile.getName().endsWith(".gradle")) {
+                        lines.set(i, "apply plugin: \"maven-publish\"");
+                    } else {
+                        lines.set(i, "apply(plugin = \"maven-publish\")");
                     }
+                    break;
+                }
+            }
+            boolean removed = lines.removeIf(i -> quotedPattern.matcher(i).matches() &&
+                    !i.contains("plugins.withId"));
+            removed |= lines.removeIf(i -> unquotedPattern.matcher(i).matches() && !i.contains("{"));
 
-                    // Remove any imports.
-                    for (String pluginImport : pluginImports) {
-                        removed |= lines.removeIf(i -> i.contains("import " + pluginImport));
-                    }
+            // Remove any task references.
+            for (String t : tasks) {
+                removed |= lines.removeIf(i -> i.contains(t) && !i.contains("{"));
+            }
 
-                    String content = String.join(eol, lines);
-                    StringBuilder contentBuilder;
+            // Remove any imports.
+            for (String pluginImport : pluginImports) {
+                final String importStatement = "import " + pluginImport;
+                removed |= lines.removeIf(i -> i.contains(importStatement));
+            }
 
-                    // Remove any configuration block
-                    for (String configBlock : configBlocks) {
-                        contentBuilder = new StringBuilder(content);
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "(?m)(^|project\\.|\\s)+" + configBlock + "(\\s|$)+");
-                        content = contentBuilder.toString();
-                    }
+            final StringBuilder content = new StringBuilder(String.join(eol, lines));
 
-                    // Remove withType blocks
-                    if (isNotEmpty(pluginType)) {
-                        contentBuilder = new StringBuilder(content);
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "plugins.withType<" + pluginType + ">");
-                        content = contentBuilder.toString();
-                    }
+            for (Pattern block : blockPatterns) {
+                removed |= removeBlock(logger, buildFile, eol, content, block);
+            }
+            for (Pattern block : taskBlockPatterns) {
+                removed |= removeBlock(logger, buildFile, eol, content, block);
+            }
 
-                    // Remove withId blocks e.g.
-                    // plugins.withId("de.marcphilipp.nexus-publish") { ... }
-                    contentBuilder = new StringBuilder(content);
-                    removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                            "plugins.withId\\(\"" + plugin + "\"\\)");
-                    content = contentBuilder.toString();
-
-                    // Remove configure extension blocks e.g.
-                    // configure<NexusPublishExtension> {
-                    if (isNotEmpty(configureExtension)) {
-                        contentBuilder = new StringBuilder(content);
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "configure<" + configureExtension + ">");
-                        content = contentBuilder.toString();
-                    }
+            if (removed) {
+                logger.info("Removed instances of plugin {} with configuration block of {} from {}", plugin,
+                        String.join(",", configBlocks), buildFile);
+                return content.toString();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Finds all the Gradle build scripts (*.gradle and *.gradle.kts) below the target in a single walk, skipping the
+     * Gradle and Git metadata directories as well as build output directories.
+     */
+    private static List<File> findBuildFiles(File target) throws ManipulationException {
+        final List<File> result = new ArrayList<>();
 
-                    // Remove any multi-line task references e.g.
-                    // rootProject.tasks.named("closeAndReleaseRepository") {
-                    for (String t : tasks) {
-                        contentBuilder = new StringBuilder(content);
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "(?m)^.*\\(\"" + t + "\"\\)(\\.configure|)");
-                        // Sometimes tasks can be single quoted e.g.
-                        // tasks.named('closeAndReleaseRepository') {
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "(?m)^.*\\('" + t + "'\\)(\\.configure|)");
-                        removed |= removeBlock(logger, buildFile, eol, contentBuilder,
-                                "(?m)^.*named<" + t + ">.*?\\s");
-                        content = contentBuilder.toString();
+        try {
+            Files.walkFileTree(target.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    final String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+
+                    if (!dir.equals(target.toPath()) && (".gradle".equals(name) || ".git".equals(name)
+                            || ("build".equals(name) && !isProjectDirectory(dir)))) {
+                        return FileVisitResult.SKIP_SUBTREE;
                     }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    final String name = file.getFileName().toString();
 
-                    if (removed) {
-                        logger.info("Removed instances of plugin {} with configuration block of {} from {}", plugin,
-                                String.join(",", configBlocks), buildFile);
-                        FileUtils.writeStringToFile(buildFile, content, Charset.defaultCharset());
+                    if (attrs.isRegularFile() && (name.endsWith(".gradle") || name.endsWith(".gradle.kts"))) {
+                        result.add(file.toFile());
                     }
-                } catch (IOException e) {
-                    throw new ManipulationException("Unable to read build file {}", buildFile, e);
+                    return FileVisitResult.CONTINUE;
                 }
-            }
+            });
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to search for build files in {}", target, e);
         }
+        return result;
+    }
+
+    /**
+     * A directory named {@code build} is normally the build output, unless it holds a build script of its own.
+     */
+    private static boolean isProjectDirectory(Path dir) {
+        return Files.exists(dir.resolve("build.gradle")) || Files.exists(dir.resolve("build.gradle.kts"));
     }
 
     /**
@@ -323,10 +410,7 @@ public class PluginUtils {
     public static void addLenientLockMode(Logger logger, File target)
             throws ManipulationException {
         final String depLock = "dependencyLocking {";
-        final Collection<File> files = FileUtils.listFiles(target, new WildcardFileFilter("*.gradle", "*.gradle.kts"),
-                TrueFileFilter.INSTANCE);
-
-        for (File buildFile : files) {
+        for (File buildFile : findBuildFiles(target)) {
             boolean removed = false;
             try {
                 List<String> lines = org.apache.commons.io.FileUtils.readLines(buildFile, Charset.defaultCharset());
@@ -365,11 +449,10 @@ public class PluginUtils {
         return eol;
     }
 
-    private static boolean removeBlock(Logger logger, File buildFile, String eol, StringBuilder content, String block)
-            throws ManipulationException {
+    private static boolean removeBlock(Logger logger, File buildFile, String eol, StringBuilder content,
+            Pattern pattern) throws ManipulationException {
         boolean removed = false;
 
-        Pattern pattern = Pattern.compile(block);
         Matcher m = pattern.matcher(content);
 
         while (m.find()) {
@@ -407,7 +490,7 @@ public class PluginUtils {
             }
             if (bracketCount != 0) {
                 throw new ManipulationException(
-                        "Unable to locate block {} to remove within {}", block,
+                        "Unable to locate block {} to remove within {}", pattern.pattern(),
                         buildFile);
             }
             logger.debug("Removing plugin block of {}",
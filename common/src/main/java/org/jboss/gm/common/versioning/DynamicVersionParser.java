@@ -1,38 +1,60 @@
 package org.jboss.gm.common.versioning;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.ExactVersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.LatestVersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.SubVersionSelector;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionRangeSelector;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.jboss.gm.common.utils.BoundedCache;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 public class DynamicVersionParser {
 
+    /**
+     * Upper bound on the number of cached version classifications. A build only uses a limited set of version
+     * strings, so this is rarely reached.
+     */
+    private static final int MAX_CACHED_VERSIONS = 16384;
+
     private static final VersionSelectorScheme selector = new DefaultVersionSelectorScheme(new DefaultVersionComparator(),
             new VersionParser());
 
+    /**
+     * Whether each known type of {@link VersionSelector} is dynamic.
+     */
+    private static final Map<Class<?>, Boolean> selectorTypes = new HashMap<>();
+
+    static final BoundedCache<String, Boolean> versions = new BoundedCache<>(MAX_CACHED_VERSIONS);
+
+    static {
+        selectorTypes.put(ExactVersionSelector.class, false);
+        selectorTypes.put(SubVersionSelector.class, true);
+        selectorTypes.put(LatestVersionSelector.class, true);
+        selectorTypes.put(VersionRangeSelector.class, true);
+    }
+
     public static boolean isDynamic(String version) {
 
         if (isEmpty(version)) {
             return false;
         }
-        VersionSelector s = selector.parseSelector(version);
+        return versions.get(version, v -> {
+            VersionSelector s = selector.parseSelector(v);
+            Boolean dynamic = selectorTypes.get(s.getClass());
 
-        switch (s.getClass().getName()) {
-            case "org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.ExactVersionSelector": {
-                return false;
-            }
-            case "org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.SubVersionSelector":
-            case "org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.LatestVersionSelector":
-            case "org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionRangeSelector": {
-                return true;
-            }
-            default: {
+            if (dynamic == null) {
                 throw new ManipulationUncheckedException("Unknown version type for {}", s);
             }
-        }
+            return dynamic;
+        });
     }
 }
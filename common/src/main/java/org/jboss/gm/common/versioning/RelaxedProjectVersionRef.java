@@ -51,6 +51,21 @@ public class RelaxedProjectVersionRef
         this.projectVersionRefDelegate = projectVersionRefDelegate;
     }
 
+    /**
+     * Parses the string form ({@code groupId:artifactId[:version]}) of a RelaxedProjectVersionRef.
+     *
+     * @param gav the string to parse
+     * @return the parsed reference
+     */
+    public static RelaxedProjectVersionRef parse(String gav) {
+        final String[] parts = gav.split(":", 3);
+
+        if (parts.length < 2) {
+            throw new ManipulationUncheckedException("Unable to parse '{}' as a GAV", gav);
+        }
+        return new RelaxedProjectVersionRef(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+    }
+
     @Override
     public ProjectVersionRef asProjectVersionRef() {
         return projectVersionRefDelegate;
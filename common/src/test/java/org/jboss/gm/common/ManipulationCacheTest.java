@@ -0,0 +1,94 @@
+package org.jboss.gm.common;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jboss.gm.common.versioning.ProjectVersionFactory;
+import org.jboss.gm.common.versioning.RelaxedProjectVersionRef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ManipulationCacheTest {
+
+    private static final int PROJECTS = 64;
+
+    private static final int THREADS = 16;
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    /**
+     * Mimics the alignment tasks of many projects running concurrently, in random order.
+     */
+    @Test
+    public void concurrentAlignmentTasks() throws Exception {
+        final File rootDir = tempDir.newFolder("root");
+        final Project root = ProjectBuilder.builder().withProjectDir(rootDir).withName("root").build();
+        final List<Project> projects = new ArrayList<>();
+
+        projects.add(root);
+        for (int i = 0; i < PROJECTS; i++) {
+            projects.add(ProjectBuilder.builder().withParent(root).withName("child" + i).build());
+        }
+        final ManipulationCache cache = ManipulationCache.getCache(root);
+        Collections.shuffle(projects);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> results = new ArrayList<>();
+        try {
+            for (Project project : projects) {
+                // Project model changes are not thread-safe so only the cache is accessed concurrently.
+                final ArtifactRepository repository = project.getRepositories().mavenCentral();
+                results.add(executor.submit(alignmentTask(cache, project, repository, start)));
+            }
+            start.countDown();
+
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getDependencies()).hasSize(PROJECTS + 1);
+        assertThat(cache.getRepositories()).hasSize(PROJECTS + 1);
+        assertThat(cache.getDependencies().keySet().iterator().next()).isSameAs(root);
+        assertThat(cache.getDependencies().keySet().stream().map(Project::getPath).collect(Collectors.toList()))
+                .isSorted();
+
+        final List<ProjectVersionRef> gavs = cache.getProjectVersionRefs(true);
+        assertThat(gavs).hasSize(PROJECTS + 1);
+        assertThat(gavs.get(0).getArtifactId()).isEqualTo("root");
+        assertThat(cache.getProjectVersionRefs(true)).isEqualTo(gavs);
+    }
+
+    private static Callable<Void> alignmentTask(ManipulationCache cache, Project project,
+            ArtifactRepository repository, CountDownLatch start) {
+        return () -> {
+            start.await();
+
+            final ProjectVersionRef gav = ProjectVersionFactory.withGAV("org.foo", project.getName(), "1.0");
+            cache.addDependencies(project, Collections.singletonMap(new RelaxedProjectVersionRef(gav), gav));
+            cache.addRepository(repository, Paths.get(project.getName()));
+            cache.addGAV(project, gav);
+            return null;
+        };
+    }
+}
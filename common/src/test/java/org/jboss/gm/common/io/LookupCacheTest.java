@@ -0,0 +1,104 @@
+package org.jboss.gm.common.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LookupCacheTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void testPersistence() throws IOException {
+        final Path file = LookupCache.fileFor(tempDir.getRoot().toPath(), "ns");
+
+        final LookupCache cache = new LookupCache(file, "ns", 0, 0, 100, false);
+        assertThat(cache.get("org.foo:bar:1.0")).isNull();
+        cache.put("org.foo:bar:1.0", "1.0.redhat-00001");
+        cache.put("org.foo:baz:1.0", null);
+        cache.save();
+
+        final LookupCache reloaded = new LookupCache(file, "ns", 0, 0, 100, false);
+        assertThat(reloaded.get("org.foo:bar:1.0").getValue()).isEqualTo("1.0.redhat-00001");
+        assertThat(reloaded.get("org.foo:baz:1.0")).isNotNull().satisfies(e -> assertThat(e.getValue()).isNull());
+        assertThat(reloaded.get("org.foo:qux:1.0")).isNull();
+        assertThat(reloaded.getHits()).isEqualTo(2);
+        assertThat(reloaded.getMisses()).isEqualTo(1);
+
+        assertThat(new LookupCache(file, "other", 0, 0, 100, false).size()).isEqualTo(0);
+        assertThat(new LookupCache(file, "ns", 0, 0, 100, true).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testExpiry() throws IOException, InterruptedException {
+        final Path file = LookupCache.fileFor(tempDir.getRoot().toPath(), "ns");
+
+        final LookupCache cache = new LookupCache(file, "ns", 1, 1, 100, false);
+        cache.put("org.foo:bar:1.0", "1.0.redhat-00001");
+        Thread.sleep(10);
+        assertThat(cache.get("org.foo:bar:1.0")).isNull();
+        cache.save();
+
+        assertThat(new LookupCache(file, "ns", 1, 1, 100, false).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        final Path file = LookupCache.fileFor(tempDir.getRoot().toPath(), "ns");
+
+        final LookupCache cache = new LookupCache(file, "ns", 0, 0, 2, false);
+        cache.put("a:a:1", "1");
+        cache.put("b:b:1", "1");
+        cache.put("c:c:1", "1");
+        // Access the eldest entry so that b:b:1 becomes the least recently used.
+        assertThat(cache.get("a:a:1")).isNotNull();
+        cache.save();
+
+        final LookupCache reloaded = new LookupCache(file, "ns", 0, 0, 2, false);
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.get("b:b:1")).isNull();
+        assertThat(reloaded.get("a:a:1")).isNotNull();
+        assertThat(reloaded.get("c:c:1")).isNotNull();
+    }
+
+    @Test
+    public void testNegativeExpiry() throws IOException, InterruptedException {
+        final Path file = LookupCache.fileFor(tempDir.getRoot().toPath(), "ns");
+
+        final LookupCache cache = new LookupCache(file, "ns", 0, 1, 100, false);
+        cache.put("org.foo:bar:1.0", "1.0.redhat-00001");
+        cache.put("org.foo:baz:1.0", null);
+        Thread.sleep(10);
+        assertThat(cache.get("org.foo:bar:1.0")).isNotNull();
+        assertThat(cache.get("org.foo:baz:1.0")).isNull();
+    }
+
+    @Test
+    public void testRecencyIsSavedWithoutChanges() throws IOException {
+        final Path file = LookupCache.fileFor(tempDir.getRoot().toPath(), "ns");
+
+        final LookupCache cache = new LookupCache(file, "ns", 0, 0, 3, false);
+        cache.put("a:a:1", "1");
+        cache.put("b:b:1", "1");
+        cache.put("c:c:1", "1");
+        cache.save();
+
+        // A build that only reads from the cache makes a:a:1 the most recently used entry.
+        final LookupCache reader = new LookupCache(file, "ns", 0, 0, 3, false);
+        assertThat(reader.get("a:a:1")).isNotNull();
+        reader.save();
+
+        final LookupCache reloaded = new LookupCache(file, "ns", 0, 0, 3, false);
+        reloaded.put("d:d:1", "1");
+        reloaded.save();
+        final LookupCache trimmed = new LookupCache(file, "ns", 0, 0, 3, false);
+        assertThat(trimmed.get("b:b:1")).isNull();
+        assertThat(trimmed.get("a:a:1")).isNotNull();
+    }
+}
@@ -0,0 +1,117 @@
+package org.jboss.gm.common.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ManipulationIOTest {
+
+    static final String MODEL = "{\n"
+            + "  \"group\" : \"org.acme\",\n"
+            + "  \"name\" : \"root\",\n"
+            + "  \"projectPathName\" : \"root\",\n"
+            + "  \"version\" : \"1.0.0.redhat-00001\",\n"
+            + "  \"alignedDependencies\" : {\n"
+            + "    \"org.hibernate:hibernate-core:5.3.7.Final\" : {\n"
+            + "      \"groupId\" : \"org.hibernate\",\n"
+            + "      \"artifactId\" : \"hibernate-core\",\n"
+            + "      \"version\" : \"5.3.7.Final-redhat-00001\"\n"
+            + "    }\n"
+            + "  },\n"
+            + "  \"children\" : {\n"
+            + "    \"child1\" : {\n"
+            + "      \"group\" : \"org.acme\",\n"
+            + "      \"name\" : \"child1\",\n"
+            + "      \"projectPathName\" : \"child1\",\n"
+            + "      \"version\" : \"1.0.0.redhat-00001\",\n"
+            + "      \"children\" : {\n"
+            + "        \"child11\" : {\n"
+            + "          \"group\" : \"org.acme\",\n"
+            + "          \"name\" : \"child11-custom\",\n"
+            + "          \"projectPathName\" : \"child11\",\n"
+            + "          \"version\" : \"1.0.0.redhat-00001\",\n"
+            + "          \"alignedDependencies\" : {\n"
+            + "            \"io.undertow:undertow-core:2.0.15.Final\" : {\n"
+            + "              \"groupId\" : \"io.undertow\",\n"
+            + "              \"artifactId\" : \"undertow-core\",\n"
+            + "              \"version\" : \"2.0.15.Final-redhat-00001\"\n"
+            + "            }\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    },\n"
+            + "    \"child2\" : {\n"
+            + "      \"group\" : \"org.acme\",\n"
+            + "      \"name\" : \"child2\",\n"
+            + "      \"projectPathName\" : \"child2\",\n"
+            + "      \"version\" : \"1.0.0.redhat-00001\"\n"
+            + "    }\n"
+            + "  }\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private File rootDir;
+
+    @Before
+    public void setup() throws IOException {
+        rootDir = tempDir.newFolder("root");
+        FileUtils.writeStringToFile(new File(rootDir, ManipulationIO.MANIPULATION_FILE_NAME), MODEL,
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void readSingleModule() {
+        final ManipulationModel full = ManipulationIO.readManipulationModel(rootDir);
+
+        assertThat(ManipulationIO.readManipulationModel(rootDir, ":")).isEqualTo(full);
+
+        final ManipulationModel child11 = ManipulationIO.readManipulationModel(rootDir, ":child1:child11");
+        assertThat(child11).isEqualTo(full.getChildren().get("child1").getChildren().get("child11"));
+        assertThat(child11.getAlignedDependencies()).containsOnlyKeys("io.undertow:undertow-core:2.0.15.Final");
+
+        final ManipulationModel child1 = ManipulationIO.readManipulationModel(rootDir, ":child1");
+        assertThat(child1.getName()).isEqualTo("child1");
+        assertThat(child1.getChildren()).containsOnlyKeys("child11");
+
+        assertThatExceptionOfType(ManipulationUncheckedException.class)
+                .isThrownBy(() -> ManipulationIO.readManipulationModel(rootDir, ":child2:child11"))
+                .withMessage("ManipulationModel ':child2:child11' does not exist");
+    }
+
+    @Test
+    public void indexIsSharedByAllProjects() throws IOException {
+        final Project root = ProjectBuilder.builder().withProjectDir(rootDir).withName("root").build();
+        final Project child1 = ProjectBuilder.builder().withParent(root).withName("child1").build();
+        final Project child11 = ProjectBuilder.builder().withParent(child1).withName("child11").build();
+
+        final ManipulationModelIndex index = ManipulationModelIndex.getIndex(root);
+        assertThat(ManipulationModelIndex.getIndex(child11)).isSameAs(index);
+        assertThat(index.get(root)).isSameAs(index.getRoot());
+        assertThat(index.get(child11).getName()).isEqualTo("child11-custom");
+        assertThat(index.get(child11)).isSameAs(index.getRoot().findCorrespondingChild(child11));
+
+        assertThatExceptionOfType(ManipulationUncheckedException.class)
+                .isThrownBy(() -> index.get(":child3"))
+                .withMessage("ManipulationModel ':child3' does not exist");
+
+        // A rewritten file is indexed again.
+        FileUtils.writeStringToFile(new File(rootDir, ManipulationIO.MANIPULATION_FILE_NAME),
+                MODEL.replace("1.0.0.redhat-00001", "1.0.0.redhat-000002"), StandardCharsets.UTF_8);
+        assertThat(ManipulationModelIndex.getIndex(child1).get(child1).getVersion()).isEqualTo("1.0.0.redhat-000002");
+    }
+}
@@ -0,0 +1,91 @@
+package org.jboss.gm.common.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.jboss.gm.common.model.ManipulationModel;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ManipulationSidecarIOTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private File rootDir;
+
+    private ManipulationModel model;
+
+    @Before
+    public void setup() throws IOException, ManipulationException {
+        rootDir = tempDir.newFolder("root");
+        FileUtils.writeStringToFile(new File(rootDir, ManipulationIO.MANIPULATION_FILE_NAME), ManipulationIOTest.MODEL,
+                StandardCharsets.UTF_8);
+        model = ManipulationIO.readManipulationModel(rootDir);
+        model.setOriginalVersion("1.0.0");
+
+        ManipulationIO.writeManipulationModel(rootDir, model);
+        ManipulationSidecarIO.writeManipulationSidecar(rootDir, model);
+    }
+
+    @Test
+    public void roundTrip() {
+        final ManipulationModel sidecar = ManipulationSidecarIO.readManipulationSidecar(rootDir);
+
+        assertThat(sidecar).isEqualTo(model);
+        assertThat(sidecar.getProjectPathName()).isEqualTo("root");
+        assertThat(sidecar.getOriginalVersion()).isEqualTo("1.0.0");
+        assertThat(sidecar.getAllAlignedDependencies()).isEqualTo(model.getAllAlignedDependencies());
+        assertThat(sidecar.getChildren()).containsOnlyKeys("child1", "child2");
+
+        final ManipulationModel child11 = sidecar.findCorrespondingChild(":child1:child11");
+        assertThat(child11.getName()).isEqualTo("child11-custom");
+        assertThat(child11.getOriginalVersion()).isNull();
+        assertThat(child11).isEqualTo(model.findCorrespondingChild(":child1:child11"));
+    }
+
+    @Test
+    public void staleSidecarIsIgnored() throws IOException, ManipulationException {
+        final Path json = rootDir.toPath().resolve(ManipulationIO.MANIPULATION_FILE_NAME);
+        final String text = new String(Files.readAllBytes(json), StandardCharsets.UTF_8);
+
+        // Same length, different content. Set the modification time explicitly as the write may be within the
+        // timestamp granularity of the file system.
+        Files.write(json, text.replace("redhat-00001", "redhat-00002").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 2000));
+        assertThat(ManipulationSidecarIO.readManipulationSidecar(rootDir)).isNull();
+
+        ManipulationSidecarIO.writeManipulationSidecar(rootDir, ManipulationIO.readManipulationModel(rootDir));
+        assertThat(ManipulationSidecarIO.readManipulationSidecar(rootDir).getVersion())
+                .isEqualTo("1.0.0.redhat-00002");
+    }
+
+    @Test
+    public void touchedSidecarIsVerified() throws IOException {
+        final Path json = rootDir.toPath().resolve(ManipulationIO.MANIPULATION_FILE_NAME);
+
+        // The content is unchanged so the checksum still matches.
+        Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 2000));
+        assertThat(ManipulationSidecarIO.readManipulationSidecar(rootDir)).isEqualTo(model);
+    }
+
+    @Test
+    public void corruptSidecarIsIgnored() throws IOException {
+        final Path sidecar = rootDir.toPath().resolve(ManipulationSidecarIO.SIDECAR_FILE_NAME);
+        final byte[] bytes = Files.readAllBytes(sidecar);
+
+        Files.write(sidecar, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThat(ManipulationSidecarIO.readManipulationSidecar(rootDir)).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package org.jboss.gm.common.logging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.rules.LoggingRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionSummaryTest {
+
+    @Rule
+    public LoggingRule rule = new LoggingRule(LogLevel.INFO);
+
+    private final Logger logger = GMLogger.getLogger(getClass());
+
+    @Test
+    public void smallCollectionsAreOutputInFull() {
+        final List<String> list = Arrays.asList("a", "b", "c");
+
+        assertThat(CollectionSummary.of(logger, list).toString()).isEqualTo("[a, b, c]");
+        assertThat(CollectionSummary.of(logger, (List<?>) null).toString()).isEqualTo("null");
+    }
+
+    @Test
+    public void largeCollectionsAreSummarised() {
+        final List<Integer> list = new ArrayList<>();
+        final Map<Integer, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            list.add(i);
+            map.put(i, "v" + i);
+        }
+
+        assertThat(CollectionSummary.of(logger, list, 3).toString())
+                .isEqualTo("[0, 1, 2, ... 4997 more (5000 in total)]");
+        assertThat(CollectionSummary.of(logger, map, 2).toString())
+                .isEqualTo("{0=v0, 1=v1, ... 4998 more (5000 in total)}");
+        assertThat(CollectionSummary.of(logger, list).toString()).contains("9, ... 4990 more");
+    }
+
+    @Test
+    public void collectionsAreOutputInFullWhenTracing() {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            list.add(i);
+        }
+
+        assertThat(logger.isTraceEnabled()).isFalse();
+        assertThat(CollectionSummary.of(logger, list).toString()).contains("40 more");
+
+        // GMLogger sends trace output to Gradle's debug level.
+        FilteringCustomLogger.getContext().setLevel(LogLevel.DEBUG);
+
+        assertThat(logger.isTraceEnabled()).isTrue();
+        assertThat(CollectionSummary.of(logger, list).toString()).isEqualTo(list.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package org.jboss.gm.common.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.internal.logging.events.LogEvent;
+import org.gradle.internal.logging.events.OutputEvent;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FilteringCustomLoggerTest {
+
+    @Test
+    public void filterCategories() {
+        final List<OutputEvent> output = new ArrayList<>();
+        final FilteringCustomLogger logger = new FilteringCustomLogger(output::add);
+
+        // Each category twice so that the cached decisions are used as well.
+        for (int i = 0; i < 2; i++) {
+            logger.onOutput(event("org.gradle.internal.operations.DefaultBuildOperationExecutor"));
+            logger.onOutput(event("org.gradle.api.Project"));
+            logger.onOutput(event("org.commonjava.maven.ext.core.impl.VersionCalculator"));
+            logger.onOutput(event("org.jboss.gm.analyzer.alignment.AlignmentTask"));
+        }
+
+        assertThat(output).hasSize(4);
+        assertThat(output.get(0)).isInstanceOfSatisfying(LogEvent.class, e -> {
+            assertThat(e.getCategory()).isEqualTo("org.commonjava.maven.ext.core.impl.VersionCalculator");
+            assertThat(e.getLogLevel()).isEqualTo(LogLevel.LIFECYCLE);
+        });
+        assertThat(output.get(1)).isInstanceOfSatisfying(LogEvent.class, e -> {
+            assertThat(e.getCategory()).isEqualTo("org.jboss.gm.analyzer.alignment.AlignmentTask");
+            assertThat(e.getLogLevel()).isEqualTo(LogLevel.INFO);
+        });
+    }
+
+    private static LogEvent event(String category) {
+        return new LogEvent(0, category, LogLevel.INFO, "message", null);
+    }
+}
@@ -44,6 +44,21 @@ public class GMLoggerTest {
         assertTrue(systemOutRule.getLog().contains("Test logging at debug"));
     }
 
+    @Test
+    public void callSite() {
+        System.setProperty("loggingLevel", "true");
+        Configuration c = ConfigCache.getOrCreate(Configuration.class);
+        c.reload();
+
+        Logger logger = GMLogger.getLogger(this.getClass());
+        for (int i = 0; i < 2; i++) {
+            logger.warn("Test logging call site {}", i);
+        }
+
+        assertTrue(systemOutRule.getLog().contains("[WARN][GMLoggerTest.java:"));
+        assertTrue(systemOutRule.getLog().contains("Test logging call site 1"));
+    }
+
     @Test
     public void checkContext() {
         assertNotNull(FilteringCustomLogger.getContext());
@@ -0,0 +1,44 @@
+package org.jboss.gm.common.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void valuesAreComputedOnce() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(8);
+        final AtomicInteger computations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get("abc", k -> {
+                computations.incrementAndGet();
+                return k.length();
+            })).isEqualTo(3);
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+
+        cache.get("a", String::length);
+        cache.get("b", String::length);
+        // Using "a" makes "b" the least recently used entry.
+        cache.get("a", String::length);
+        cache.get("c", String::length);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getHits()).isEqualTo(1);
+        cache.get("a", String::length);
+        assertThat(cache.getHits()).isEqualTo(2);
+        cache.get("b", String::length);
+        assertThat(cache.getMisses()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,84 @@
+package org.jboss.gm.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class PhaseMetricsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void reset() {
+        PhaseMetrics.reset();
+    }
+
+    @Test
+    public void testNestedPhases() {
+        try (PhaseMetrics.Phase outer = PhaseMetrics.start("restLookup")) {
+            outer.attribute("gavs", 10).attribute("project", ":module");
+            for (int i = 0; i < 3; i++) {
+                try (PhaseMetrics.Phase ignored = PhaseMetrics.start("resolution")) {
+                    PhaseMetrics.attribute("chunks", 2);
+                }
+            }
+            // Applies to the innermost open phase, i.e. the outer one once the nested phases are closed.
+            PhaseMetrics.attribute("chunks", 1);
+        }
+        final Map<String, Map<String, Object>> summaries = PhaseMetrics.getSummaries();
+
+        assertThat(summaries).containsOnlyKeys("restLookup", "resolution");
+        assertThat(summaries.get("resolution")).containsEntry("count", 3L);
+        assertThat(attributes(summaries.get("resolution"))).containsOnly(entry("chunks", 6L));
+        assertThat(summaries.get("restLookup")).containsEntry("count", 1L);
+        assertThat(attributes(summaries.get("restLookup")))
+                .containsEntry("gavs", 10L)
+                .containsEntry("chunks", 1L)
+                .doesNotContainKey("project");
+    }
+
+    @Test
+    public void testAttributeWithoutPhase() {
+        PhaseMetrics.attribute("chunks", 1);
+
+        assertThat(PhaseMetrics.getSummaries()).isEmpty();
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        try (PhaseMetrics.Phase phase = PhaseMetrics.start("collection")) {
+            phase.attribute("dependencies", 5);
+        }
+        try (PhaseMetrics.Phase phase = PhaseMetrics.start("collection")) {
+            phase.attribute("dependencies", 7);
+        }
+        PhaseMetrics.write(folder.getRoot());
+
+        final JsonNode phases = new ObjectMapper().readTree(new File(folder.getRoot(), PhaseMetrics.METRICS_FILE))
+                .get("phases");
+
+        assertThat(phases).hasSize(1);
+        assertThat(phases.get(0).get("name").asText()).isEqualTo("collection");
+        assertThat(phases.get(0).get("count").asLong()).isEqualTo(2);
+        assertThat(phases.get(0).get("maxMillis").asLong())
+                .isLessThanOrEqualTo(phases.get(0).get("totalMillis").asLong());
+        assertThat(phases.get(0).get("attributes").get("dependencies").asLong()).isEqualTo(12);
+        assertThat(PhaseMetrics.getSummaries()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> attributes(Map<String, Object> summary) {
+        return (Map<String, Long>) summary.get("attributes");
+    }
+}
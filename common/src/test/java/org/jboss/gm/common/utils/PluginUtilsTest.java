@@ -1024,4 +1024,35 @@ public class PluginUtilsTest {
             throws ManipulationException {
         PluginUtils.DokkaVersion.parseVersion("");
     }
+
+    @Test
+    public void testRemovalSkipsOutputDirectories()
+            throws IOException, ManipulationException {
+        final String content = "plugins {\n" + "    id 'java-library'\n" + "    id 'signing'\n"
+                + "    id 'io.codearte.nexus-staging' version '0.20.0'\n" + "}\n"
+                + "nexusStaging {\n" + "    packageGroup = \"org.acme\"\n" + "}\n"
+                + "signing {\n" + "    sign publishing.publications.mavenJava\n" + "}\n";
+
+        File target = folder.newFile("build.gradle");
+        FileUtils.writeStringToFile(target, content, Charset.defaultCharset());
+        File output = new File(folder.newFolder("build", "tmp"), "generated.gradle");
+        FileUtils.writeStringToFile(output, content, Charset.defaultCharset());
+        File metadata = new File(folder.newFolder(".gradle"), "init.gradle");
+        FileUtils.writeStringToFile(metadata, content, Charset.defaultCharset());
+        // A subproject that happens to be called build is still examined.
+        File subproject = new File(folder.newFolder("sub", "build"), "build.gradle");
+        FileUtils.writeStringToFile(subproject, content, Charset.defaultCharset());
+
+        PluginUtils.pluginRemoval(logger, folder.getRoot(), new HashSet<>(Collections.singleton("ALL")));
+
+        for (File f : new File[] { target, subproject }) {
+            final String result = FileUtils.readFileToString(f, Charset.defaultCharset());
+            assertTrue(result.contains("id 'java-library'"));
+            assertFalse(result.contains("signing"));
+            assertFalse(result.contains("nexus"));
+        }
+        assertEquals(content, FileUtils.readFileToString(output, Charset.defaultCharset()));
+        assertEquals(content, FileUtils.readFileToString(metadata, Charset.defaultCharset()));
+        assertTrue(systemOutRule.getLog().contains("for plugin removal in"));
+    }
 }
@@ -0,0 +1,30 @@
+package org.jboss.gm.common.versioning;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DynamicVersionParserTest {
+
+    @Test
+    public void testCachedSelector() {
+        final String[] versions = { "2.0.Final", "2.+", "latest.integration", "(,2.0]" };
+
+        for (String version : versions) {
+            DynamicVersionParser.isDynamic(version);
+        }
+
+        final long hits = DynamicVersionParser.versions.getHits();
+        final long misses = DynamicVersionParser.versions.getMisses();
+
+        // Every classification is now answered from the cache.
+        assertFalse(DynamicVersionParser.isDynamic("2.0.Final"));
+        assertTrue(DynamicVersionParser.isDynamic("2.+"));
+        assertTrue(DynamicVersionParser.isDynamic("latest.integration"));
+        assertTrue(DynamicVersionParser.isDynamic("(,2.0]"));
+        assertThat(DynamicVersionParser.versions.getHits()).isEqualTo(hits + versions.length);
+        assertThat(DynamicVersionParser.versions.getMisses()).isEqualTo(misses);
+    }
+}
@@ -0,0 +1,114 @@
+package org.jboss.gm.common.scale;
+
+import java.io.IOException;
+
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.commonjava.maven.ext.io.rest.DefaultTranslator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * A WireMock stand-in for the Dependency Analysis (DA) REST service, which answers from the content of each request
+ * so that builds of any size may be aligned without recording responses. The answers are deterministic:
+ * <ul>
+ * <li>a lookup of the best matches aligns every version with {@value #SUFFIX}, except for a tenth of the artifacts,
+ * chosen by the hash of their group and artifact, which have no best match;</li>
+ * <li>a lookup of the latest versions returns every version with {@value #SUFFIX}.</li>
+ * </ul>
+ * Register it with
+ *
+ * <pre>
+ * new WireMockRule(wireMockConfig().dynamicPort().extensions(new DAResponseTransformer()))
+ * </pre>
+ *
+ * and use {@link #stub(WireMockServer)} and {@link #endpoint(WireMockServer)}.
+ */
+public class DAResponseTransformer extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "da-stand-in";
+
+    public static final String SUFFIX = "redhat-00001";
+
+    private static final String PATH = "/da/rest/v-1";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Answers every DA request with this transformer.
+     *
+     * @param server the WireMock server
+     */
+    public static void stub(WireMockServer server) {
+        server.stubFor(post(urlPathMatching(PATH + "/.*"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json;charset=utf-8")
+                        .withTransformers(NAME)));
+    }
+
+    /**
+     * @param server the WireMock server
+     * @return the DA URL to configure the alignment with
+     */
+    public static String endpoint(WireMockServer server) {
+        return "http://127.0.0.1:" + server.port() + PATH;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files,
+            Parameters parameters) {
+        final boolean latest = request.getUrl().contains(DefaultTranslator.Endpoint.LOOKUP_LATEST);
+        final ArrayNode result = mapper.createArrayNode();
+
+        try {
+            final JsonNode body = mapper.readTree(request.getBodyAsString());
+
+            for (JsonNode gav : body.isArray() ? body : body.path("gavs")) {
+                final String groupId = gav.path("groupId").asText();
+                final String artifactId = gav.path("artifactId").asText();
+                final String version = gav.path("version").asText();
+                final ObjectNode node = result.addObject();
+
+                node.put("groupId", groupId);
+                node.put("artifactId", artifactId);
+                node.put("version", version);
+                if (latest) {
+                    node.put("latestVersion", version + '.' + SUFFIX);
+                } else if (Math.floorMod((groupId + ':' + artifactId).hashCode(), 10) == 0) {
+                    node.putNull("bestMatchVersion");
+                } else {
+                    node.put("bestMatchVersion", version + '.' + SUFFIX);
+                }
+            }
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                    .withBody(mapper.writeValueAsString(result))
+                    .build();
+        } catch (IOException e) {
+            throw new ManipulationUncheckedException("Unable to answer DA request {}", request.getBodyAsString(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+}
@@ -0,0 +1,471 @@
+package org.jboss.gm.common.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.model.ManipulationModel;
+
+/**
+ * Generates Gradle builds of a configurable size in order to scale test the analyzer and manipulation plugins. The
+ * generated build is self-contained: the libraries it depends upon are written, as POMs and empty jars, to a Maven
+ * repository in the {@code repo} directory of the build so that no network access is needed to resolve them.
+ * <p>
+ * Every module depends on {@link #fanOut(int)} of the generated libraries, picked deterministically, and on the module
+ * whose index is a tenth of its own. Optionally:
+ * <ul>
+ * <li>a fifth of the libraries are declared with a dynamic version, either a prefix ({@code 1.3.+}) or a range;</li>
+ * <li>a quarter of the libraries are declared without a version, which then comes from a BOM imported as a
+ * platform;</li>
+ * <li>each module has a {@code gradle.lockfile} with the resolved versions. Locking itself is not enabled as the
+ * expected lock file layout differs between Gradle versions ; the analyzer reads the lock files regardless;</li>
+ * <li>the build scripts use the Kotlin DSL.</li>
+ * </ul>
+ * The build also comes with an init script, {@value #METRICS_INIT_SCRIPT}, that samples the used heap during the build
+ * and records the largest sample to {@value #PEAK_HEAP_FILE}.
+ */
+public class LargeBuildGenerator {
+
+    public static final String GROUP = "org.gme.scale";
+
+    public static final String VERSION = "1.0.0";
+
+    public static final String ROOT_NAME = "scale-root";
+
+    public static final String BOM = GROUP + ":scale-bom:" + VERSION;
+
+    public static final String METRICS_INIT_SCRIPT = "scale-metrics.gradle";
+
+    public static final String PEAK_HEAP_FILE = "build/scale-peak-heap.txt";
+
+    /**
+     * The interval, in milliseconds, at which the init script samples the used heap.
+     */
+    private static final int HEAP_SAMPLE_INTERVAL = 50;
+
+    private static final String LOCKFILE = "gradle.lockfile";
+
+    /**
+     * An empty zip file, i.e. only the end of central directory record.
+     */
+    private static final byte[] EMPTY_JAR = { 0x50, 0x4b, 0x05, 0x06, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0 };
+
+    private int modules = 10;
+
+    private int fanOut = 10;
+
+    private int libraries = 250;
+
+    private boolean lockFiles;
+
+    private boolean platform;
+
+    private boolean dynamicVersions;
+
+    private boolean kotlinDsl;
+
+    private boolean publishing;
+
+    private String pluginId = "org.jboss.gm.analyzer";
+
+    private String jvmArgs = "-Xmx2g";
+
+    public LargeBuildGenerator modules(int modules) {
+        this.modules = modules;
+        return this;
+    }
+
+    public LargeBuildGenerator fanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    public LargeBuildGenerator libraries(int libraries) {
+        this.libraries = libraries;
+        return this;
+    }
+
+    public LargeBuildGenerator lockFiles(boolean lockFiles) {
+        this.lockFiles = lockFiles;
+        return this;
+    }
+
+    /**
+     * Requires Gradle 5 or later.
+     *
+     * @param platform whether to import a BOM as a platform
+     * @return this generator
+     */
+    public LargeBuildGenerator platform(boolean platform) {
+        this.platform = platform;
+        return this;
+    }
+
+    public LargeBuildGenerator dynamicVersions(boolean dynamicVersions) {
+        this.dynamicVersions = dynamicVersions;
+        return this;
+    }
+
+    public LargeBuildGenerator kotlinDsl(boolean kotlinDsl) {
+        this.kotlinDsl = kotlinDsl;
+        return this;
+    }
+
+    /**
+     * Whether to apply {@code maven-publish} and declare a {@code main} publication in every project, as expected
+     * by the manipulation plugin.
+     *
+     * @param publishing whether to publish the projects
+     * @return this generator
+     */
+    public LargeBuildGenerator publishing(boolean publishing) {
+        this.publishing = publishing;
+        return this;
+    }
+
+    /**
+     * @param pluginId the id of the plugin under test, applied to every project
+     * @return this generator
+     */
+    public LargeBuildGenerator plugin(String pluginId) {
+        this.pluginId = pluginId;
+        return this;
+    }
+
+    /**
+     * @param jvmArgs the arguments of the Gradle daemon running the build
+     * @return this generator
+     */
+    public LargeBuildGenerator jvmArgs(String jvmArgs) {
+        this.jvmArgs = jvmArgs;
+        return this;
+    }
+
+    /**
+     * Writes the build to the given directory.
+     *
+     * @param root the root directory of the build
+     * @throws IOException if an error occurs writing the build
+     */
+    public void generate(File root) throws IOException {
+        if (fanOut > libraries) {
+            throw new ManipulationUncheckedException("Fan out of {} exceeds the {} libraries", fanOut, libraries);
+        }
+        writeRepository(new File(root, "repo"));
+
+        final StringBuilder settings = new StringBuilder();
+        settings.append(kotlinDsl ? "rootProject.name = \"" + ROOT_NAME + "\"\n"
+                : "rootProject.name = '" + ROOT_NAME + "'\n");
+        for (int i = 0; i < modules; i++) {
+            settings.append(kotlinDsl ? "include(\"" + name(i) + "\")\n" : "include '" + name(i) + "'\n");
+        }
+        write(new File(root, kotlinDsl ? "settings.gradle.kts" : "settings.gradle"), settings.toString());
+        write(new File(root, kotlinDsl ? "build.gradle.kts" : "build.gradle"), rootBuildScript());
+        write(new File(root, "gradle.properties"), "org.gradle.jvmargs=" + jvmArgs + '\n');
+        write(new File(root, METRICS_INIT_SCRIPT), metricsInitScript());
+
+        for (int i = 0; i < modules; i++) {
+            final File moduleDir = new File(root, name(i));
+            final List<Library> dependencies = dependencies(i);
+
+            write(new File(moduleDir, kotlinDsl ? "build.gradle.kts" : "build.gradle"),
+                    moduleBuildScript(i, dependencies));
+            if (lockFiles) {
+                final StringBuilder lockFile = new StringBuilder();
+                lockFile.append("# This is a Gradle generated file for dependency locking.\n")
+                        .append("# Manual edits can break the build and are not advised.\n")
+                        .append("# This file is expected to be part of source control.\n");
+                for (Library library : dependencies) {
+                    lockFile.append(library.group).append(':').append(library.artifact).append(':')
+                            .append(library.resolved).append("=compileClasspath,runtimeClasspath\n");
+                }
+                lockFile.append("empty=\n");
+                write(new File(moduleDir, LOCKFILE), lockFile.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes the {@code manipulation.json} that the analyzer would produce for the generated build, had every
+     * dependency been aligned with the given suffix, so that the manipulation plugin may be run on its own.
+     *
+     * @param root the root directory of the build
+     * @param suffix the suffix of the aligned versions, e.g. {@code redhat-00001}
+     * @throws ManipulationException if an error occurs writing the model
+     */
+    public void writeManipulationModel(File root, String suffix) throws ManipulationException {
+        final ManipulationModel model = model(ROOT_NAME, suffix);
+
+        for (int i = 0; i < modules; i++) {
+            final ManipulationModel module = model(name(i), suffix);
+
+            if (platform) {
+                module.getAlignedDependencies().put(BOM,
+                        SimpleProjectVersionRef.parse(BOM + '.' + suffix));
+            }
+            for (Library library : dependencies(i)) {
+                if (library.declared != null) {
+                    module.getAlignedDependencies().put(
+                            library.group + ':' + library.artifact + ':' + library.declared,
+                            new SimpleProjectVersionRef(library.group, library.artifact,
+                                    library.resolved + '.' + suffix));
+                }
+            }
+            model.addChild(module);
+        }
+        ManipulationIO.writeManipulationModel(root, model);
+    }
+
+    private static ManipulationModel model(String name, String suffix) {
+        final ManipulationModel model = new ManipulationModel();
+
+        model.setGroup(GROUP);
+        model.setName(name);
+        model.setProjectPathName(name);
+        model.setVersion(VERSION + '.' + suffix);
+        model.setOriginalVersion(VERSION);
+        return model;
+    }
+
+    private static String name(int module) {
+        return String.format("module-%04d", module);
+    }
+
+    private List<Library> dependencies(int module) {
+        final List<Library> result = new ArrayList<>(fanOut);
+
+        for (int j = 0; j < fanOut; j++) {
+            result.add(library((module * fanOut + j) % libraries));
+        }
+        return result;
+    }
+
+    /**
+     * A library is always declared the same way, so that the version resolved in a module is not changed by the
+     * declarations of the modules it depends upon.
+     */
+    private Library library(int index) {
+        final String release = "1." + (index % 10) + ".0";
+        final String patch = "1." + (index % 10) + ".1";
+        final String group = GROUP + ".lib" + (index % 25);
+        final String artifact = "lib-" + index;
+
+        if (platform && index % 4 == 3) {
+            return new Library(group, artifact, null, release);
+        } else if (dynamicVersions && index % 10 == 0) {
+            return new Library(group, artifact, "1." + (index % 10) + ".+", patch);
+        } else if (dynamicVersions && index % 5 == 0) {
+            return new Library(group, artifact, "[" + release + ",2.0)", patch);
+        }
+        return new Library(group, artifact, release, release);
+    }
+
+    private String rootBuildScript() {
+        final StringBuilder script = new StringBuilder();
+
+        if (kotlinDsl) {
+            script.append("plugins {\n")
+                    .append("    id(\"").append(pluginId).append("\")\n")
+                    .append("}\n\n")
+                    .append("allprojects {\n")
+                    .append("    group = \"").append(GROUP).append("\"\n")
+                    .append("    version = \"").append(VERSION).append("\"\n\n")
+                    .append("    apply(plugin = \"java\")\n")
+                    .append("    apply(plugin = \"").append(pluginId).append("\")\n\n");
+            if (publishing) {
+                script.append("    apply(plugin = \"maven-publish\")\n\n")
+                        .append("    configure<PublishingExtension> {\n")
+                        .append("        publications {\n")
+                        .append("            create<MavenPublication>(\"main\") {\n")
+                        .append("                from(components[\"java\"])\n")
+                        .append("            }\n")
+                        .append("        }\n")
+                        .append("    }\n\n");
+            }
+            script.append("    repositories {\n")
+                    .append("        maven {\n")
+                    .append("            url = uri(\"$rootDir/repo\")\n")
+                    .append("        }\n")
+                    .append("    }\n")
+                    .append("}\n");
+        } else {
+            script.append("plugins {\n")
+                    .append("    id '").append(pluginId).append("'\n")
+                    .append("}\n\n")
+                    .append("allprojects {\n")
+                    .append("    group = '").append(GROUP).append("'\n")
+                    .append("    version = '").append(VERSION).append("'\n\n")
+                    .append("    apply plugin: 'java'\n")
+                    .append("    apply plugin: '").append(pluginId).append("'\n\n");
+            if (publishing) {
+                script.append("    apply plugin: 'maven-publish'\n\n")
+                        .append("    publishing {\n")
+                        .append("        publications {\n")
+                        .append("            main(MavenPublication) {\n")
+                        .append("                from components.java\n")
+                        .append("            }\n")
+                        .append("        }\n")
+                        .append("    }\n\n");
+            }
+            script.append("    repositories {\n")
+                    .append("        maven {\n")
+                    .append("            url = uri(\"$rootDir/repo\")\n")
+                    .append("        }\n")
+                    .append("    }\n")
+                    .append("}\n");
+        }
+        return script.toString();
+    }
+
+    private String moduleBuildScript(int module, List<Library> dependencies) {
+        final List<String> notations = new ArrayList<>(dependencies.size() + 2);
+
+        if (platform) {
+            notations.add(kotlinDsl ? "platform(\"" + BOM + "\")" : "platform('" + BOM + "')");
+        }
+        if (module >= 10) {
+            final String path = ':' + name(module / 10);
+            notations.add(kotlinDsl ? "project(\"" + path + "\")" : "project('" + path + "')");
+        }
+        for (Library library : dependencies) {
+            final String notation = library.group + ':' + library.artifact
+                    + (library.declared == null ? "" : ':' + library.declared);
+            notations.add(kotlinDsl ? '"' + notation + '"' : '\'' + notation + '\'');
+        }
+
+        final StringBuilder script = new StringBuilder("dependencies {\n");
+        for (String notation : notations) {
+            script.append(kotlinDsl ? "    \"implementation\"(" + notation + ")\n"
+                    : "    implementation " + notation + '\n');
+        }
+        return script.append("}\n").toString();
+    }
+
+    private static String metricsInitScript() {
+        return "import java.lang.management.ManagementFactory\n"
+                + "import java.util.concurrent.Executors\n"
+                + "import java.util.concurrent.TimeUnit\n"
+                + "import java.util.concurrent.atomic.AtomicLong\n"
+                + "import java.util.function.LongBinaryOperator\n\n"
+                + "// Samples the used heap during the build and records the largest sample. Summing the peaks of the\n"
+                + "// individual pools would overstate it, as the pools do not peak at the same time.\n"
+                + "def memory = ManagementFactory.memoryMXBean\n"
+                + "def max = { a, b -> Math.max(a, b) } as LongBinaryOperator\n"
+                + "def peak = new AtomicLong(memory.heapMemoryUsage.used)\n"
+                + "def sampler = Executors.newSingleThreadScheduledExecutor { r ->\n"
+                + "    def thread = new Thread(r, 'scale-heap-sampler')\n"
+                + "    thread.daemon = true\n"
+                + "    thread\n"
+                + "}\n"
+                + "def sample = { peak.accumulateAndGet(memory.heapMemoryUsage.used, max) } as Runnable\n"
+                + "sampler.scheduleAtFixedRate(sample, 0, " + HEAP_SAMPLE_INTERVAL + ", TimeUnit.MILLISECONDS)\n\n"
+                + "gradle.buildFinished {\n"
+                + "    sampler.shutdownNow()\n"
+                + "    sample.run()\n"
+                + "    def file = new File(gradle.rootProject.projectDir, '" + PEAK_HEAP_FILE + "')\n"
+                + "    file.parentFile.mkdirs()\n"
+                + "    file.text = peak.get().toString()\n"
+                + "}\n";
+    }
+
+    private void writeRepository(File repository) throws IOException {
+        final StringBuilder managed = new StringBuilder();
+
+        for (int i = 0; i < libraries; i++) {
+            final Library library = library(i);
+            final String release = "1." + (i % 10) + ".0";
+            final String patch = "1." + (i % 10) + ".1";
+
+            writeArtifact(repository, library.group, library.artifact, release, "jar", "");
+            writeArtifact(repository, library.group, library.artifact, patch, "jar", "");
+            writeMetadata(repository, library.group, library.artifact, release, patch);
+            managed.append("            <dependency>\n")
+                    .append("                <groupId>").append(library.group).append("</groupId>\n")
+                    .append("                <artifactId>").append(library.artifact).append("</artifactId>\n")
+                    .append("                <version>").append(release).append("</version>\n")
+                    .append("            </dependency>\n");
+        }
+
+        final String[] bom = BOM.split(":");
+        writeArtifact(repository, bom[0], bom[1], bom[2], "pom", "    <dependencyManagement>\n"
+                + "        <dependencies>\n"
+                + managed
+                + "        </dependencies>\n"
+                + "    </dependencyManagement>\n");
+        writeMetadata(repository, bom[0], bom[1], bom[2]);
+    }
+
+    private static void writeArtifact(File repository, String group, String artifact, String version,
+            String packaging, String content) throws IOException {
+        final File directory = new File(repository, group.replace('.', '/') + '/' + artifact + '/' + version);
+
+        write(new File(directory, artifact + '-' + version + ".pom"),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                        + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                        + "    <modelVersion>4.0.0</modelVersion>\n"
+                        + "    <groupId>" + group + "</groupId>\n"
+                        + "    <artifactId>" + artifact + "</artifactId>\n"
+                        + "    <version>" + version + "</version>\n"
+                        + "    <packaging>" + packaging + "</packaging>\n"
+                        + content
+                        + "</project>\n");
+        if ("jar".equals(packaging)) {
+            FileUtils.writeByteArrayToFile(new File(directory, artifact + '-' + version + ".jar"), EMPTY_JAR);
+        }
+    }
+
+    private static void writeMetadata(File repository, String group, String artifact, String... versions)
+            throws IOException {
+        final StringBuilder metadata = new StringBuilder();
+
+        metadata.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<metadata>\n")
+                .append("    <groupId>").append(group).append("</groupId>\n")
+                .append("    <artifactId>").append(artifact).append("</artifactId>\n")
+                .append("    <versioning>\n")
+                .append("        <latest>").append(versions[versions.length - 1]).append("</latest>\n")
+                .append("        <release>").append(versions[versions.length - 1]).append("</release>\n")
+                .append("        <versions>\n");
+        for (String version : versions) {
+            metadata.append("            <version>").append(version).append("</version>\n");
+        }
+        metadata.append("        </versions>\n")
+                .append("    </versioning>\n")
+                .append("</metadata>\n");
+        write(new File(repository, group.replace('.', '/') + '/' + artifact + "/maven-metadata.xml"),
+                metadata.toString());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static final class Library {
+
+        private final String group;
+
+        private final String artifact;
+
+        /**
+         * The version in the build script ; null if it comes from the platform.
+         */
+        private final String declared;
+
+        private final String resolved;
+
+        private Library(String group, String artifact, String declared, String resolved) {
+            this.group = group;
+            this.artifact = artifact;
+            this.declared = declared;
+            this.resolved = resolved;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.jboss.gm.common.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.logging.GMLogger;
+
+/**
+ * Records the duration and peak heap usage of the scale tests to {@value #RESULTS}, relative to the working directory
+ * of the tests, so that runs may be compared.
+ */
+public final class ScaleResults {
+
+    public static final String RESULTS = "build/reports/scale/results.csv";
+
+    private static final Logger logger = GMLogger.getLogger(ScaleResults.class);
+
+    private ScaleResults() {
+    }
+
+    /**
+     * Appends a result.
+     *
+     * @param root the root directory of a build generated by {@link LargeBuildGenerator}, which has been run with its
+     *        metrics init script
+     * @param phase the phase that was run, e.g. {@code alignment}
+     * @param build a description of the generated build
+     * @param millis the duration of the run
+     * @throws IOException if an error occurs
+     */
+    public static void record(File root, String phase, String build, long millis) throws IOException {
+        final File results = new File(RESULTS);
+        final File peakHeapFile = new File(root, LargeBuildGenerator.PEAK_HEAP_FILE);
+        final long peakHeap = peakHeapFile.exists()
+                ? Long.parseLong(FileUtils.readFileToString(peakHeapFile, StandardCharsets.UTF_8).trim()) >> 20
+                : -1;
+        final String result = String.format("%s,%s,%d,%d%n", phase, build, millis, peakHeap);
+
+        logger.lifecycle("Scale test {} of {} took {} ms with a peak heap of {} MB", phase, build, millis, peakHeap);
+        if (!results.exists()) {
+            FileUtils.writeStringToFile(results, String.format("phase,build,millis,peakHeapMB%n"),
+                    StandardCharsets.UTF_8);
+        }
+        FileUtils.writeStringToFile(results, result, StandardCharsets.UTF_8, true);
+    }
+}
@@ -91,6 +91,18 @@ val functionalTest = task<Test>("functionalTest") {
     mustRunAfter(tasks["test"])
 }
 
+// Scale tests against generated builds of up to 2000 modules ; the functional tests skip them.
+task<Test>("scaleTest") {
+    description = "Runs scale tests"
+    group = "verification"
+    testClassesDirs = sourceSets["functionalTest"].output.classesDirs
+    classpath = sourceSets["functionalTest"].runtimeClasspath
+    filter.includeTestsMatching("*ScaleFunctionalTest")
+    systemProperties["gmeScaleTest"] = "true"
+    mustRunAfter(functionalTest)
+    dependsOn("shadowJar")
+}
+
 // Implicit dependencies detected by Gradle 7
 // See <https://docs.gradle.org/7.0/userguide/validation_problems.html#implicit_dependency>
 tasks.getByName("check") {
@@ -0,0 +1,94 @@
+package org.jboss.gm.manipulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.jboss.gm.common.scale.DAResponseTransformer;
+import org.jboss.gm.common.scale.LargeBuildGenerator;
+import org.jboss.gm.common.scale.ScaleResults;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Manipulates generated builds of 50 to 2000 modules, using the alignment that the analyzer would produce, and records
+ * the duration and peak heap of the POM generation to {@value ScaleResults#RESULTS}. These tests only run when the
+ * {@code gmeScaleTest} system property is set, as done by the {@code scaleTest} task.
+ */
+@RunWith(Parameterized.class)
+public class LargeBuildScaleFunctionalTest {
+
+    private static final String TASK = "generatePomFileForMainPublication";
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Parameters(name = "{0} modules, kotlin {1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] {
+                { 50, false },
+                { 50, true },
+                { 500, false },
+                { 2000, false } });
+    }
+
+    private final int modules;
+
+    private final boolean kotlinDsl;
+
+    public LargeBuildScaleFunctionalTest(int modules, boolean kotlinDsl) {
+        this.modules = modules;
+        this.kotlinDsl = kotlinDsl;
+    }
+
+    @Before
+    public void setup() {
+        assumeTrue(Boolean.getBoolean("gmeScaleTest"));
+    }
+
+    @Test
+    public void manipulateLargeBuild() throws IOException, ManipulationException {
+        final File projectRoot = tempDir.newFolder("scale");
+        final LargeBuildGenerator generator = new LargeBuildGenerator()
+                .modules(modules)
+                .fanOut(20)
+                .dynamicVersions(true)
+                .kotlinDsl(kotlinDsl)
+                .publishing(true)
+                .plugin("org.jboss.gm.manipulation");
+
+        generator.generate(projectRoot);
+        generator.writeManipulationModel(projectRoot, DAResponseTransformer.SUFFIX);
+
+        final long start = System.nanoTime();
+        final BuildResult result = TestUtils.createGradleRunner()
+                .withProjectDir(projectRoot)
+                .withArguments("--init-script", LargeBuildGenerator.METRICS_INIT_SCRIPT, "--stacktrace", TASK)
+                .withPluginClasspath()
+                .build();
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.tasks(TaskOutcome.SUCCESS)).filteredOn(t -> t.getPath().endsWith(TASK))
+                .hasSize(modules + 1);
+        assertThat(FileUtils.readFileToString(
+                new File(projectRoot, "module-0000/build/publications/main/pom-default.xml"), StandardCharsets.UTF_8))
+                .contains('.' + DAResponseTransformer.SUFFIX + "</version>");
+
+        ScaleResults.record(projectRoot, "manipulation", modules + " modules " + (kotlinDsl ? "kotlin" : "groovy"),
+                millis);
+    }
+}
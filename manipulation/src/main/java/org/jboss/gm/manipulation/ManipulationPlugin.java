@@ -17,6 +17,7 @@ import org.gradle.api.publish.maven.plugins.MavenPublishPlugin;
 import org.gradle.plugins.signing.SigningExtension;
 import org.jboss.gm.common.Configuration;
 import org.jboss.gm.common.io.ManipulationIO;
+import org.jboss.gm.common.io.ManipulationModelIndex;
 import org.jboss.gm.common.logging.GMLogger;
 import org.jboss.gm.common.model.ManipulationModel;
 import org.jboss.gm.common.utils.ProjectUtils;
@@ -90,9 +91,8 @@ public class ManipulationPlugin implements Plugin<Project> {
             return;
         }
 
-        // get the previously performed alignment
-        final ManipulationModel correspondingModule = ManipulationIO.readManipulationModel(project.getRootDir())
-                .findCorrespondingChild(project);
+        // get the previously performed alignment ; the file is only parsed once for all projects
+        final ManipulationModel correspondingModule = ManipulationModelIndex.getIndex(project).get(project);
 
         if (!project.getVersion().equals(correspondingModule.getVersion())) {
             // we need to change the project version early so various tasks that ready early and create other vars based on it
@@ -0,0 +1,54 @@
+package org.jboss.gm.manipulation.actions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+
+/**
+ * Hash based index of the aligned dependencies of a module, keyed by group, name and version. It allows the resolution
+ * actions to look up a requested dependency without building a {@link ProjectVersionRef} and its string form for
+ * every dependency of every configuration.
+ */
+public class AlignedDependencyIndex {
+    private final Map<String, Map<String, Map<String, ProjectVersionRef>>> aligned = new HashMap<>();
+
+    /**
+     * Creates the index.
+     *
+     * @param alignedDependencies the aligned dependencies, keyed by the {@code group:name:version} of the original
+     *        dependency
+     */
+    public AlignedDependencyIndex(Map<String, ProjectVersionRef> alignedDependencies) {
+        for (Map.Entry<String, ProjectVersionRef> entry : alignedDependencies.entrySet()) {
+            final String key = entry.getKey();
+            final int first = key.indexOf(':');
+            final int second = key.indexOf(':', first + 1);
+
+            // Unversioned keys never matched a requested GAV so they are not indexed.
+            if (first < 0 || second < 0) {
+                continue;
+            }
+            aligned.computeIfAbsent(key.substring(0, first), k -> new HashMap<>())
+                    .computeIfAbsent(key.substring(first + 1, second), k -> new HashMap<>())
+                    .put(key.substring(second + 1), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the aligned dependency of the given group, name and version.
+     *
+     * @param group the group
+     * @param name the name
+     * @param version the version
+     * @return the aligned dependency, or null if there is none
+     */
+    public ProjectVersionRef get(String group, String name, String version) {
+        final Map<String, Map<String, ProjectVersionRef>> names = aligned.get(group);
+        if (names == null) {
+            return null;
+        }
+        final Map<String, ProjectVersionRef> versions = names.get(name);
+        return versions == null ? null : versions.get(version);
+    }
+}
@@ -1,7 +1,5 @@
 package org.jboss.gm.manipulation.actions;
 
-import java.util.Map;
-
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.gradle.api.Action;
@@ -13,7 +11,6 @@ import org.jboss.gm.common.model.ManipulationModel;
 import org.jboss.gm.manipulation.ResolvedDependenciesRepository;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
-import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
 
 /**
  * Aligned dependency resolver action.
@@ -22,6 +19,7 @@ import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
  */
 public class AlignedDependencyResolverAction implements Action<DependencyResolveDetails> {
     private final ManipulationModel module;
+    private final AlignedDependencyIndex alignedDependencies;
     private final ResolvedDependenciesRepository resolvedDependenciesRepository;
 
     private final Logger logger = GMLogger.getLogger(getClass());
@@ -34,7 +32,13 @@ public class AlignedDependencyResolverAction implements Action<DependencyResolve
      */
     public AlignedDependencyResolverAction(ManipulationModel module,
             ResolvedDependenciesRepository resolvedDependenciesRepository) {
+        this(module, new AlignedDependencyIndex(module.getAlignedDependencies()), resolvedDependenciesRepository);
+    }
+
+    AlignedDependencyResolverAction(ManipulationModel module, AlignedDependencyIndex alignedDependencies,
+            ResolvedDependenciesRepository resolvedDependenciesRepository) {
         this.module = module;
+        this.alignedDependencies = alignedDependencies;
         this.resolvedDependenciesRepository = resolvedDependenciesRepository;
     }
 
@@ -61,17 +65,16 @@ public class AlignedDependencyResolverAction implements Action<DependencyResolve
             }
         }
 
-        final ProjectVersionRef requestedGAV = withGAV(requested.getGroup(), requested.getName(), version);
-        final Map<String, ProjectVersionRef> alignedDependencies = module.getAlignedDependencies();
-        final String key = requestedGAV.toString();
-        final ProjectVersionRef aligned = alignedDependencies.get(key);
+        final ProjectVersionRef aligned = alignedDependencies.get(requested.getGroup(), requested.getName(), version);
 
         if (aligned != null) {
+            final String key = requested.getGroup() + ':' + requested.getName() + ':' + version;
             logger.info("Overriding dependency {} with new version {}", key, aligned);
             resolveDetails.because(key + " is aligned to " + aligned).useVersion(aligned.getVersionString());
-        } else {
-            logger.trace("Unable to find a mapping for {} in module {} with alignedDependencies {}", key,
-                    module.getName(), alignedDependencies);
+        } else if (logger.isTraceEnabled()) {
+            logger.trace("Unable to find a mapping for {}:{}:{} in module {} with alignedDependencies {}",
+                    requested.getGroup(), requested.getName(), version, module.getName(),
+                    module.getAlignedDependencies());
         }
     }
 }
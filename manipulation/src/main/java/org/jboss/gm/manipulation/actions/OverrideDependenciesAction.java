@@ -1,7 +1,6 @@
 package org.jboss.gm.manipulation.actions;
 
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
@@ -11,12 +10,11 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ModuleVersionSelector;
 import org.gradle.api.internal.artifacts.DefaultModuleVersionSelector;
 import org.gradle.api.logging.Logger;
+import org.jboss.gm.common.logging.CollectionSummary;
 import org.jboss.gm.common.logging.GMLogger;
 import org.jboss.gm.common.model.ManipulationModel;
 import org.jboss.gm.manipulation.ResolvedDependenciesRepository;
 
-import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
-
 /**
  * An action which overrides dependencies.
  *
@@ -28,7 +26,7 @@ public class OverrideDependenciesAction implements Action<Project> {
 
     private final AlignedDependencyResolverAction resolver;
 
-    private final ManipulationModel module;
+    private final AlignedDependencyIndex alignedDependencies;
 
     /**
      * Creates a new override dependencies action with the given corresponding module and resolved dependencies
@@ -39,8 +37,9 @@ public class OverrideDependenciesAction implements Action<Project> {
      */
     public OverrideDependenciesAction(ManipulationModel correspondingModule,
             ResolvedDependenciesRepository resolvedDependenciesRepository) {
-        this.module = correspondingModule;
-        this.resolver = new AlignedDependencyResolverAction(correspondingModule, resolvedDependenciesRepository);
+        this.alignedDependencies = new AlignedDependencyIndex(correspondingModule.getAlignedDependencies());
+        this.resolver = new AlignedDependencyResolverAction(correspondingModule, alignedDependencies,
+                resolvedDependenciesRepository);
     }
 
     /**
@@ -60,22 +59,22 @@ public class OverrideDependenciesAction implements Action<Project> {
 
                 final Set<ModuleVersionSelector> forcedOriginal = configuration.getResolutionStrategy().getForcedModules();
                 final Set<ModuleVersionSelector> forced = new HashSet<>();
-                final Map<String, ProjectVersionRef> alignedDependencies = module.getAlignedDependencies();
 
                 if (!forcedOriginal.isEmpty()) {
-                    logger.debug("Found forced modules of {}", forcedOriginal);
+                    logger.debug("Found forced modules of {}", CollectionSummary.of(logger, forcedOriginal));
                     for (ModuleVersionSelector m : forcedOriginal) {
-                        final ProjectVersionRef requestedGAV = withGAV(m.getGroup(), m.getName(), m.getVersion());
-                        final ProjectVersionRef aligned = alignedDependencies.get(requestedGAV.toString());
+                        final ProjectVersionRef aligned = alignedDependencies.get(m.getGroup(), m.getName(),
+                                m.getVersion());
                         if (aligned != null) {
-                            logger.info("Replacing force override of {} with {} ", requestedGAV, aligned);
+                            logger.info("Replacing force override of {}:{}:{} with {} ", m.getGroup(), m.getName(),
+                                    m.getVersion(), aligned);
                             forced.add(new DefaultModuleVersionSelector(m.getGroup(), m.getName(),
                                     aligned.getVersionString()));
                         } else {
                             forced.add(m);
                         }
                     }
-                    logger.debug("Forced resolution strategy is now {} ", forced);
+                    logger.debug("Forced resolution strategy is now {} ", CollectionSummary.of(logger, forced));
                     configuration.getResolutionStrategy().setForcedModules(forced.toArray());
                 }
             }
@@ -0,0 +1,33 @@
+package org.jboss.gm.manipulation.actions;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.gm.common.versioning.ProjectVersionFactory.withGAV;
+
+public class AlignedDependencyIndexTest {
+
+    @Test
+    public void lookupMatchesStringKeys() {
+        final Map<String, ProjectVersionRef> aligned = new TreeMap<>();
+        aligned.put("org.hibernate:hibernate-core:5.3.7.Final",
+                withGAV("org.hibernate", "hibernate-core", "5.3.7.Final-redhat-00001"));
+        aligned.put("org.hibernate:hibernate-core:5.4.0.Final",
+                withGAV("org.hibernate", "hibernate-core", "5.4.0.Final-redhat-00001"));
+        aligned.put("io.undertow:undertow-core", withGAV("io.undertow", "undertow-core", "2.0.15.Final-redhat-00001"));
+
+        final AlignedDependencyIndex index = new AlignedDependencyIndex(aligned);
+
+        assertThat(index.get("org.hibernate", "hibernate-core", "5.3.7.Final"))
+                .isSameAs(aligned.get("org.hibernate:hibernate-core:5.3.7.Final"));
+        assertThat(index.get("org.hibernate", "hibernate-core", "5.4.0.Final").getVersionString())
+                .isEqualTo("5.4.0.Final-redhat-00001");
+        assertThat(index.get("org.hibernate", "hibernate-core", "5.4.1.Final")).isNull();
+        assertThat(index.get("org.hibernate", "hibernate-envers", "5.3.7.Final")).isNull();
+        assertThat(index.get("io.undertow", "undertow-core", "2.0.15.Final")).isNull();
+    }
+}
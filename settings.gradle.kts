@@ -3,3 +3,4 @@ include("analyzer")
 include("manipulation")
 include("common")
 include("cli")
+include("benchmarks")